@@ -0,0 +1,112 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import io.vertx.core.impl.cpu.CpuCoreSensor;
+
+/**
+ * End-to-end benchmark of the controller. Enacts the {@link Workflows} with
+ * no-op functions (see {@link PipelineHarness}) for a range of deployment
+ * numbers and reports the throughput (enacted tasks per second), the p50/p99
+ * controller latency per task, and the allocation rate.
+ * 
+ * Arguments (all optional): the workflow size, the number of measured runs per
+ * configuration, and the number of warm-up runs per configuration.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class EndToEndBenchmark {
+
+  protected static final long timeoutSeconds = 300;
+
+  /**
+   * No constructor.
+   */
+  private EndToEndBenchmark() {}
+
+  public static void main(final String[] args) throws Exception {
+    final int size = args.length > 0 ? Integer.parseInt(args[0]) : 64;
+    final int runs = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+    final int warmupRuns = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+    System.out.println(String.format("%-12s %8s %12s %12s %12s %14s", "workflow", "deploys",
+        "tasks/s", "p50 [us]", "p99 [us]", "alloc [MB/s]"));
+    for (final Workflows workflow : Workflows.values()) {
+      for (final int deploymentNumber : getDeploymentNumbers()) {
+        for (int i = 0; i < warmupRuns; i++) {
+          run(workflow, size, deploymentNumber, new LatencyRecorder());
+        }
+        final LatencyRecorder recorder = new LatencyRecorder();
+        long elapsedNanos = 0;
+        long allocatedBytes = 0;
+        for (int i = 0; i < runs; i++) {
+          final long[] measurement = run(workflow, size, deploymentNumber, recorder);
+          elapsedNanos += measurement[0];
+          allocatedBytes += measurement[1];
+        }
+        final double seconds = elapsedNanos / 1e9;
+        System.out.println(String.format("%-12s %8d %12.1f %12.1f %12.1f %14.1f",
+            workflow.name(), deploymentNumber, recorder.getCount() / seconds,
+            recorder.getPercentile(50) / 1e3, recorder.getPercentile(99) / 1e3,
+            allocatedBytes / seconds / (1024 * 1024)));
+      }
+    }
+  }
+
+  /**
+   * Returns the deployment numbers to sweep: from 1 to 4 times the number of
+   * cores, doubling in each step.
+   * 
+   * @return the deployment numbers to sweep
+   */
+  protected static List<Integer> getDeploymentNumbers() {
+    final int max = 4 * CpuCoreSensor.availableProcessors();
+    final List<Integer> result = new ArrayList<>();
+    for (int number = 1; number < max; number *= 2) {
+      result.add(number);
+    }
+    result.add(max);
+    return result;
+  }
+
+  /**
+   * Performs one enactment of the given workflow.
+   * 
+   * @return array containing the duration of the enactment (in ns) and the
+   *         number of bytes allocated during the enactment
+   */
+  protected static long[] run(final Workflows workflow, final int size,
+      final int deploymentNumber, final LatencyRecorder recorder) throws Exception {
+    final EnactmentGraph graph = workflow.createGraph(size);
+    final PipelineHarness harness = new PipelineHarness(graph, deploymentNumber, size, recorder);
+    try {
+      final long allocatedBefore = getAllocatedBytes();
+      final long start = System.nanoTime();
+      harness.enact().get(timeoutSeconds, TimeUnit.SECONDS);
+      final long duration = System.nanoTime() - start;
+      return new long[] {duration, getAllocatedBytes() - allocatedBefore};
+    } finally {
+      harness.close();
+    }
+  }
+
+  /**
+   * Returns the number of bytes allocated by the live threads of the JVM.
+   * 
+   * @return the number of bytes allocated by the live threads of the JVM
+   */
+  protected static long getAllocatedBytes() {
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    long result = 0;
+    for (final long allocated : threadBean
+        .getThreadAllocatedBytes(threadBean.getAllThreadIds())) {
+      if (allocated > 0) {
+        result += allocated;
+      }
+    }
+    return result;
+  }
+}
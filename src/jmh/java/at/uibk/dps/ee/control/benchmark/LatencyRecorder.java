@@ -0,0 +1,51 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import java.util.Arrays;
+
+/**
+ * Records the controller latencies of the enacted tasks.
+ * 
+ * @author Fedor Smirnov
+ */
+public class LatencyRecorder {
+
+  protected long[] latencies = new long[1024];
+  protected int count;
+
+  /**
+   * Records the given latency.
+   * 
+   * @param latencyNanos the latency in nanoseconds
+   */
+  public synchronized void record(final long latencyNanos) {
+    if (count == latencies.length) {
+      latencies = Arrays.copyOf(latencies, 2 * count);
+    }
+    latencies[count++] = latencyNanos;
+  }
+
+  /**
+   * Returns the number of recorded latencies (i.e., the number of enacted tasks).
+   * 
+   * @return the number of recorded latencies
+   */
+  public synchronized int getCount() {
+    return count;
+  }
+
+  /**
+   * Returns the given percentile of the recorded latencies.
+   * 
+   * @param percentile the percentile (between 0 and 100)
+   * @return the given percentile of the recorded latencies in nanoseconds
+   */
+  public synchronized long getPercentile(final double percentile) {
+    if (count == 0) {
+      return 0;
+    }
+    final long[] sorted = Arrays.copyOf(latencies, count);
+    Arrays.sort(sorted);
+    final int index = (int) Math.ceil(percentile / 100 * count) - 1;
+    return sorted[Math.max(0, Math.min(index, count - 1))];
+  }
+}
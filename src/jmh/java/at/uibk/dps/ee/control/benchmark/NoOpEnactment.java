@@ -0,0 +1,168 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.core.function.EnactmentFunction;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionUtilityWhile;
+import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Provides the enactment functions used in the end-to-end benchmark. The
+ * functions do not do any work: they produce an output entry for each out-edge
+ * of their task, containing the time of the enactment (relative to the
+ * creation of this object). The latency between the latest input of a task and
+ * its enactment is recorded as the controller latency of the task.
+ * 
+ * While end tasks continue their loop for the configured number of iterations;
+ * the entries with the decision key are always true.
+ * 
+ * @author Fedor Smirnov
+ */
+public class NoOpEnactment {
+
+  public static final String jsonKeyDecision = "decision";
+
+  protected final EnactmentGraph graph;
+  protected final LatencyRecorder recorder;
+  protected final int whileIterations;
+  protected final long epoch = System.nanoTime();
+  protected final Map<String, AtomicInteger> whileCounts = new ConcurrentHashMap<>();
+
+  /**
+   * Default constructor.
+   * 
+   * @param graph the enactment graph
+   * @param recorder the recorder for the controller latencies
+   * @param whileIterations the number of iterations of each while loop
+   */
+  public NoOpEnactment(final EnactmentGraph graph, final LatencyRecorder recorder,
+      final int whileIterations) {
+    this.graph = graph;
+    this.recorder = recorder;
+    this.whileIterations = whileIterations;
+  }
+
+  /**
+   * Returns a schedule interpreter which maps each task onto a no-op function.
+   * 
+   * @return a schedule interpreter which maps each task onto a no-op function
+   */
+  public ScheduleInterpreter getInterpreter() {
+    final ScheduleInterpreter result =
+        mock(ScheduleInterpreter.class, withSettings().stubOnly());
+    when(result.interpretSchedule(any(), any()))
+        .thenAnswer(invocation -> getFunction(invocation.getArgument(0)));
+    return result;
+  }
+
+  /**
+   * Returns the current time relative to the creation of this object. Used as
+   * content of the workflow input.
+   * 
+   * @return the current time relative to the creation of this object
+   */
+  public long now() {
+    return System.nanoTime() - epoch;
+  }
+
+  /**
+   * Returns the no-op function for the given task.
+   * 
+   * @param task the given task
+   * @return the no-op function for the given task
+   */
+  protected EnactmentFunction getFunction(final Task task) {
+    return (EnactmentFunction) Proxy.newProxyInstance(EnactmentFunction.class.getClassLoader(),
+        new Class<?>[] {EnactmentFunction.class}, (proxy, method, args) -> {
+          if ("processInput".equals(method.getName())) {
+            return Future.succeededFuture(process(task, (JsonObject) args[0]));
+          } else if ("toString".equals(method.getName())) {
+            return "NoOp " + task.getId();
+          } else if ("hashCode".equals(method.getName())) {
+            return System.identityHashCode(proxy);
+          } else if ("equals".equals(method.getName())) {
+            return proxy == args[0];
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Records the latency of the given task and generates its output.
+   * 
+   * @param task the enacted task
+   * @param input the task input
+   * @return the task output
+   */
+  protected JsonObject process(final Task task, final JsonObject input) {
+    final long timestamp = now();
+    recorder.record(timestamp - getLatestInput(input));
+    final JsonObject result = new JsonObject();
+    final JsonPrimitive content = new JsonPrimitive(timestamp);
+    for (final Dependency outEdge : graph.getOutEdges(task)) {
+      final String key = PropertyServiceDependency.getJsonKey(outEdge);
+      if (jsonKeyDecision.equals(key)) {
+        result.add(key, new JsonPrimitive(true));
+      } else if (PropertyServiceFunctionDataFlowCollections.isDistributionNode(task)) {
+        final int iterations =
+            PropertyServiceFunctionDataFlowCollections.getIterationNumber(task);
+        for (int i = 0; i < iterations; i++) {
+          result.add(ConstantsEEModel.getCollectionElementKey(key, i), content);
+        }
+      } else {
+        result.add(key, content);
+      }
+    }
+    if (PropertyServiceFunctionUtilityWhile.isWhileEndTask(task)) {
+      result.add(ConstantsEEModel.JsonKeyWhileDecision, new JsonPrimitive(continueWhile(task)));
+    }
+    return result;
+  }
+
+  /**
+   * Returns true iff the while loop of the given while end is to be continued.
+   * 
+   * @param whileEnd the given while end
+   * @return true iff the while loop is to be continued
+   */
+  protected boolean continueWhile(final Task whileEnd) {
+    final Task dataOutCompound = graph.getSuccessors(whileEnd).iterator().next();
+    final String loopReference = PropertyServiceData.getOriginalWhileEndReference(dataOutCompound);
+    return whileCounts.computeIfAbsent(loopReference, ref -> new AtomicInteger())
+        .incrementAndGet() < whileIterations;
+  }
+
+  /**
+   * Returns the latest timestamp contained in the given input.
+   * 
+   * @param input the given input
+   * @return the latest timestamp contained in the given input
+   */
+  protected long getLatestInput(final JsonObject input) {
+    long result = 0;
+    for (final Map.Entry<String, JsonElement> entry : input.entrySet()) {
+      final JsonElement element = entry.getValue();
+      if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+        result = Math.max(result, element.getAsLong());
+      }
+    }
+    return result;
+  }
+}
@@ -0,0 +1,189 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.enactment.EnactmentAdmission;
+import at.uibk.dps.ee.control.enactment.PostEnactmentDefault;
+import at.uibk.dps.ee.control.enactment.ResourceFreedCoalescer;
+import at.uibk.dps.ee.control.enactment.RetryPolicy;
+import at.uibk.dps.ee.control.enactment.SpeculativeExecution;
+import at.uibk.dps.ee.control.enactment.WorkerEnactment;
+import at.uibk.dps.ee.control.extraction.LeafNodeTracker;
+import at.uibk.dps.ee.control.extraction.WorkerExtraction;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.init.EnactmentReset;
+import at.uibk.dps.ee.control.init.InFlightCounter;
+import at.uibk.dps.ee.control.locks.EnactmentLockProvider;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.offload.InvocationExecutorEventLoop;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
+import at.uibk.dps.ee.control.scheduling.ScheduleMemoization;
+import at.uibk.dps.ee.control.scheduling.SchedulingBatcher;
+import at.uibk.dps.ee.control.scheduling.WaitingTaskIndex;
+import at.uibk.dps.ee.control.scheduling.WorkerScheduling;
+import at.uibk.dps.ee.control.transformation.GraphTransformer;
+import at.uibk.dps.ee.control.transformation.PostTransformationDefault;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry;
+import at.uibk.dps.ee.control.transformation.WorkerTransformation;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.control.transmission.SchedulabilityCheckMulti;
+import at.uibk.dps.ee.control.transmission.WorkerTransmission;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.InputDataHandler;
+import at.uibk.dps.ee.control.verticles.PromiseProvider;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
+import at.uibk.dps.ee.control.verticles.VerticleApollo;
+import at.uibk.dps.ee.control.verticles.VerticleFunction;
+import at.uibk.dps.ee.control.verticles.VerticleManager;
+import at.uibk.dps.ee.core.ModelModificationListener;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraphProvider;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.utils.UtilsEnactmentGraph;
+import at.uibk.dps.sc.core.ScheduleModel;
+import at.uibk.dps.sc.core.arbitration.ResourceArbiter;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * Wires up the verticles of the enactment with the same objects that the
+ * {@link at.uibk.dps.ee.control.modules.EnactmentVerticleModule} binds, for a
+ * single enactment of the given graph. The scheduling is reduced to empty
+ * schedules and the enactment uses the no-op functions of the
+ * {@link NoOpEnactment}, so that only the controller overhead is measured.
+ * 
+ * @author Fedor Smirnov
+ */
+public class PipelineHarness {
+
+  protected final EnactmentGraph graph;
+  protected final Vertx vertx;
+  protected final NoOpEnactment noOp;
+  protected final VerticleFunction function;
+
+  /**
+   * Creates the harness and deploys the verticles.
+   * 
+   * @param graph the graph to enact
+   * @param deploymentNumber the number of verticles deployed per verticle type
+   * @param whileIterations the number of iterations of each while loop
+   * @param recorder the recorder for the controller latencies
+   */
+  public PipelineHarness(final EnactmentGraph graph, final int deploymentNumber,
+      final int whileIterations, final LatencyRecorder recorder) {
+    this.graph = graph;
+    this.vertx = Vertx.vertx();
+    this.noOp = new NoOpEnactment(graph, recorder, whileIterations);
+    final VertxProvider vProv = new VertxProvider(vertx);
+    final SpecificationProvider specProvider =
+        mock(SpecificationProvider.class, withSettings().stubOnly());
+    when(specProvider.getEnactmentGraph()).thenReturn(graph);
+    final EnactmentGraphProvider graphProvider =
+        mock(EnactmentGraphProvider.class, withSettings().stubOnly());
+    when(graphProvider.getEnactmentGraph()).thenReturn(graph);
+
+    // scheduling reduced to empty schedules
+    final ScheduleModel scheduleModel = mock(ScheduleModel.class, withSettings().stubOnly());
+    final Scheduler scheduler = mock(Scheduler.class, withSettings().stubOnly());
+    when(scheduler.scheduleTask(any())).thenReturn(Future.succeededFuture(new HashSet<>()));
+    final ResourceArbiter arbiter = mock(ResourceArbiter.class, withSettings().stubOnly());
+
+    final TaskMessenger taskMessenger = new TaskMessenger(false);
+    final EnactmentLockProvider lockProvider = new EnactmentLockProviderLocal();
+    final LockStriping lockStriping = new LockStriping(64, lockProvider);
+    final PendingInputCounter pendingInputs = new PendingInputCounter();
+    final LeafNodeTracker leafNodeTracker = new LeafNodeTracker(specProvider);
+    final Set<ModelModificationListener> listeners = new HashSet<>();
+
+    // the singletons shared by the verticle instances
+    final WaitingTaskIndex waitingTasks = new WaitingTaskIndex();
+    final ResourceCapacityTracker capacityTracker = new ResourceCapacityTracker("");
+    final SchedulingBatcher batcher = new SchedulingBatcher(scheduler, specProvider, vProv, 0);
+    final ScheduleMemoization memoization = new ScheduleMemoization(specProvider, false);
+    final PostEnactmentDefault postEnactment = new PostEnactmentDefault(scheduleModel, vProv,
+        taskMessenger, new ResourceFreedCoalescer(vProv, 0), capacityTracker);
+    final EnactmentAdmission admission = new EnactmentAdmission(0, 0, 0, 0);
+    final SpeculativeExecution speculation =
+        new SpeculativeExecution(specProvider, capacityTracker, 0, 0);
+    final RetryPolicy retryPolicy = new RetryPolicy(0, 0, 0, 0, false, "");
+    final ScopeRegistry scopeRegistry = new ScopeRegistry();
+    final InFlightCounter inFlight = new InFlightCounter();
+    postEnactment.setInFlightCounter(inFlight);
+
+    final Map<Class<? extends VerticleApollo>, Supplier<VerticleApollo>> factories =
+        new LinkedHashMap<>();
+    factories.put(WorkerTransmission.class, () -> new WorkerTransmission(specProvider,
+        new SchedulabilityCheckMulti(), pendingInputs, lockStriping, taskMessenger));
+    factories.put(WorkerScheduling.class, () -> new WorkerScheduling(specProvider, scheduleModel,
+        batcher, arbiter, lockProvider, taskMessenger, waitingTasks, memoization,
+        capacityTracker));
+    factories.put(WorkerEnactment.class,
+        () -> new WorkerEnactment(specProvider, postEnactment, scheduleModel,
+            noOp.getInterpreter(), admission, speculation, retryPolicy,
+            new InvocationExecutorEventLoop()));
+    factories.put(WorkerExtraction.class,
+        () -> new WorkerExtraction(specProvider, leafNodeTracker, taskMessenger));
+    factories.put(WorkerTransformation.class,
+        () -> new WorkerTransformation(specProvider, new GraphTransformer(scopeRegistry), listeners,
+            new PostTransformationDefault(taskMessenger), pendingInputs, leafNodeTracker,
+            lockStriping, false));
+    final Function<Class<? extends VerticleApollo>, VerticleApollo> instanceFactory = type -> {
+      final VerticleApollo verticle = factories.get(type).get();
+      verticle.setInFlightCounter(inFlight);
+      return verticle;
+    };
+    final Set<VerticleApollo> verticles = new LinkedHashSet<>();
+    factories.keySet().forEach(type -> verticles.add(instanceFactory.apply(type)));
+
+    final FailureHandler failureHandler = new FailureHandler(ConstantsVertX.addressFailureAbort) {
+      @Override
+      public void handleFailure(final String failureMessage,
+          final Promise<JsonObject> resultPromise, final Vertx vertx) {
+        resultPromise.tryFail(failureMessage);
+      }
+    };
+    this.function = new VerticleFunction(
+        new InputDataHandler(graphProvider, vProv, taskMessenger),
+        new VerticleManager(verticles, deploymentNumber, vProv, instanceFactory), vProv,
+        new PromiseProvider(), failureHandler,
+        new EnactmentReset(specProvider, scheduleModel, pendingInputs, leafNodeTracker,
+            scopeRegistry, failureHandler, batcher, waitingTasks, lockStriping, inFlight));
+  }
+
+  /**
+   * Enacts the graph.
+   * 
+   * @return future completed with the workflow result
+   */
+  public CompletableFuture<JsonObject> enact() {
+    final JsonObject input = new JsonObject();
+    final JsonPrimitive startTime = new JsonPrimitive(noOp.now());
+    UtilsEnactmentGraph.getNonConstRootNodes(graph)
+        .forEach(root -> input.add(PropertyServiceData.getJsonKey(root), startTime));
+    return function.processInput(input).toCompletionStage().toCompletableFuture();
+  }
+
+  /**
+   * Closes the vertX instance of the harness.
+   */
+  public void close() {
+    vertx.close().toCompletionStage().toCompletableFuture().join();
+  }
+}
@@ -0,0 +1,133 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.constants.ConstantsEEModel;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * Static factory for the synthetic enactment graphs used in the benchmarks.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class SyntheticGraphs {
+
+  public static final String scopeName = "scope";
+  public static final String jsonKeyIn = "in";
+  public static final String jsonKeyOut = "out";
+
+  /**
+   * A graph with a single function node with a configurable number of inputs.
+   */
+  public static class FanInGraph {
+    public final EnactmentGraph graph;
+    public final Task function;
+    public final Dependency firstInEdge;
+
+    protected FanInGraph(final EnactmentGraph graph, final Task function,
+        final Dependency firstInEdge) {
+      this.graph = graph;
+      this.function = function;
+      this.firstInEdge = firstInEdge;
+    }
+  }
+
+  /**
+   * A graph with a parallel for (distribution, function chain, aggregation).
+   */
+  public static class ParallelForGraph {
+    public final EnactmentGraph graph;
+    public final Task distribution;
+    public final Task aggregation;
+
+    protected ParallelForGraph(final EnactmentGraph graph, final Task distribution,
+        final Task aggregation) {
+      this.graph = graph;
+      this.distribution = distribution;
+      this.aggregation = aggregation;
+    }
+  }
+
+  /**
+   * No constructor.
+   */
+  private SyntheticGraphs() {}
+
+  /**
+   * Creates a graph where a single function processes the given number of data
+   * nodes. All data nodes have content and all in-edges of the function are
+   * annotated as transmitted.
+   * 
+   * @param width the number of the function inputs
+   * @return the graph where a single function processes the given number of
+   *         data nodes
+   */
+  public static FanInGraph fanIn(final int width) {
+    final EnactmentGraph graph = new EnactmentGraph();
+    final Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    Dependency firstInEdge = null;
+    for (int i = 0; i < width; i++) {
+      final Communication input = new Communication("input" + i);
+      PropertyServiceData.makeRoot(input);
+      PropertyServiceData.setContent(input, new JsonPrimitive(i));
+      final Dependency inEdge =
+          PropertyServiceDependency.addDataDependency(input, function, jsonKeyIn + i, graph);
+      PropertyServiceDependency.annotateFinishedTransmission(inEdge);
+      if (firstInEdge == null) {
+        firstInEdge = inEdge;
+      }
+    }
+    final Communication output = new Communication("output");
+    PropertyServiceData.makeLeaf(output);
+    PropertyServiceDependency.addDataDependency(function, output, jsonKeyOut, graph);
+    return new FanInGraph(graph, function, firstInEdge);
+  }
+
+  /**
+   * Creates a graph with a parallel for processing a collection of the given
+   * width with a chain of functions of the given depth.
+   * 
+   * @param width the number of the collection elements (iterations)
+   * @param depth the number of the functions processing each element
+   * @return the graph with a parallel for
+   */
+  public static ParallelForGraph parallelFor(final int width, final int depth) {
+    final EnactmentGraph graph = new EnactmentGraph();
+    final Communication wfInput = new Communication("input");
+    PropertyServiceData.makeRoot(wfInput);
+    final Communication wfOutput = new Communication("output");
+    PropertyServiceData.makeLeaf(wfOutput);
+
+    final Task distribution = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, scopeName);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distribution, width);
+    final Task aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, scopeName);
+
+    PropertyServiceDependency.addDataDependency(wfInput, distribution, jsonKeyIn, graph);
+    Communication current = new Communication("data0");
+    PropertyServiceDependency.addDataDependency(distribution, current, jsonKeyIn, graph);
+    for (int i = 1; i <= depth; i++) {
+      final Task function = new Task("function" + i);
+      PropertyServiceFunction.setUsageType(UsageType.User, function);
+      final Communication next = new Communication("data" + i);
+      PropertyServiceDependency.addDataDependency(current, function, jsonKeyIn, graph);
+      PropertyServiceDependency.addDataDependency(function, next, jsonKeyOut, graph);
+      current = next;
+    }
+    PropertyServiceDependency.addDataDependency(current, aggregation,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput,
+        ConstantsEEModel.JsonKeyAggregation, graph);
+    return new ParallelForGraph(graph, distribution, aggregation);
+  }
+}
@@ -0,0 +1,163 @@
+package at.uibk.dps.ee.control.benchmark;
+
+import at.uibk.dps.ee.control.testconstants.ConstantsControlTest;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependencyControlIf;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow.DataFlowType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+/**
+ * The workflow types used in the end-to-end benchmark.
+ * 
+ * @author Fedor Smirnov
+ */
+public enum Workflows {
+
+  /**
+   * A chain of functions.
+   */
+  Chain {
+    @Override
+    public EnactmentGraph createGraph(final int size) {
+      final EnactmentGraph graph = new EnactmentGraph();
+      Communication current = new Communication("input");
+      PropertyServiceData.makeRoot(current);
+      PropertyServiceData.setJsonKey(current, SyntheticGraphs.jsonKeyIn);
+      for (int i = 1; i <= size; i++) {
+        current = addFunction(graph, current, "function" + i, "data" + i);
+      }
+      PropertyServiceData.makeLeaf(current);
+      PropertyServiceData.setJsonKey(current, SyntheticGraphs.jsonKeyOut);
+      return graph;
+    }
+  },
+  /**
+   * A parallel for with a width of the given size, processing each element with
+   * a chain of 4 functions.
+   */
+  ParallelFor {
+    @Override
+    public EnactmentGraph createGraph(final int size) {
+      final EnactmentGraph graph = SyntheticGraphs.parallelFor(size, 4).graph;
+      graph.getVertices().stream().filter(task -> PropertyServiceData.isRoot(task))
+          .forEach(root -> PropertyServiceData.setJsonKey(root, SyntheticGraphs.jsonKeyIn));
+      graph.getVertices().stream().filter(task -> PropertyServiceData.isLeaf(task))
+          .forEach(leaf -> PropertyServiceData.setJsonKey(leaf, SyntheticGraphs.jsonKeyOut));
+      return graph;
+    }
+  },
+  /**
+   * Two nested while loops (the given size defines the iteration number of the
+   * loops).
+   */
+  NestedWhile {
+    @Override
+    public EnactmentGraph createGraph(final int size) {
+      return new AfclReader(ConstantsControlTest.filePathYamlNestedWhile).getEnactmentGraph();
+    }
+  },
+  /**
+   * A sequence of if/muxer diamonds.
+   */
+  IfDiamonds {
+    @Override
+    public EnactmentGraph createGraph(final int size) {
+      final EnactmentGraph graph = new EnactmentGraph();
+      Communication current = new Communication("input");
+      PropertyServiceData.makeRoot(current);
+      PropertyServiceData.setJsonKey(current, SyntheticGraphs.jsonKeyIn);
+      for (int i = 1; i <= size; i++) {
+        current = addDiamond(graph, current, i);
+      }
+      PropertyServiceData.makeLeaf(current);
+      PropertyServiceData.setJsonKey(current, SyntheticGraphs.jsonKeyOut);
+      return graph;
+    }
+  };
+
+  /**
+   * Creates the graph of the workflow.
+   * 
+   * @param size the size parameter of the workflow
+   * @return the graph of the workflow
+   */
+  public abstract EnactmentGraph createGraph(int size);
+
+  /**
+   * Adds a user function processing the given data node and returns its output
+   * data node.
+   * 
+   * @param graph the enactment graph
+   * @param input the input data node
+   * @param functionId the id of the function
+   * @param outputId the id of the output data node
+   * @return the output data node
+   */
+  protected static Communication addFunction(final EnactmentGraph graph,
+      final Communication input, final String functionId, final String outputId) {
+    final Task function = new Task(functionId);
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    final Communication output = new Communication(outputId);
+    PropertyServiceDependency.addDataDependency(input, function, SyntheticGraphs.jsonKeyIn,
+        graph);
+    PropertyServiceDependency.addDataDependency(function, output, SyntheticGraphs.jsonKeyOut,
+        graph);
+    return output;
+  }
+
+  /**
+   * Adds an if/muxer diamond processing the given data node and returns its
+   * output data node.
+   * 
+   * @param graph the enactment graph
+   * @param input the input data node
+   * @param idx the index of the diamond
+   * @return the output data node
+   */
+  protected static Communication addDiamond(final EnactmentGraph graph,
+      final Communication input, final int idx) {
+    final Task condition = new Task("condition" + idx);
+    PropertyServiceFunction.setUsageType(UsageType.User, condition);
+    final Communication decision = new Communication("decision" + idx);
+    PropertyServiceDependency.addDataDependency(input, condition, SyntheticGraphs.jsonKeyIn,
+        graph);
+    PropertyServiceDependency.addDataDependency(condition, decision,
+        NoOpEnactment.jsonKeyDecision, graph);
+    final Task branchTrue = new Task("true" + idx);
+    final Task branchFalse = new Task("false" + idx);
+    PropertyServiceFunction.setUsageType(UsageType.User, branchTrue);
+    PropertyServiceFunction.setUsageType(UsageType.User, branchFalse);
+    final Communication resultTrue = new Communication("resultTrue" + idx);
+    final Communication resultFalse = new Communication("resultFalse" + idx);
+    PropertyServiceDependencyControlIf.addIfDependency(decision, branchTrue,
+        NoOpEnactment.jsonKeyDecision, true, graph);
+    PropertyServiceDependencyControlIf.addIfDependency(decision, branchFalse,
+        NoOpEnactment.jsonKeyDecision, false, graph);
+    PropertyServiceDependency.addDataDependency(input, branchTrue, SyntheticGraphs.jsonKeyIn,
+        graph);
+    PropertyServiceDependency.addDataDependency(input, branchFalse, SyntheticGraphs.jsonKeyIn,
+        graph);
+    PropertyServiceDependency.addDataDependency(branchTrue, resultTrue,
+        SyntheticGraphs.jsonKeyOut, graph);
+    PropertyServiceDependency.addDataDependency(branchFalse, resultFalse,
+        SyntheticGraphs.jsonKeyOut, graph);
+    final Task muxer = PropertyServiceFunctionDataFlow.createDataFlowFunction("muxer" + idx,
+        DataFlowType.Multiplexer);
+    final Communication output = new Communication("data" + idx);
+    PropertyServiceDependency.addDataDependency(decision, muxer, NoOpEnactment.jsonKeyDecision,
+        graph);
+    PropertyServiceDependencyControlIf.addIfDependency(resultTrue, muxer,
+        SyntheticGraphs.jsonKeyIn, true, graph);
+    PropertyServiceDependencyControlIf.addIfDependency(resultFalse, muxer,
+        SyntheticGraphs.jsonKeyIn, false, graph);
+    PropertyServiceDependency.addDataDependency(muxer, output, SyntheticGraphs.jsonKeyOut, graph);
+    return output;
+  }
+}
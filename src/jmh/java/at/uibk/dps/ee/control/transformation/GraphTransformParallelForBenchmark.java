@@ -0,0 +1,92 @@
+package at.uibk.dps.ee.control.transformation;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs.ParallelForGraph;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+
+/**
+ * Benchmarks of the graph transformations applied for parallel for constructs:
+ * The reproduction of the parallel for body by the distribution and its
+ * reversion by the aggregation. The graphs are rebuilt before each invocation.
+ * 
+ * @author Fedor Smirnov
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphTransformParallelForBenchmark {
+
+  /**
+   * Parameters of the synthetic graph.
+   */
+  @State(Scope.Thread)
+  public static class GraphShape {
+    @Param({"4", "64", "512"})
+    public int width;
+
+    @Param({"1", "8"})
+    public int depth;
+  }
+
+  /**
+   * Graph before the distribution.
+   */
+  @State(Scope.Thread)
+  public static class DistributionState {
+    protected ParallelForGraph parFor;
+
+    @Setup(Level.Invocation)
+    public void setup(final GraphShape shape) {
+      parFor = SyntheticGraphs.parallelFor(shape.width, shape.depth);
+    }
+  }
+
+  /**
+   * Graph after the distribution, with the aggregation ready for the revert.
+   */
+  @State(Scope.Thread)
+  public static class AggregationState {
+    protected ParallelForGraph parFor;
+    protected ScopeRegistry scopeRegistry;
+
+    @Setup(Level.Invocation)
+    public void setup(final GraphShape shape) {
+      parFor = SyntheticGraphs.parallelFor(shape.width, shape.depth);
+      scopeRegistry = new ScopeRegistry();
+      new GraphTransformDistribution(scopeRegistry).applyDistributionReproduction(parFor.graph,
+          parFor.distribution);
+      PropertyServiceFunction.setInput(parFor.aggregation, new JsonObject());
+    }
+  }
+
+  @Benchmark
+  public EnactmentGraph applyDistributionReproduction(final DistributionState state) {
+    new GraphTransformDistribution(new ScopeRegistry()).applyDistributionReproduction(
+        state.parFor.graph, state.parFor.distribution);
+    return state.parFor.graph;
+  }
+
+  @Benchmark
+  public EnactmentGraph revertDistributionReproduction(final AggregationState state) {
+    new GraphTransformAggregation(state.scopeRegistry).revertDistributionReproduction(
+        state.parFor.graph, state.parFor.aggregation);
+    return state.parFor.graph;
+  }
+}
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.transformation;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import at.uibk.dps.ee.control.testconstants.ConstantsControlTest;
+import at.uibk.dps.ee.io.afcl.AfclReader;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import net.sf.opendse.model.Task;
+
+/**
+ * Benchmark of the graph transformation building the next iteration of a while
+ * loop. The while graphs are read from the workflow files of the tests (before
+ * each invocation).
+ * 
+ * @author Fedor Smirnov
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphTransformWhileBenchmark {
+
+  protected EnactmentGraph graph;
+  protected Task whileEnd;
+
+  @Setup(Level.Invocation)
+  public void setup() {
+    graph = new AfclReader(ConstantsControlTest.filePathYamlSimpleWhile).getEnactmentGraph();
+    whileEnd = graph.getVertex("while--whileEnd");
+  }
+
+  @Benchmark
+  public EnactmentGraph modifyEnactmentGraph() {
+    new GraphTransformWhile(new ScopeRegistry()).modifyEnactmentGraph(graph, whileEnd);
+    return graph;
+  }
+}
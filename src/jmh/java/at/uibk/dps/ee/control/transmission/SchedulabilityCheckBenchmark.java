@@ -0,0 +1,48 @@
+package at.uibk.dps.ee.control.transmission;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs.FanInGraph;
+
+/**
+ * Benchmark of the {@link SchedulabilityCheckMulti} for functions with a
+ * configurable number of inputs.
+ * 
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulabilityCheckBenchmark {
+
+  @Param({"1", "8", "64", "512"})
+  public int width;
+
+  protected FanInGraph fanIn;
+  protected SchedulabilityCheckMulti check;
+
+  @Setup
+  public void setup() {
+    fanIn = SyntheticGraphs.fanIn(width);
+    check = new SchedulabilityCheckMulti();
+  }
+
+  @Benchmark
+  public boolean isTargetSchedulable() {
+    return check.isTargetSchedulable(fanIn.function, fanIn.graph);
+  }
+}
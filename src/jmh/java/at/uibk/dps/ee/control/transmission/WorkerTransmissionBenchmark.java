@@ -0,0 +1,106 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs;
+import at.uibk.dps.ee.control.benchmark.SyntheticGraphs.FanInGraph;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
+import at.uibk.dps.ee.control.verticles.VerticleApollo;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import io.vertx.core.Vertx;
+import net.sf.opendse.model.Task;
+
+/**
+ * Benchmark of the input annotation performed by the
+ * {@link WorkerTransmission} for functions with a configurable number of
+ * inputs. The schedulable tasks are handed over to a worker which does nothing.
+ * 
+ * @author Fedor Smirnov
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkerTransmissionBenchmark {
+
+  /**
+   * Transmission worker operating on the vertX instance of the benchmark.
+   */
+  protected static class BenchmarkWorker extends WorkerTransmission {
+
+    public BenchmarkWorker(final SpecificationProvider specProvider,
+        final TaskMessenger taskMessenger, final Vertx vertx) {
+      super(specProvider, new SchedulabilityCheckMulti(), new PendingInputCounter(),
+          new LockStriping(1, new EnactmentLockProviderLocal()), taskMessenger);
+      this.vertx = vertx;
+    }
+  }
+
+  /**
+   * Worker ignoring all the triggers.
+   */
+  protected static class NoOpWorker extends VerticleApollo {
+
+    public NoOpWorker(final SpecificationProvider specProvider) {
+      super(ConstantsVertX.addressTaskSchedulable, ConstantsVertX.addressTaskLaunchable,
+          ConstantsVertX.addressFailureAbort, specProvider);
+    }
+
+    @Override
+    public void handOver(final Task triggerTask) {
+      // ignored (the worker is not deployed)
+    }
+
+    @Override
+    protected void work(final Task triggeringTask) {
+      // does nothing
+    }
+  }
+
+  @Param({"1", "8", "64", "512"})
+  public int width;
+
+  protected FanInGraph fanIn;
+  protected Vertx vertx;
+  protected BenchmarkWorker worker;
+
+  @Setup
+  public void setup() {
+    fanIn = SyntheticGraphs.fanIn(width);
+    final SpecificationProvider specProvider = mock(SpecificationProvider.class);
+    when(specProvider.getEnactmentGraph()).thenReturn(fanIn.graph);
+    vertx = Vertx.vertx();
+    final TaskMessenger taskMessenger = new TaskMessenger(false);
+    taskMessenger.routeDirectly(List.of(new NoOpWorker(specProvider)));
+    worker = new BenchmarkWorker(specProvider, taskMessenger, vertx);
+  }
+
+  @TearDown
+  public void tearDown() {
+    vertx.close();
+  }
+
+  @Benchmark
+  public void annotateFunctionInput() {
+    worker.annotateFunctionInput(fanIn.firstInEdge);
+  }
+}
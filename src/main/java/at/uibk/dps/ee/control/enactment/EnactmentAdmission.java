@@ -0,0 +1,230 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.metrics.EnactmentMetrics;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsNoOp;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.control.verticles.TaskLineage;
+import io.vertx.core.Context;
+import io.vertx.core.Vertx;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentAdmission} bounds the number of concurrent enactments
+ * (globally, per resource, and per function, i.e., per original task of the
+ * enactment graph together with its distribution offspring and while
+ * replicas). Launches exceeding a limit are queued in a bounded queue and
+ * started as soon as the running enactments complete. Queued launches are
+ * started on the context which requested them. A limit of 0 means that the
+ * corresponding number is not limited.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentAdmission {
+
+  protected final int globalLimit;
+  protected final int resourceLimit;
+  protected final int functionLimit;
+  protected final int queueCapacity;
+
+  protected int running;
+  protected final Map<String, Integer> runningPerResource = new HashMap<>();
+  protected final Map<String, Integer> runningPerFunction = new HashMap<>();
+  protected final Map<Task, Set<Resource>> admitted = new HashMap<>();
+  protected final Queue<Launch> queue = new ArrayDeque<>();
+
+  protected EnactmentMetrics metrics = new EnactmentMetricsNoOp();
+
+  /**
+   * A queued enactment launch.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Launch {
+    protected final Task task;
+    protected final Set<Resource> resources;
+    protected final Runnable action;
+    protected final Context context;
+
+    protected Launch(final Task task, final Set<Resource> resources, final Runnable action,
+        final Context context) {
+      this.task = task;
+      this.resources = resources;
+      this.action = action;
+      this.context = context;
+    }
+
+    /**
+     * Starts the launch on the requesting context (or on the current thread if
+     * the launch was not requested from a vertX context).
+     */
+    protected void start() {
+      if (context == null) {
+        action.run();
+      } else {
+        context.runOnContext(nothing -> action.run());
+      }
+    }
+  }
+
+  /**
+   * Injection constructor
+   * 
+   * @param globalLimit the maximal number of concurrent enactments
+   * @param resourceLimit the maximal number of concurrent enactments per
+   *        resource
+   * @param functionLimit the maximal number of concurrent enactments per
+   *        function
+   * @param queueCapacity the maximal number of queued launches
+   */
+  @Inject
+  public EnactmentAdmission(
+      @Constant(namespace = EnactmentAdmission.class, value = "globalLimit") final int globalLimit,
+      @Constant(namespace = EnactmentAdmission.class,
+          value = "resourceLimit") final int resourceLimit,
+      @Constant(namespace = EnactmentAdmission.class,
+          value = "functionLimit") final int functionLimit,
+      @Constant(namespace = EnactmentAdmission.class,
+          value = "queueCapacity") final int queueCapacity) {
+    this.globalLimit = globalLimit;
+    this.resourceLimit = resourceLimit;
+    this.functionLimit = functionLimit;
+    this.queueCapacity = queueCapacity;
+  }
+
+  /**
+   * Sets the metrics recorder.
+   * 
+   * @param metrics the metrics recorder
+   */
+  @Inject
+  public void setMetrics(final EnactmentMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns true iff any of the limits is set.
+   * 
+   * @return true iff any of the limits is set
+   */
+  public boolean isEnabled() {
+    return globalLimit > 0 || resourceLimit > 0 || functionLimit > 0;
+  }
+
+  /**
+   * Runs the given launch of the given task as soon as the limits permit.
+   * 
+   * @param task the task to enact
+   * @param resources the resources the task is mapped to
+   * @param launch the action launching the enactment
+   * @throws RejectedExecutionException if the launch queue is full
+   */
+  public void admit(final Task task, final Set<Resource> resources, final Runnable launch) {
+    if (!isEnabled()) {
+      launch.run();
+      return;
+    }
+    synchronized (this) {
+      if (!queue.isEmpty() || !isAdmissible(task, resources)) {
+        if (queue.size() >= queueCapacity) {
+          throw new RejectedExecutionException(
+              "Launch queue full; task " + task.getId() + " rejected.");
+        }
+        queue.add(new Launch(task, resources, launch, Vertx.currentContext()));
+        metrics.setQueueLength(MetricNames.queueAdmission, queue.size());
+        return;
+      }
+      take(task, resources);
+    }
+    launch.run();
+  }
+
+  /**
+   * Notifies the admission that the enactment of the given task completed and
+   * starts the queued launches which can now be admitted (each on the context
+   * which requested it).
+   * 
+   * @param task the task whose enactment completed
+   */
+  public void complete(final Task task) {
+    if (!isEnabled()) {
+      return;
+    }
+    final List<Launch> toLaunch = new ArrayList<>();
+    synchronized (this) {
+      final Set<Resource> resources = admitted.remove(task);
+      if (resources == null) {
+        return;
+      }
+      running--;
+      resources.forEach(res -> decrement(runningPerResource, res.getId()));
+      decrement(runningPerFunction, TaskLineage.getOriginalId(task));
+      final Iterator<Launch> iterator = queue.iterator();
+      while (iterator.hasNext() && (globalLimit <= 0 || running < globalLimit)) {
+        final Launch launch = iterator.next();
+        if (isAdmissible(launch.task, launch.resources)) {
+          iterator.remove();
+          take(launch.task, launch.resources);
+          toLaunch.add(launch);
+        }
+      }
+      metrics.setQueueLength(MetricNames.queueAdmission, queue.size());
+    }
+    toLaunch.forEach(Launch::start);
+  }
+
+  /**
+   * Returns true iff the given task can be launched without exceeding a limit.
+   * 
+   * @param task the task to launch
+   * @param resources the resources the task is mapped to
+   * @return true iff the given task can be launched
+   */
+  protected boolean isAdmissible(final Task task, final Set<Resource> resources) {
+    if (globalLimit > 0 && running >= globalLimit) {
+      return false;
+    }
+    if (functionLimit > 0 && runningPerFunction
+        .getOrDefault(TaskLineage.getOriginalId(task), 0) >= functionLimit) {
+      return false;
+    }
+    return resourceLimit <= 0 || resources.stream()
+        .allMatch(res -> runningPerResource.getOrDefault(res.getId(), 0) < resourceLimit);
+  }
+
+  /**
+   * Records the launch of the given task.
+   * 
+   * @param task the launched task
+   * @param resources the resources the task is mapped to
+   */
+  protected void take(final Task task, final Set<Resource> resources) {
+    running++;
+    resources.forEach(res -> runningPerResource.merge(res.getId(), 1, Integer::sum));
+    runningPerFunction.merge(TaskLineage.getOriginalId(task), 1, Integer::sum);
+    admitted.put(task, resources);
+  }
+
+  /**
+   * Decrements the count of the given key, removing the entry when it reaches 0.
+   * 
+   * @param counts the count map
+   * @param key the key
+   */
+  protected static void decrement(final Map<String, Integer> counts, final String key) {
+    counts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+  }
+}
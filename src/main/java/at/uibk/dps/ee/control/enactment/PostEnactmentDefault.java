@@ -1,9 +1,13 @@
 package at.uibk.dps.ee.control.enactment;
 
+import java.util.Set;
 import java.util.stream.Collectors;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.init.InFlightCounter;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
@@ -16,6 +20,8 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.shareddata.Lock;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
 
 /**
@@ -30,56 +36,108 @@ public class PostEnactmentDefault implements PostEnactment {
 
   protected final ScheduleModel schedule;
   protected final Vertx vertx;
+  protected final TaskMessenger taskMessenger;
+  protected final ResourceFreedCoalescer freedCoalescer;
+  protected final ResourceCapacityTracker capacityTracker;
+  protected InFlightCounter inFlight = new InFlightCounter();
 
   /**
    * Injection constructor
    * 
    * @param schedule the reference to the task schedule
    * @param vProv the vertx provider
+   * @param taskMessenger used to send the enacted tasks
+   * @param freedCoalescer merges the notifications about freed resources
+   * @param capacityTracker accounts for the capacity of the resources
    */
   @Inject
-  public PostEnactmentDefault(final ScheduleModel schedule, final VertxProvider vProv) {
+  public PostEnactmentDefault(final ScheduleModel schedule, final VertxProvider vProv,
+      final TaskMessenger taskMessenger, final ResourceFreedCoalescer freedCoalescer,
+      final ResourceCapacityTracker capacityTracker) {
     this.schedule = schedule;
     this.vertx = vProv.getVertx();
+    this.taskMessenger = taskMessenger;
+    this.freedCoalescer = freedCoalescer;
+    this.capacityTracker = capacityTracker;
+  }
+
+  /**
+   * Sets the counter of the operations in flight (the release of the capacity
+   * under the lock is registered with the counter).
+   * 
+   * @param inFlight the counter of the operations in flight
+   */
+  @Inject
+  public void setInFlightCounter(final InFlightCounter inFlight) {
+    this.inFlight = inFlight;
   }
 
   @Override
   public void postEnactmentTreatment(final Task enactedTask, final EventBus eBus) {
     if (requiresTransformation(enactedTask)) {
-      eBus.send(ConstantsVertX.addressRequiredTransformation, enactedTask.getId());
+      taskMessenger.send(eBus, ConstantsVertX.addressRequiredTransformation, enactedTask);
     } else {
       if (PropertyServiceFunction.getUsageType(enactedTask).equals(UsageType.User)) {
-        this.vertx.sharedData().getLock(ConstantsScheduling.lockCapacityQuery,
-            lockRes -> lockResHandler(lockRes, enactedTask, eBus));
+        final Set<Mapping<Task, Resource>> taskSchedule = schedule.getTaskSchedule(enactedTask);
+        releaseTrackedCapacity(taskSchedule, eBus);
+        // the capacity of the remaining resources is released under the lock
+        final Set<Mapping<Task, Resource>> untracked = taskSchedule.stream()
+            .filter(m -> !capacityTracker.isTracked(m.getTarget())).collect(Collectors.toSet());
+        if (untracked.isEmpty()) {
+          taskMessenger.send(eBus, ConstantsVertX.addressEnactmentFinished, enactedTask);
+        } else {
+          // the capacity lock is shared with the scheduler, so that it has to be
+          // taken from the vertX shared data, independent of the lock provider
+          inFlight.begin();
+          this.vertx.sharedData().getLock(ConstantsScheduling.lockCapacityQuery,
+              lockRes -> lockResHandler(lockRes, enactedTask, untracked, eBus));
+        }
       } else {
-        eBus.send(ConstantsVertX.addressEnactmentFinished, enactedTask.getId());
+        taskMessenger.send(eBus, ConstantsVertX.addressEnactmentFinished, enactedTask);
       }
     }
   }
 
+  /**
+   * Releases the capacity of the tracked resources used by the given schedule
+   * from the capacity tracker (without acquiring the capacity lock).
+   * 
+   * @param taskSchedule the schedule of the enacted task
+   * @param eBus reference to the event bus
+   */
+  protected void releaseTrackedCapacity(final Set<Mapping<Task, Resource>> taskSchedule,
+      final EventBus eBus) {
+    ResourceCapacityTracker.getUsedResources(taskSchedule).stream() //
+        .filter(capacityTracker::isTracked) //
+        .forEach(res -> {
+          capacityTracker.release(res);
+          freedCoalescer.resourceFreed(res, eBus);
+        });
+  }
+
   /**
    * Callback used when lock is acquired.
    * 
    * @param asyncRes the async result containing the lock
    * @param enactedTask the task that was enacted
+   * @param untracked the mappings of the task to the resources which are not
+   *        tracked by the capacity tracker
    * @param eBus reference to the event bus
    */
   protected void lockResHandler(final AsyncResult<Lock> asyncRes, final Task enactedTask,
-      final EventBus eBus) {
+      final Set<Mapping<Task, Resource>> untracked, final EventBus eBus) {
     if (asyncRes.succeeded()) {
       final Lock lock = asyncRes.result();
       // trigger the scheduler to review the waiting list
-      schedule.getTaskSchedule(enactedTask).stream() //
-          .filter(m -> !PropertyServiceFunction.hasNegligibleWorkload(m.getSource())) //
-          .map(m -> m.getTarget()) //
+      ResourceCapacityTracker.getUsedResources(untracked).stream() //
           .filter(res -> PropertyServiceResource.hasLimitedCapacity(res)) //
-          .collect(Collectors.toSet()) //
-          .forEach(res -> eBus.send(ConstantsVertX.addressResourceFreed, res.getId()));
-      schedule.getTaskSchedule(enactedTask)
-          .forEach(m -> PropertyServiceResource.removeUsingTask(enactedTask, m.getTarget()));
+          .forEach(res -> freedCoalescer.resourceFreed(res, eBus));
+      untracked.forEach(m -> PropertyServiceResource.removeUsingTask(enactedTask, m.getTarget()));
       lock.release();
-      eBus.send(ConstantsVertX.addressEnactmentFinished, enactedTask.getId());
+      taskMessenger.send(eBus, ConstantsVertX.addressEnactmentFinished, enactedTask);
+      inFlight.end();
     } else {
+      inFlight.end();
       throw new IllegalStateException("Failed to get res capacity lock.");
     }
   }
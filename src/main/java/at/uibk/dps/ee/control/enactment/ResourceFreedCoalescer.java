@@ -0,0 +1,86 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import net.sf.opendse.model.Resource;
+
+/**
+ * The {@link ResourceFreedCoalescer} merges the notifications about freed
+ * resource capacity. All resources freed within a time window (or, if the
+ * window is 0, within the current event loop iteration) result in a single
+ * resource-freed message per resource, so that the scheduling verticles
+ * perform one arbitration over the accumulated free capacity instead of one
+ * arbitration per finished task.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ResourceFreedCoalescer {
+
+  protected final Vertx vertx;
+  protected final long windowInMs;
+
+  protected final Set<String> freedResources = ConcurrentHashMap.newKeySet();
+  protected final AtomicBoolean flushScheduled = new AtomicBoolean();
+
+  /**
+   * Injection constructor
+   * 
+   * @param vProv the vertx provider
+   * @param windowInMs the time window (in ms) within which the freed resources
+   *        are merged; 0 to merge the resources freed within the current event
+   *        loop iteration
+   */
+  @Inject
+  public ResourceFreedCoalescer(final VertxProvider vProv,
+      @Constant(namespace = ResourceFreedCoalescer.class,
+          value = "windowInMs") final int windowInMs) {
+    this.vertx = vProv.getVertx();
+    this.windowInMs = windowInMs;
+  }
+
+  /**
+   * Notifies the coalescer that the capacity of the given resource was freed.
+   * 
+   * @param res the freed resource
+   * @param eBus the event bus used to send the resource-freed messages
+   */
+  public void resourceFreed(final Resource res, final EventBus eBus) {
+    freedResources.add(res.getId());
+    if (!flushScheduled.getAndSet(true)) {
+      if (windowInMs > 0) {
+        vertx.setTimer(windowInMs, timerId -> flush(eBus));
+      } else {
+        vertx.runOnContext(v -> flush(eBus));
+      }
+    }
+  }
+
+  /**
+   * Sends one resource-freed message for each resource freed since the last
+   * flush.
+   * 
+   * @param eBus the event bus
+   */
+  protected void flush(final EventBus eBus) {
+    // reset the flag first so that resources added during the flush trigger a
+    // new one
+    flushScheduled.set(false);
+    final Set<String> toSend = new HashSet<>();
+    for (final String resId : freedResources) {
+      if (freedResources.remove(resId)) {
+        toSend.add(resId);
+      }
+    }
+    toSend.forEach(resId -> eBus.send(ConstantsVertX.addressResourceFreed, resId));
+  }
+}
@@ -0,0 +1,140 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.verticles.TaskLineage;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link RetryPolicy} defines the timeouts of the function invocations and
+ * how often (and after which backoff) failed invocations are retried. The
+ * defaults can be overwritten per function (an original task together with its
+ * distribution offspring and while replicas) with a comma-separated list of
+ * taskId=timeoutInMs:maxRetries entries.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class RetryPolicy {
+
+  protected final int timeoutInMs;
+  protected final int maxRetries;
+  protected final int backoffBaseInMs;
+  protected final int backoffMaxInMs;
+  protected final boolean rescheduleOnRetry;
+  protected final Map<String, FunctionOverride> overrides;
+
+  /**
+   * The timeout and the retry number configured for a function.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class FunctionOverride {
+    protected final int timeoutInMs;
+    protected final int maxRetries;
+
+    protected FunctionOverride(final int timeoutInMs, final int maxRetries) {
+      this.timeoutInMs = timeoutInMs;
+      this.maxRetries = maxRetries;
+    }
+  }
+
+  /**
+   * Injection constructor
+   * 
+   * @param timeoutInMs the default timeout of an invocation (0 for no timeout)
+   * @param maxRetries the default number of retries of a failed invocation
+   * @param backoffBaseInMs the backoff before the first retry
+   * @param backoffMaxInMs the maximal backoff
+   * @param rescheduleOnRetry true iff retries are to be performed on an
+   *        alternative mapping to a resource not tried yet (if there is one)
+   * @param overrides the per-function overrides of the timeout and the retry
+   *        number (comma-separated taskId=timeoutInMs:maxRetries entries)
+   */
+  @Inject
+  public RetryPolicy(
+      @Constant(namespace = RetryPolicy.class, value = "timeoutInMs") final int timeoutInMs,
+      @Constant(namespace = RetryPolicy.class, value = "maxRetries") final int maxRetries,
+      @Constant(namespace = RetryPolicy.class,
+          value = "backoffBaseInMs") final int backoffBaseInMs,
+      @Constant(namespace = RetryPolicy.class,
+          value = "backoffMaxInMs") final int backoffMaxInMs,
+      @Constant(namespace = RetryPolicy.class,
+          value = "rescheduleOnRetry") final boolean rescheduleOnRetry,
+      @Constant(namespace = RetryPolicy.class, value = "overrides") final String overrides) {
+    this.timeoutInMs = timeoutInMs;
+    this.maxRetries = maxRetries;
+    this.backoffBaseInMs = backoffBaseInMs;
+    this.backoffMaxInMs = backoffMaxInMs;
+    this.rescheduleOnRetry = rescheduleOnRetry;
+    this.overrides = parseOverrides(overrides);
+  }
+
+  /**
+   * Returns the timeout for the invocations of the given task.
+   * 
+   * @param task the given task
+   * @return the timeout in ms (0 for no timeout)
+   */
+  public int getTimeoutInMs(final Task task) {
+    final FunctionOverride override = overrides.get(TaskLineage.getOriginalId(task));
+    return override == null ? timeoutInMs : override.timeoutInMs;
+  }
+
+  /**
+   * Returns the number of times a failed invocation of the given task is
+   * retried.
+   * 
+   * @param task the given task
+   * @return the maximal number of retries
+   */
+  public int getMaxRetries(final Task task) {
+    final FunctionOverride override = overrides.get(TaskLineage.getOriginalId(task));
+    return override == null ? maxRetries : override.maxRetries;
+  }
+
+  /**
+   * Returns the backoff before the retry following the given (failed) attempt:
+   * exponentially growing with the attempt number, capped by the maximal
+   * backoff, of which a random half is used as jitter.
+   * 
+   * @param attempt the number of the failed attempt (starting with 0)
+   * @return the backoff in ms
+   */
+  public long getBackoffInMs(final int attempt) {
+    final long exponential = (long) backoffBaseInMs << Math.min(attempt, 30);
+    final long capped = Math.max(1, Math.min(exponential, backoffMaxInMs));
+    return capped / 2 + ThreadLocalRandom.current().nextLong(capped / 2 + 1);
+  }
+
+  public boolean isRescheduleOnRetry() {
+    return rescheduleOnRetry;
+  }
+
+  /**
+   * Parses the per-function overrides.
+   * 
+   * @param overrides comma-separated taskId=timeoutInMs:maxRetries entries
+   * @return map of the task IDs to the timeout and the retry number
+   */
+  protected static Map<String, FunctionOverride> parseOverrides(final String overrides) {
+    final Map<String, FunctionOverride> result = new HashMap<>();
+    if (overrides == null || overrides.isBlank()) {
+      return result;
+    }
+    for (final String entry : overrides.split(",")) {
+      final String[] pair = entry.split("=");
+      final String[] values = pair.length == 2 ? pair[1].split(":") : new String[0];
+      if (values.length != 2) {
+        throw new IllegalArgumentException("Malformed retry override: " + entry);
+      }
+      result.put(pair[0].trim(), new FunctionOverride(Integer.parseInt(values[0].trim()),
+          Integer.parseInt(values[1].trim())));
+    }
+    return result;
+  }
+}
@@ -0,0 +1,133 @@
+package at.uibk.dps.ee.control.enactment;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.metrics.LatencyHistogram;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
+import at.uibk.dps.ee.control.verticles.TaskLineage;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceResource;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link SpeculativeExecution} tracks the runtimes observed for each
+ * function (an original task together with its distribution offspring and
+ * while replicas) and decides when an enactment is a straggler, i.e., when it
+ * runs longer than the configured percentile of the observed runtimes. For
+ * stragglers, a duplicate can be launched on an alternative mapping. Since the
+ * duplicates are not scheduled, only resources without limited capacity are
+ * considered as alternatives.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class SpeculativeExecution {
+
+  protected final MappingsConcurrent mappings;
+  protected final ResourceCapacityTracker capacityTracker;
+  protected final int percentile;
+  protected final int minSamples;
+
+  protected final Map<String, LatencyHistogram> runtimes = new ConcurrentHashMap<>();
+
+  /**
+   * Injection constructor
+   * 
+   * @param specProvider the specification provider
+   * @param capacityTracker accounts for the capacity of the resources
+   * @param percentile the percentile of the observed runtimes after which an
+   *        enactment is considered a straggler (0 to disable the speculative
+   *        execution)
+   * @param minSamples the number of runtimes which have to be observed for a
+   *        function before its enactments are considered for speculation
+   */
+  @Inject
+  public SpeculativeExecution(final SpecificationProvider specProvider,
+      final ResourceCapacityTracker capacityTracker,
+      @Constant(namespace = SpeculativeExecution.class,
+          value = "percentile") final int percentile,
+      @Constant(namespace = SpeculativeExecution.class,
+          value = "minSamples") final int minSamples) {
+    this.mappings = specProvider.getMappings();
+    this.capacityTracker = capacityTracker;
+    this.percentile = percentile;
+    this.minSamples = minSamples;
+  }
+
+  /**
+   * Returns true iff the speculative execution is enabled.
+   * 
+   * @return true iff the speculative execution is enabled
+   */
+  public boolean isEnabled() {
+    return percentile > 0;
+  }
+
+  /**
+   * Records the runtime of a (successful) enactment of the given task.
+   * 
+   * @param task the enacted task
+   * @param runtimeNanos the runtime in nanoseconds
+   */
+  public void recordRuntime(final Task task, final long runtimeNanos) {
+    if (isEnabled()) {
+      runtimes.computeIfAbsent(TaskLineage.getOriginalId(task),
+          id -> new LatencyHistogram()).record(runtimeNanos);
+    }
+  }
+
+  /**
+   * Returns the runtime after which the enactment of the given task is
+   * considered a straggler. Empty if the speculation is disabled or if not
+   * enough runtimes were observed for the function of the task.
+   * 
+   * @param task the given task
+   * @return the straggler threshold in nanoseconds
+   */
+  public OptionalLong getStragglerThreshold(final Task task) {
+    if (!isEnabled()) {
+      return OptionalLong.empty();
+    }
+    final LatencyHistogram histogram = runtimes.get(TaskLineage.getOriginalId(task));
+    if (histogram == null || histogram.getCount() < minSamples) {
+      return OptionalLong.empty();
+    }
+    return OptionalLong.of(histogram.getQuantile(percentile / 100.0));
+  }
+
+  /**
+   * Returns a mapping of the given task to a resource which is not among the
+   * given excluded resources (e.g., the resources of its current schedule or the
+   * resources already tried). Resources with limited capacity are not
+   * considered, since the alternative mapping bypasses the scheduler and the
+   * capacity accounting.
+   * 
+   * @param task the given task
+   * @param excluded the resources which are not to be used
+   * @return a mapping to an alternative resource (empty if there is none)
+   */
+  public Optional<Mapping<Task, Resource>> getAlternativeMapping(final Task task,
+      final Set<Resource> excluded) {
+    return mappings.getMappings(task).stream().filter(m -> !excluded.contains(m.getTarget()))
+        .filter(m -> isUnlimited(m.getTarget())).findFirst();
+  }
+
+  /**
+   * Returns true iff the capacity of the given resource is not limited.
+   * 
+   * @param res the given resource
+   * @return true iff the capacity of the given resource is not limited
+   */
+  protected boolean isUnlimited(final Resource res) {
+    return !PropertyServiceResource.hasLimitedCapacity(res) && !capacityTracker.isTracked(res);
+  }
+}
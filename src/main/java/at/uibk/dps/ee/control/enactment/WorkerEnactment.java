@@ -1,9 +1,22 @@
 package at.uibk.dps.ee.control.enactment;
 
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.JsonObject;
 import com.google.inject.Inject;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.failure.FailureHandlerShutdown;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.control.offload.InvocationExecutor;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
 import at.uibk.dps.ee.control.verticles.VerticleApollo;
 import at.uibk.dps.ee.control.verticles.WorkerException;
@@ -12,6 +25,11 @@ import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
 
 /**
@@ -25,6 +43,11 @@ public class WorkerEnactment extends VerticleApollo {
   protected final PostEnactment postEnactment;
   protected final ScheduleModel scheduleModel;
   protected final ScheduleInterpreter interpreter;
+  protected final EnactmentAdmission admission;
+  protected final SpeculativeExecution speculation;
+  protected final RetryPolicy retryPolicy;
+  protected final InvocationExecutor invocationExecutor;
+  protected FailureHandler failureHandling = new FailureHandlerShutdown();
 
   protected final Logger logger = LoggerFactory.getLogger(WorkerEnactment.class);
 
@@ -35,31 +58,243 @@ public class WorkerEnactment extends VerticleApollo {
    * @param postEnactment defines what to do after the enactment is finished
    * @param scheduleModel the schedule (maps tasks to mapping sets)
    * @param interpreter the interpreter (maps mapping sets to functions)
+   * @param admission bounds the number of concurrent enactments
+   * @param speculation decides on the speculative enactment of stragglers
+   * @param retryPolicy defines the timeouts and the retries of the invocations
+   * @param invocationExecutor defines the threads performing the invocations
    */
   @Inject
   public WorkerEnactment(final SpecificationProvider specProvider,
       final PostEnactment postEnactment, final ScheduleModel scheduleModel,
-      final ScheduleInterpreter interpreter) {
+      final ScheduleInterpreter interpreter, final EnactmentAdmission admission,
+      final SpeculativeExecution speculation, final RetryPolicy retryPolicy,
+      final InvocationExecutor invocationExecutor) {
     super(ConstantsVertX.addressTaskLaunchable, ConstantsVertX.addressEnactmentFinished,
         ConstantsVertX.addressFailureAbort, specProvider);
     this.postEnactment = postEnactment;
     this.scheduleModel = scheduleModel;
     this.interpreter = interpreter;
+    this.admission = admission;
+    this.speculation = speculation;
+    this.retryPolicy = retryPolicy;
+    this.invocationExecutor = invocationExecutor;
+  }
+
+  /**
+   * Sets the failure handler which is notified about the successful enactments
+   * (so that it can forget the failed attempts of the enacted tasks).
+   * 
+   * @param failureHandling the failure handler
+   */
+  @Inject
+  public void setFailureHandling(final FailureHandler failureHandling) {
+    this.failureHandling = failureHandling;
   }
 
   @Override
   protected void work(final Task functionNode) throws WorkerException {
+    final Set<Mapping<Task, Resource>> taskSchedule = scheduleModel.getTaskSchedule(functionNode);
+    final Set<Resource> resources = getTargets(taskSchedule);
+    // in flight from the admission until the enactment result is processed
+    inFlight.begin();
+    try {
+      admission.admit(functionNode, resources, () -> launch(functionNode, taskSchedule));
+    } catch (RejectedExecutionException rejectExc) {
+      inFlight.end();
+      throw new WorkerException(rejectExc.getMessage());
+    }
+  }
+
+  /**
+   * Launches the enactment of the given task. If the speculative execution is
+   * enabled and the enactment turns out to be a straggler, a duplicate is
+   * launched on an alternative mapping. The first successful result is
+   * processed; the other one is ignored.
+   * 
+   * @param functionNode the task to enact
+   * @param taskSchedule the mappings chosen for the task
+   */
+  protected void launch(final Task functionNode, final Set<Mapping<Task, Resource>> taskSchedule) {
     logger.debug("Enacting Task {}", functionNode.getId());
-    final EnactmentFunction function =
-        interpreter.interpretSchedule(functionNode, scheduleModel.getTaskSchedule(functionNode));
-    function.processInput(PropertyServiceFunction.getInput(functionNode)).onComplete(asyncRes -> {
-      if (asyncRes.succeeded()) {
-        processResult(asyncRes.result(), functionNode);
-      } else {
-        logger.error("Exception during enactment {}", asyncRes.cause());
-        failureHandler(asyncRes.cause());
+    final AtomicBoolean finished = new AtomicBoolean();
+    final AtomicInteger running = new AtomicInteger(1);
+    final long enactmentStart = System.nanoTime();
+    final Set<Resource> scheduled = getTargets(taskSchedule);
+    invoke(functionNode, taskSchedule, scheduled)
+        .onComplete(
+            asyncRes -> processAttempt(asyncRes, functionNode, enactmentStart, finished, running))
+        .onComplete(asyncRes -> inFlight.end());
+    speculation.getStragglerThreshold(functionNode).ifPresent(thresholdNanos -> this.vertx
+        .setTimer(Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos)), timerId -> {
+          if (!finished.get()) {
+            speculation.getAlternativeMapping(functionNode, scheduled).ifPresent(alt -> {
+              logger.debug("Speculative enactment of straggler {}", functionNode.getId());
+              metrics.countMessage(MetricNames.counterSpeculativeLaunches);
+              running.incrementAndGet();
+              inFlight.begin();
+              invoke(functionNode, Set.of(alt), scheduled).onComplete(asyncRes -> {
+                if (asyncRes.succeeded() && !finished.get()) {
+                  metrics.countMessage(MetricNames.counterSpeculativeWins);
+                }
+                processAttempt(asyncRes, functionNode, enactmentStart, finished, running);
+              }).onComplete(asyncRes -> inFlight.end());
+            });
+          }
+        }));
+  }
+
+  /**
+   * Invokes the function which the given schedule maps the given task to,
+   * applying the timeout and the retries defined by the retry policy.
+   * 
+   * @param functionNode the task to enact
+   * @param taskSchedule the mappings of the task
+   * @param excluded the resources which retries on alternative mappings are not
+   *        to use (in addition to the resources of the given schedule)
+   * @return the future of the function result
+   */
+  protected Future<JsonObject> invoke(final Task functionNode,
+      final Set<Mapping<Task, Resource>> taskSchedule, final Set<Resource> excluded) {
+    final Promise<JsonObject> resultPromise = Promise.promise();
+    final Set<Resource> tried = new HashSet<>(excluded);
+    tried.addAll(getTargets(taskSchedule));
+    attempt(functionNode, taskSchedule, 0, tried, resultPromise);
+    return resultPromise.future();
+  }
+
+  /**
+   * Performs an invocation attempt. Failed attempts are retried after a backoff
+   * (optionally on an alternative mapping to a resource not tried yet) until the
+   * retries are exhausted.
+   * 
+   * @param functionNode the task to enact
+   * @param taskSchedule the mappings used for this attempt
+   * @param attempt the number of the attempt (starting with 0)
+   * @param tried the resources tried so far
+   * @param resultPromise the promise completed with the overall result
+   */
+  protected void attempt(final Task functionNode, final Set<Mapping<Task, Resource>> taskSchedule,
+      final int attempt, final Set<Resource> tried, final Promise<JsonObject> resultPromise) {
+    final EnactmentFunction function = interpreter.interpretSchedule(functionNode, taskSchedule);
+    final JsonObject input = PropertyServiceFunction.getInput(functionNode);
+    withTimeout(invocationExecutor.execute(() -> function.processInput(input), this.context),
+        retryPolicy.getTimeoutInMs(functionNode), functionNode).onComplete(asyncRes -> {
+          if (asyncRes.succeeded()) {
+            resultPromise.complete(asyncRes.result());
+          } else if (attempt < retryPolicy.getMaxRetries(functionNode)) {
+            logger.warn("Attempt {} of task {} failed; retrying.", attempt, functionNode.getId(),
+                asyncRes.cause());
+            metrics.countMessage(MetricNames.counterRetries);
+            final Set<Mapping<Task, Resource>> nextSchedule = retryPolicy.isRescheduleOnRetry()
+                ? reschedule(functionNode, taskSchedule, tried)
+                : taskSchedule;
+            this.vertx.setTimer(retryPolicy.getBackoffInMs(attempt),
+                timerId -> attempt(functionNode, nextSchedule, attempt + 1, tried, resultPromise));
+          } else {
+            resultPromise.fail(asyncRes.cause());
+          }
+        });
+  }
+
+  /**
+   * Returns the schedule for the retry of the given task: a mapping to a
+   * resource which was not tried yet or, if there is none, the current schedule.
+   * 
+   * @param functionNode the task to retry
+   * @param taskSchedule the mappings used for the failed attempt
+   * @param tried the resources tried so far (extended by the chosen resource)
+   * @return the mappings used for the retry
+   */
+  protected Set<Mapping<Task, Resource>> reschedule(final Task functionNode,
+      final Set<Mapping<Task, Resource>> taskSchedule, final Set<Resource> tried) {
+    final Optional<Mapping<Task, Resource>> alternative =
+        speculation.getAlternativeMapping(functionNode, tried);
+    if (alternative.isEmpty()) {
+      return taskSchedule;
+    }
+    tried.add(alternative.get().getTarget());
+    return Set.of(alternative.get());
+  }
+
+  /**
+   * Returns the resources targeted by the given mappings.
+   * 
+   * @param taskSchedule the mappings of a task
+   * @return the resources targeted by the given mappings
+   */
+  protected static Set<Resource> getTargets(final Set<Mapping<Task, Resource>> taskSchedule) {
+    return taskSchedule.stream().map(Mapping::getTarget).collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns a future which fails if the given invocation does not complete
+   * within the given timeout.
+   * 
+   * @param invocation the future of the invocation
+   * @param timeoutInMs the timeout in ms (0 for no timeout)
+   * @param functionNode the enacted task
+   * @return the invocation future with the timeout
+   */
+  protected Future<JsonObject> withTimeout(final Future<JsonObject> invocation,
+      final int timeoutInMs, final Task functionNode) {
+    if (timeoutInMs <= 0 || invocation.isComplete()) {
+      return invocation;
+    }
+    final Promise<JsonObject> timed = Promise.promise();
+    final long timerId = this.vertx.setTimer(timeoutInMs, id -> {
+      if (timed.tryFail(new TimeoutException(
+          "Invocation of task " + functionNode.getId() + " timed out."))) {
+        metrics.countMessage(MetricNames.counterTimeouts);
       }
     });
+    invocation.onComplete(asyncRes -> {
+      this.vertx.cancelTimer(timerId);
+      timed.tryHandle(asyncRes);
+    });
+    return timed.future();
+  }
+
+  /**
+   * Processes the result of an enactment attempt. The first successful result is
+   * processed; the failure is only reported if all attempts failed.
+   * 
+   * @param asyncRes the result of the attempt
+   * @param functionNode the enacted task
+   * @param enactmentStart the start of the (first) enactment
+   * @param finished flag set once the enactment of the task is finished
+   * @param running the number of running attempts
+   */
+  protected void processAttempt(final AsyncResult<JsonObject> asyncRes, final Task functionNode,
+      final long enactmentStart, final AtomicBoolean finished, final AtomicInteger running) {
+    if (asyncRes.succeeded()) {
+      if (finished.compareAndSet(false, true)) {
+        final long runtime = System.nanoTime() - enactmentStart;
+        metrics.recordTime(MetricNames.timerEnactment, runtime);
+        speculation.recordRuntime(functionNode, runtime);
+        admission.complete(functionNode);
+        failureHandling.handleTaskSuccess(functionNode);
+        processResult(asyncRes.result(), functionNode);
+      }
+    } else if (running.decrementAndGet() == 0 && finished.compareAndSet(false, true)) {
+      metrics.recordTime(MetricNames.timerEnactment, System.nanoTime() - enactmentStart);
+      admission.complete(functionNode);
+      logger.error("Exception during enactment {}", asyncRes.cause());
+      taskFailureHandler(functionNode, asyncRes.cause());
+    }
+  }
+
+  /**
+   * Reports the failed enactment of the given task, so that the failure handler
+   * can react to the failure of the particular task.
+   * 
+   * @param functionNode the task whose enactment failed
+   * @param cause the cause of the failure
+   */
+  protected void taskFailureHandler(final Task functionNode, final Throwable cause) {
+    final JsonObject failure = new JsonObject();
+    failure.addProperty(ConstantsVertX.failureKeyTaskId, functionNode.getId());
+    failure.addProperty(ConstantsVertX.failureKeyMessage, String.valueOf(cause.getMessage()));
+    this.vertx.eventBus().publish(ConstantsVertX.addressFailureTask, failure);
   }
 
   /**
@@ -0,0 +1,152 @@
+package at.uibk.dps.ee.control.extraction;
+
+import java.util.HashSet;
+import java.util.Set;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * The {@link LeafNodeTracker} keeps track of the leaf nodes of the enactment
+ * graph which do not have their data yet, so that the completion of the
+ * workflow can be detected without checking all leaf nodes after each
+ * extraction. The leaf nodes are gathered once and then updated within the
+ * regions modified by the graph transformations.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class LeafNodeTracker {
+
+  protected final EnactmentGraph eGraph;
+
+  protected final Set<Task> leafNodes = new HashSet<>();
+  protected final Set<Task> availableLeaves = new HashSet<>();
+  protected boolean resultReported;
+
+  /**
+   * Injection constructor.
+   *
+   * @param specProvider the specification provider
+   */
+  @Inject
+  public LeafNodeTracker(final SpecificationProvider specProvider) {
+    this.eGraph = specProvider.getEnactmentGraph();
+    gatherLeafNodes();
+  }
+
+  /**
+   * Registers that the data of the given node is available. Returns true iff
+   * the data of all leaf nodes is available thereafter. Returns true at most
+   * once.
+   *
+   * @param dataNode the data node whose data is available
+   * @return true iff the data of all leaf nodes is available now (and was not
+   *         reported as complete before)
+   */
+  public synchronized boolean registerAvailableData(final Task dataNode) {
+    if (!leafNodes.contains(dataNode)) {
+      return false;
+    }
+    // the node may already be counted by an update of the leaf nodes
+    availableLeaves.add(dataNode);
+    return checkCompletion();
+  }
+
+  /**
+   * Updates the leaf nodes within the given region of the graph (the region
+   * affected by a graph transformation). Returns true iff the data of all leaf
+   * nodes is available thereafter. Returns true at most once.
+   *
+   * @param region the updated graph region (may contain nodes removed from the
+   *        graph)
+   * @return true iff the data of all leaf nodes is available now (and was not
+   *         reported as complete before)
+   */
+  public synchronized boolean updateLeafNodes(final Set<Task> region) {
+    for (final Task node : region) {
+      leafNodes.remove(node);
+      availableLeaves.remove(node);
+      if (eGraph.containsVertex(node)) {
+        processNode(node);
+      }
+    }
+    return checkCompletion();
+  }
+
+  /**
+   * Returns the current leaf nodes of the graph.
+   *
+   * @return the current leaf nodes of the graph
+   */
+  public synchronized Set<Task> getLeafNodes() {
+    return new HashSet<>(leafNodes);
+  }
+
+  /**
+   * Returns the workflow result, i.e., the content of the leaf nodes.
+   *
+   * @return the workflow result
+   */
+  public synchronized JsonObject getWorkflowResult() {
+    final JsonObject result = new JsonObject();
+    leafNodes.forEach(leafNode -> {
+      final JsonElement content = PropertyServiceData.getContent(leafNode);
+      final String key = PropertyServiceData.getJsonKey(leafNode);
+      result.add(key, content);
+    });
+    return result;
+  }
+
+  /**
+   * Resets the tracker for a new enactment (gathers the leaf nodes anew and
+   * enables the report of the completion).
+   */
+  public synchronized void reset() {
+    resultReported = false;
+    gatherLeafNodes();
+  }
+
+  /**
+   * Gathers the leaf nodes of the whole graph.
+   */
+  protected final synchronized void gatherLeafNodes() {
+    leafNodes.clear();
+    availableLeaves.clear();
+    eGraph.getVertices().forEach(this::processNode);
+  }
+
+  /**
+   * Adds the given node to the leaf nodes if it is a leaf.
+   *
+   * @param node the given node
+   */
+  protected void processNode(final Task node) {
+    if (TaskPropertyService.isCommunication(node) && PropertyServiceData.isLeaf(node)) {
+      leafNodes.add(node);
+      if (PropertyServiceData.isDataAvailable(node)) {
+        availableLeaves.add(node);
+      }
+    }
+  }
+
+  /**
+   * Returns true if no leaf nodes are outstanding and the completion was not
+   * reported yet. Marks the completion as reported.
+   *
+   * @return true if the completion is to be reported
+   */
+  protected boolean checkCompletion() {
+    if (!leafNodes.isEmpty() && availableLeaves.size() == leafNodes.size() && !resultReported) {
+      resultReported = true;
+      return true;
+    }
+    return false;
+  }
+}
@@ -1,7 +1,5 @@
 package at.uibk.dps.ee.control.extraction;
 
-import java.util.Set;
-import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.JsonElement;
@@ -9,6 +7,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import com.google.inject.Inject;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.control.verticles.VerticleApollo;
 import at.uibk.dps.ee.control.verticles.WorkerException;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
@@ -18,7 +17,6 @@ import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.NodeType;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
-import net.sf.opendse.model.properties.TaskPropertyService;
 
 /**
  * The {@link WorkerExtraction} is responsible for the extraction of the data
@@ -29,23 +27,25 @@ import net.sf.opendse.model.properties.TaskPropertyService;
  */
 public class WorkerExtraction extends VerticleApollo {
 
-  protected final Set<Task> leafNodes;
+  protected final LeafNodeTracker leafNodeTracker;
+  protected final TaskMessenger taskMessenger;
 
   protected final Logger logger = LoggerFactory.getLogger(WorkerExtraction.class);
 
   /**
    * The injection constructor.
    * 
-   * @param eGraphProvider provider of the enactment graph
+   * @param specProvider provider of the specification
+   * @param leafNodeTracker tracks the leaf nodes which do not have data yet
+   * @param taskMessenger used to send the data nodes
    */
   @Inject
-  public WorkerExtraction(final SpecificationProvider specProvider) {
+  public WorkerExtraction(final SpecificationProvider specProvider,
+      final LeafNodeTracker leafNodeTracker, final TaskMessenger taskMessenger) {
     super(ConstantsVertX.addressEnactmentFinished, ConstantsVertX.addressDataAvailable,
         ConstantsVertX.addressFailureAbort, specProvider);
-    this.leafNodes = eGraph.getVertices().stream()
-        .filter(
-            node -> TaskPropertyService.isCommunication(node) && PropertyServiceData.isLeaf(node))
-        .collect(Collectors.toSet());
+    this.leafNodeTracker = leafNodeTracker;
+    this.taskMessenger = taskMessenger;
   }
 
   @Override
@@ -66,7 +66,7 @@ public class WorkerExtraction extends VerticleApollo {
     final boolean dataNodeModelsSequentiality =
         PropertyServiceData.getNodeType(dataNode).equals(NodeType.Sequentiality);
     if (dataNodeModelsSequentiality & PropertyServiceData.isWhileCounter(dataNode)) {
-      this.vertx.eventBus().send(successAddress, dataNode.getId());
+      taskMessenger.send(this.vertx.eventBus(), successAddress, dataNode);
       return;
     }
     final Task finishedFunction = eGraph.getSource(outEdge);
@@ -83,26 +83,23 @@ public class WorkerExtraction extends VerticleApollo {
     // annotateExtractionEdge(outEdge);
     logger.debug("Thread {}; Data on node {} available.", Thread.currentThread().getId(),
         dataNode.getId());
-    this.vertx.eventBus().send(successAddress, dataNode.getId());
+    taskMessenger.send(this.vertx.eventBus(), successAddress, dataNode);
     // check whether done
-    checkOverallResult();
+    checkOverallResult(dataNode);
   }
 
   /**
-   * Check whether the overall result of the WF execution is complete. In case the
-   * WF execution is complete, a corresponding message is published on the event
-   * bus.
+   * Check whether the overall result of the WF execution is complete after the
+   * data of the given node became available. In case the WF execution is
+   * complete, a corresponding message is published on the event bus (once).
+   * 
+   * @param dataNode the data node whose data just became available
    */
-  protected void checkOverallResult() {
-    if (leafNodes.stream().allMatch(leafNode -> PropertyServiceData.isDataAvailable(leafNode))) {
-      final JsonObject result = new JsonObject();
-      leafNodes.forEach(leafNode -> {
-        final JsonElement content = PropertyServiceData.getContent(leafNode);
-        final String key = PropertyServiceData.getJsonKey(leafNode);
-        result.add(key, content);
-      });
+  protected void checkOverallResult(final Task dataNode) {
+    if (leafNodeTracker.registerAvailableData(dataNode)) {
+      // sent with the json codec, serialized only for remote consumers
       this.vertx.eventBus().publish(ConstantsVertX.addressWorkflowResultAvailable,
-          result.toString());
+          leafNodeTracker.getWorkflowResult());
     }
   }
 }
@@ -4,6 +4,7 @@ import com.google.gson.JsonObject;
 import com.google.inject.ImplementedBy;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
+import net.sf.opendse.model.Task;
 
 /**
  * Parent class for all {@link FailureHandler}s.
@@ -34,6 +35,38 @@ public abstract class FailureHandler {
   public abstract void handleFailure(String failureMessage, Promise<JsonObject> resultPromise,
       Vertx vertx);
 
+  /**
+   * Handles the failed enactment of the task with the given ID. By default, the
+   * failure is treated like any other failure.
+   * 
+   * @param taskId the ID of the task whose enactment failed
+   * @param failureMessage the failure message
+   * @param resultPromise the current result promise
+   * @param vertx the VertX context
+   */
+  public void handleTaskFailure(final String taskId, final String failureMessage,
+      final Promise<JsonObject> resultPromise, final Vertx vertx) {
+    handleFailure(failureMessage, resultPromise, vertx);
+  }
+
+  /**
+   * Handles the successful enactment of the given task. By default, nothing is
+   * done.
+   * 
+   * @param task the task which was enacted successfully
+   */
+  public void handleTaskSuccess(final Task task) {
+    // nothing to do by default
+  }
+
+  /**
+   * Resets the state kept by the handler for a new enactment. By default, the
+   * handler keeps no state.
+   */
+  public void reset() {
+    // nothing to reset by default
+  }
+
   public String getTriggerAddress() {
     return triggerAddress;
   }
@@ -0,0 +1,198 @@
+package at.uibk.dps.ee.control.failure;
+
+import java.util.ArrayDeque;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.opt4j.core.start.Constant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.gson.JsonObject;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.init.InFlightCounter;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.locks.StripedLock;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
+
+/**
+ * The {@link FailureHandlerLocalized} reacts to the failed enactment of a task
+ * by resetting the part of the enactment graph which depends on the failed task
+ * and re-launching the failed task. The work completed in the rest of the graph
+ * is kept. The reset region is locked with the {@link LockStriping}, so that it
+ * is not modified concurrently by transmissions or transformations. Failures
+ * which cannot be attributed to a task and tasks failing more often than the
+ * configured number of attempts (without succeeding in between) result in a
+ * shutdown.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class FailureHandlerLocalized extends FailureHandlerShutdown {
+
+  protected final EnactmentGraph eGraph;
+  protected final TaskMessenger taskMessenger;
+  protected final PendingInputCounter pendingInputs;
+  protected final LockStriping lockStriping;
+  protected final int maxAttempts;
+  protected final Map<String, Integer> attempts = new ConcurrentHashMap<>();
+  protected InFlightCounter inFlight = new InFlightCounter();
+
+  protected final Logger logger = LoggerFactory.getLogger(FailureHandlerLocalized.class);
+
+  /**
+   * Injection constructor.
+   * 
+   * @param specProvider the specification provider
+   * @param taskMessenger used to re-launch the failed tasks
+   * @param pendingInputs counts the inputs which functions are still waiting for
+   * @param lockStriping used to lock the reset region of the graph
+   * @param maxAttempts the number of times a task is re-launched before the
+   *        enactment is aborted
+   */
+  @Inject
+  public FailureHandlerLocalized(final SpecificationProvider specProvider,
+      final TaskMessenger taskMessenger, final PendingInputCounter pendingInputs,
+      final LockStriping lockStriping, @Constant(namespace = FailureHandlerLocalized.class,
+          value = "maxAttempts") final int maxAttempts) {
+    super();
+    this.eGraph = specProvider.getEnactmentGraph();
+    this.taskMessenger = taskMessenger;
+    this.pendingInputs = pendingInputs;
+    this.lockStriping = lockStriping;
+    this.maxAttempts = maxAttempts;
+  }
+
+  /**
+   * Sets the counter of the operations in flight (the reset of the failed
+   * region is registered with the counter).
+   * 
+   * @param inFlight the counter of the operations in flight
+   */
+  @Inject
+  public void setInFlightCounter(final InFlightCounter inFlight) {
+    this.inFlight = inFlight;
+  }
+
+  @Override
+  public void handleTaskFailure(final String taskId, final String failureMessage,
+      final Promise<JsonObject> resultPromise, final Vertx vertx) {
+    final Task failedTask = eGraph.getVertex(taskId);
+    final int attempt = attempts.merge(taskId, 1, Integer::sum);
+    if (failedTask == null || attempt > maxAttempts) {
+      handleFailure(failureMessage, resultPromise, vertx);
+      return;
+    }
+    logger.warn("Enactment of task {} failed ({}); re-launching it (attempt {}).", taskId,
+        failureMessage, attempt);
+    inFlight.begin();
+    lockStriping.lockRegion(() -> getLockedRegion(failedTask)).onComplete(lockRes -> {
+      if (lockRes.failed()) {
+        inFlight.end();
+        handleFailure(lockRes.cause().getMessage(), resultPromise, vertx);
+        return;
+      }
+      final StripedLock lock = lockRes.result();
+      lockStriping.readGraph(() -> resetDependentRegion(failedTask)).onComplete(resetRes -> {
+        lock.release();
+        if (resetRes.succeeded()) {
+          taskMessenger.send(vertx.eventBus(), ConstantsVertX.addressTaskLaunchable, failedTask);
+        } else {
+          handleFailure(resetRes.cause().getMessage(), resultPromise, vertx);
+        }
+        inFlight.end();
+      });
+    });
+  }
+
+  @Override
+  public void handleTaskSuccess(final Task task) {
+    attempts.remove(task.getId());
+  }
+
+  @Override
+  public void reset() {
+    attempts.clear();
+  }
+
+  /**
+   * Returns the region which is locked while resetting the nodes depending on
+   * the given failed task: the failed task and its downstream nodes.
+   * 
+   * @param failedTask the failed task
+   * @return the region which is locked during the reset
+   */
+  protected Set<Task> getLockedRegion(final Task failedTask) {
+    final Set<Task> region = new HashSet<>();
+    region.add(failedTask);
+    final Queue<Task> toVisit = new ArrayDeque<>();
+    toVisit.add(failedTask);
+    while (!toVisit.isEmpty()) {
+      for (final Task successor : eGraph.getSuccessors(toVisit.poll())) {
+        if (region.add(successor)) {
+          toVisit.add(successor);
+        }
+      }
+    }
+    return region;
+  }
+
+  /**
+   * Resets the graph elements depending on the given failed task: the
+   * transmissions of all edges leaving the failed task or its successors, the
+   * content of the data nodes, and the in- and outputs of the function nodes
+   * downstream of the failed task. The input of the failed task and the
+   * transmissions from the rest of the graph are kept.
+   * 
+   * @param failedTask the failed task
+   * @return the nodes downstream of the failed task
+   */
+  protected Set<Task> resetDependentRegion(final Task failedTask) {
+    final Set<Task> region = new HashSet<>();
+    final Queue<Task> toVisit = new ArrayDeque<>();
+    toVisit.add(failedTask);
+    PropertyServiceFunction.resetOutput(failedTask);
+    while (!toVisit.isEmpty()) {
+      final Task current = toVisit.poll();
+      for (final Dependency outEdge : eGraph.getOutEdges(current)) {
+        PropertyServiceDependency.resetTransmission(outEdge);
+        final Task successor = eGraph.getDest(outEdge);
+        if (!successor.equals(failedTask) && region.add(successor)) {
+          resetNode(successor);
+          toVisit.add(successor);
+        }
+      }
+    }
+    return region;
+  }
+
+  /**
+   * Resets the state of the given node downstream of a failed task.
+   * 
+   * @param node the given node
+   */
+  protected void resetNode(final Task node) {
+    if (TaskPropertyService.isCommunication(node)) {
+      PropertyServiceData.resetContent(node);
+    } else {
+      PropertyServiceFunction.resetInput(node);
+      PropertyServiceFunction.resetOutput(node);
+      // the counter is recreated from the reset transmission annotations
+      pendingInputs.invalidate(node);
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package at.uibk.dps.ee.control.init;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.extraction.LeafNodeTracker;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.scheduling.SchedulingBatcher;
+import at.uibk.dps.ee.control.scheduling.WaitingTaskIndex;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.sc.core.ScheduleModel;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link EnactmentReset} brings the enactment state back to the state
+ * before the first enactment, so that the deployed verticles can be reused for
+ * successive invocations. To this end, a snapshot of the enactment graph is
+ * taken at initialization and restored on reset, the schedule is cleared, and
+ * the state derived from the graph is invalidated. The reset waits until the
+ * operations of the previous enactment which are still in flight are finished.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentReset {
+
+  protected final EnactmentGraph eGraph;
+  protected final ScheduleModel schedule;
+  protected final PendingInputCounter pendingInputs;
+  protected final LeafNodeTracker leafNodeTracker;
+  protected final ScopeRegistry scopeRegistry;
+  protected final FailureHandler failureHandler;
+  protected final SchedulingBatcher schedulingBatcher;
+  protected final WaitingTaskIndex waitingTasks;
+  protected final LockStriping lockStriping;
+  protected final InFlightCounter inFlight;
+  protected final GraphSnapshot snapshot;
+
+  /**
+   * Injection constructor.
+   *
+   * @param specProvider the specification provider
+   * @param schedule the schedule model
+   * @param pendingInputs the counter of the pending function inputs
+   * @param leafNodeTracker the tracker of the leaf nodes
+   * @param scopeRegistry the registry of the reproduction scopes
+   * @param failureHandler the failure handler (counting the failed attempts)
+   * @param schedulingBatcher the batcher of the scheduling requests
+   * @param waitingTasks the tasks waiting for free resources
+   * @param lockStriping guards the graph structure during the restore
+   * @param inFlight the counter of the operations in flight
+   */
+  @Inject
+  public EnactmentReset(final SpecificationProvider specProvider, final ScheduleModel schedule,
+      final PendingInputCounter pendingInputs, final LeafNodeTracker leafNodeTracker,
+      final ScopeRegistry scopeRegistry, final FailureHandler failureHandler,
+      final SchedulingBatcher schedulingBatcher, final WaitingTaskIndex waitingTasks,
+      final LockStriping lockStriping, final InFlightCounter inFlight) {
+    this.eGraph = specProvider.getEnactmentGraph();
+    this.schedule = schedule;
+    this.pendingInputs = pendingInputs;
+    this.leafNodeTracker = leafNodeTracker;
+    this.scopeRegistry = scopeRegistry;
+    this.failureHandler = failureHandler;
+    this.schedulingBatcher = schedulingBatcher;
+    this.waitingTasks = waitingTasks;
+    this.lockStriping = lockStriping;
+    this.inFlight = inFlight;
+    this.snapshot = new GraphSnapshot(eGraph);
+  }
+
+  /**
+   * Resets the enactment state as soon as no operations of the previous
+   * enactment are in flight. May only be called once the previous enactment
+   * produced its result.
+   * 
+   * @return a future completed once the state is reset
+   */
+  public Future<Void> reset() {
+    return inFlight.whenQuiescent().compose(nothing -> lockStriping.modifyGraph(this::restore));
+  }
+
+  /**
+   * Restores the graph snapshot and clears the state of the previous
+   * enactment.
+   */
+  protected void restore() {
+    // the schedules of the tasks created by transformations are reset as well
+    final List<Task> tasks = new ArrayList<>(eGraph.getVertices());
+    tasks.stream().filter(schedule::isScheduled).forEach(schedule::resetTaskSchedule);
+    snapshot.restore(eGraph);
+    pendingInputs.invalidateAll();
+    scopeRegistry.clear();
+    leafNodeTracker.reset();
+    failureHandler.reset();
+    schedulingBatcher.reset();
+    waitingTasks.clear();
+  }
+}
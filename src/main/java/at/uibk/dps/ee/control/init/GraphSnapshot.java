@@ -0,0 +1,136 @@
+package at.uibk.dps.ee.control.init;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import com.google.gson.JsonElement;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link GraphSnapshot} records the elements of the enactment graph
+ * together with their attributes so that the graph can be restored to this
+ * state after an enactment, i.e., the elements added by graph transformations
+ * are removed, the removed elements are added back, and the annotations made
+ * during the enactment are reset.
+ *
+ * @author Fedor Smirnov
+ */
+public class GraphSnapshot {
+
+  protected final Map<Task, Map<String, Object>> vertexAttributes = new HashMap<>();
+  protected final Map<Dependency, Map<String, Object>> edgeAttributes = new HashMap<>();
+  protected final Map<Dependency, Task> edgeSources = new HashMap<>();
+  protected final Map<Dependency, Task> edgeDestinations = new HashMap<>();
+  // identity sets, since transformations may add elements equal to recorded ones
+  protected final Set<Task> recordedVertices =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+  protected final Set<Dependency> recordedEdges =
+      Collections.newSetFromMap(new IdentityHashMap<>());
+
+  /**
+   * Takes a snapshot of the current state of the given graph.
+   *
+   * @param graph the enactment graph
+   */
+  public GraphSnapshot(final EnactmentGraph graph) {
+    for (final Task vertex : graph.getVertices()) {
+      vertexAttributes.put(vertex, copyAttributes(vertex));
+      recordedVertices.add(vertex);
+    }
+    for (final Dependency edge : graph.getEdges()) {
+      edgeAttributes.put(edge, copyAttributes(edge));
+      recordedEdges.add(edge);
+      edgeSources.put(edge, graph.getSource(edge));
+      edgeDestinations.put(edge, graph.getDest(edge));
+    }
+  }
+
+  /**
+   * Restores the state of the snapshot in the given graph.
+   *
+   * @param graph the enactment graph
+   */
+  public void restore(final EnactmentGraph graph) {
+    // remove the elements which were added after the snapshot
+    final List<Dependency> edges = new ArrayList<>(graph.getEdges());
+    edges.stream().filter(edge -> !recordedEdges.contains(edge))
+        .forEach(graph::removeEdge);
+    final List<Task> vertices = new ArrayList<>(graph.getVertices());
+    vertices.stream().filter(vertex -> !recordedVertices.contains(vertex))
+        .forEach(graph::removeVertex);
+    // add the elements which were removed after the snapshot
+    for (final Entry<Task, Map<String, Object>> entry : vertexAttributes.entrySet()) {
+      final Task vertex = entry.getKey();
+      if (!graph.containsVertex(vertex)) {
+        graph.addVertex(vertex);
+      }
+      restoreAttributes(vertex, entry.getValue());
+    }
+    for (final Entry<Dependency, Map<String, Object>> entry : edgeAttributes.entrySet()) {
+      final Dependency edge = entry.getKey();
+      if (!graph.containsEdge(edge)) {
+        graph.addEdge(edge, edgeSources.get(edge), edgeDestinations.get(edge),
+            EdgeType.DIRECTED);
+      }
+      restoreAttributes(edge, entry.getValue());
+    }
+  }
+
+  /**
+   * Copies the attributes of the given element.
+   *
+   * @param element the given element
+   * @return map of the attribute names onto copies of the attribute values
+   */
+  protected static Map<String, Object> copyAttributes(final Element element) {
+    final Map<String, Object> result = new HashMap<>();
+    for (final String name : element.getAttributeNames()) {
+      result.put(name, copyValue(element.getAttribute(name)));
+    }
+    return result;
+  }
+
+  /**
+   * Sets the attributes of the given element to copies of the recorded values
+   * and removes the attributes which were added after the snapshot.
+   *
+   * @param element the given element
+   * @param attributes the recorded attributes
+   */
+  protected static void restoreAttributes(final Element element,
+      final Map<String, Object> attributes) {
+    final Set<String> currentNames = new HashSet<>(element.getAttributeNames());
+    for (final String name : currentNames) {
+      if (!attributes.containsKey(name)) {
+        element.setAttribute(name, null);
+      }
+    }
+    for (final Entry<String, Object> attribute : attributes.entrySet()) {
+      element.setAttribute(attribute.getKey(), copyValue(attribute.getValue()));
+    }
+  }
+
+  /**
+   * Copies the given attribute value. Json values are mutable and are,
+   * therefore, copied deeply; the remaining attribute values are immutable.
+   *
+   * @param value the attribute value
+   * @return the copied value
+   */
+  protected static Object copyValue(final Object value) {
+    if (value instanceof JsonElement) {
+      return ((JsonElement) value).deepCopy();
+    }
+    return value;
+  }
+}
@@ -0,0 +1,77 @@
+package at.uibk.dps.ee.control.init;
+
+import java.util.ArrayList;
+import java.util.List;
+import com.google.inject.Singleton;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * The {@link InFlightCounter} counts the operations on the enactment state
+ * which are in flight, i.e., which were started but did not finish yet (e.g.,
+ * function invocations including their retries and speculative duplicates,
+ * graph transformations, or the release of resource capacity). The enactment
+ * state may only be reset once the counter is back at zero, since operations
+ * finishing after the end of an enactment would otherwise modify the state of
+ * the next one.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class InFlightCounter {
+
+  protected int inFlight;
+  protected final List<Promise<Void>> waiting = new ArrayList<>();
+
+  /**
+   * Registers the start of an operation.
+   */
+  public synchronized void begin() {
+    inFlight++;
+  }
+
+  /**
+   * Registers the end of an operation.
+   */
+  public void end() {
+    final List<Promise<Void>> quiescent;
+    synchronized (this) {
+      if (inFlight == 0) {
+        throw new IllegalStateException("End of an operation which did not begin.");
+      }
+      inFlight--;
+      if (inFlight > 0) {
+        return;
+      }
+      quiescent = new ArrayList<>(waiting);
+      waiting.clear();
+    }
+    quiescent.forEach(Promise::complete);
+  }
+
+  /**
+   * Returns a future which is completed as soon as no operations are in flight.
+   * 
+   * @return a future completed as soon as no operations are in flight
+   */
+  public Future<Void> whenQuiescent() {
+    final Promise<Void> promise = Promise.promise();
+    synchronized (this) {
+      if (inFlight > 0) {
+        waiting.add(promise);
+        return promise.future();
+      }
+    }
+    promise.complete();
+    return promise.future();
+  }
+
+  /**
+   * Returns the number of operations in flight.
+   * 
+   * @return the number of operations in flight
+   */
+  public synchronized int getInFlight() {
+    return inFlight;
+  }
+}
@@ -0,0 +1,23 @@
+package at.uibk.dps.ee.control.locks;
+
+import com.google.inject.ImplementedBy;
+import io.vertx.core.Future;
+import io.vertx.core.shareddata.Lock;
+
+/**
+ * Interface for the classes providing the (asynchronous) locks used to
+ * synchronize the verticles of an Apollo instance.
+ * 
+ * @author Fedor Smirnov
+ */
+@ImplementedBy(EnactmentLockProviderLocal.class)
+public interface EnactmentLockProvider {
+
+  /**
+   * Requests the lock with the given name.
+   * 
+   * @param lockName the name of the requested lock
+   * @return a future which is completed with the lock as soon as it is acquired
+   */
+  Future<Lock> getLock(String lockName);
+}
@@ -0,0 +1,99 @@
+package at.uibk.dps.ee.control.locks;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import com.google.inject.Singleton;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.Lock;
+
+/**
+ * The {@link EnactmentLockProviderLocal} provides locks which are only valid
+ * within the current JVM. An uncontended lock is granted immediately (without
+ * timers or context switches). Contended requests are queued and granted in
+ * FIFO order, with the lock being handed over on the context of the requesting
+ * verticle.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentLockProviderLocal implements EnactmentLockProvider {
+
+  protected final Map<String, LocalLock> locks = new ConcurrentHashMap<>();
+
+  @Override
+  public Future<Lock> getLock(final String lockName) {
+    return locks.computeIfAbsent(lockName, name -> new LocalLock()).acquire();
+  }
+
+  /**
+   * A request waiting for a lock.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class Waiter {
+
+    protected final Promise<Lock> promise;
+    protected final Context context;
+
+    /**
+     * Default constructor.
+     * 
+     * @param promise the promise completed when the lock is granted
+     * @param context the context of the requester (null if not requested from a
+     *        vertX thread)
+     */
+    protected Waiter(final Promise<Lock> promise, final Context context) {
+      this.promise = promise;
+      this.context = context;
+    }
+  }
+
+  /**
+   * Lock which is granted to one holder at a time.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class LocalLock implements Lock {
+
+    protected boolean held;
+    protected final Queue<Waiter> waiters = new ArrayDeque<>();
+
+    /**
+     * Requests the lock.
+     * 
+     * @return future completed as soon as the lock is granted
+     */
+    protected synchronized Future<Lock> acquire() {
+      if (!held) {
+        held = true;
+        return Future.succeededFuture(this);
+      }
+      final Promise<Lock> promise = Promise.promise();
+      waiters.add(new Waiter(promise, Vertx.currentContext()));
+      return promise.future();
+    }
+
+    @Override
+    public void release() {
+      final Waiter next;
+      synchronized (this) {
+        next = waiters.poll();
+        if (next == null) {
+          held = false;
+          return;
+        }
+      }
+      // the lock is handed over directly to the next waiter
+      if (next.context == null) {
+        next.promise.complete(this);
+      } else {
+        next.context.runOnContext(event -> next.promise.complete(this));
+      }
+    }
+  }
+}
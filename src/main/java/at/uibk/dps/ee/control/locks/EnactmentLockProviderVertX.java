@@ -0,0 +1,35 @@
+package at.uibk.dps.ee.control.locks;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.shareddata.Lock;
+
+/**
+ * The {@link EnactmentLockProviderVertX} provides the locks of the VertX shared
+ * data. These locks are cluster-wide in case VertX is clustered.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentLockProviderVertX implements EnactmentLockProvider {
+
+  protected final Vertx vertx;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param vProv the vertX provider
+   */
+  @Inject
+  public EnactmentLockProviderVertX(final VertxProvider vProv) {
+    this.vertx = vProv.getVertx();
+  }
+
+  @Override
+  public Future<Lock> getLock(final String lockName) {
+    return vertx.sharedData().getLock(lockName);
+  }
+}
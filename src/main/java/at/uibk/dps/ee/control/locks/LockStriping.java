@@ -0,0 +1,215 @@
+package at.uibk.dps.ee.control.locks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import io.vertx.core.Future;
+import io.vertx.core.shareddata.Lock;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link LockStriping} synchronizes the transmission and transformation
+ * operations on the enactment graph. Each task is assigned to one of a fixed
+ * number of lock stripes. An operation locks the stripes of all tasks in the
+ * graph region it reads or modifies, so that operations on disjoint regions can
+ * be processed in parallel. The stripes are always acquired in ascending order
+ * to prevent deadlocks.
+ * 
+ * The stripes only protect the annotations of the tasks in a region. The
+ * structure of the graph (which is not thread-safe) is additionally guarded by
+ * an asynchronous {@link StructureLock}: the regions are computed with shared
+ * access, while the operations adding or removing graph elements hold the
+ * exclusive access. None of the operations blocks the calling thread; they
+ * are continued as soon as the requested access is granted.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class LockStriping {
+
+  protected final int stripeNumber;
+  protected final EnactmentLockProvider lockProvider;
+  protected final StructureLock structureLock = new StructureLock();
+
+  /**
+   * Injection constructor.
+   * 
+   * @param stripeNumber the number of lock stripes
+   * @param lockProvider provides the locks used for the stripes
+   */
+  @Inject
+  public LockStriping(
+      @Constant(namespace = LockStriping.class, value = "stripeNumber") final int stripeNumber,
+      final EnactmentLockProvider lockProvider) {
+    if (stripeNumber < 1) {
+      throw new IllegalArgumentException("At least one lock stripe required.");
+    }
+    this.stripeNumber = stripeNumber;
+    this.lockProvider = lockProvider;
+  }
+
+  /**
+   * Locks the graph region provided by the given supplier. The region is
+   * calculated with shared access to the graph structure and recalculated after
+   * all stripes are acquired. If it changed in a way which is not covered by the
+   * acquired stripes (due to a concurrent transformation), the locks are
+   * released and the acquisition is repeated.
+   * 
+   * @param regionSupplier supplies the tasks of the region to lock
+   * @return a future which is completed with the lock handle once all stripes of
+   *         the region are acquired
+   */
+  public Future<StripedLock> lockRegion(final Supplier<Set<Task>> regionSupplier) {
+    return readGraph(regionSupplier).compose(initialRegion -> {
+      final SortedSet<Integer> stripes = getStripes(initialRegion);
+      final List<Lock> acquired = new ArrayList<>();
+      return acquireStripes(stripes.iterator(), acquired)
+          .onFailure(failure -> acquired.forEach(Lock::release))
+          .compose(locks -> readGraph(regionSupplier).compose(region -> {
+            if (stripes.containsAll(getStripes(region))) {
+              return Future.succeededFuture(new StripedLock(locks, region));
+            } else {
+              locks.forEach(Lock::release);
+              return lockRegion(regionSupplier);
+            }
+          }, failure -> {
+            locks.forEach(Lock::release);
+            return Future.failedFuture(failure);
+          }));
+    });
+  }
+
+  /**
+   * Reads the graph structure with shared access, i.e., without concurrent
+   * additions or removals of graph elements. The read is performed right away if
+   * the graph is not being modified; otherwise, it is performed (on the context
+   * of the caller) once the modification is finished.
+   * 
+   * @param <T> the type of the read result
+   * @param reader the operation reading the graph
+   * @return a future completed with the result of the read operation
+   */
+  public <T> Future<T> readGraph(final Supplier<T> reader) {
+    return structureLock.acquireShared().map(granted -> {
+      try {
+        return reader.get();
+      } finally {
+        structureLock.releaseShared();
+      }
+    });
+  }
+
+  /**
+   * Reads the graph structure with shared access, i.e., without concurrent
+   * additions or removals of graph elements.
+   * 
+   * @param reader the operation reading the graph
+   * @return a future completed once the read operation is performed
+   */
+  public Future<Void> readGraph(final Runnable reader) {
+    return readGraph(() -> {
+      reader.run();
+      return null;
+    });
+  }
+
+  /**
+   * Modifies the graph structure with exclusive access, i.e., without concurrent
+   * reads of the graph structure.
+   * 
+   * @param modification the operation adding or removing graph elements
+   * @return a future completed once the modification is performed
+   */
+  public Future<Void> modifyGraph(final Runnable modification) {
+    return modifyGraphAsync(() -> {
+      modification.run();
+      return Future.succeededFuture();
+    });
+  }
+
+  /**
+   * Modifies the graph structure with exclusive access, which is held until the
+   * future returned by the modification is completed (e.g., while the
+   * modification is performed on a worker thread). The readers requesting
+   * access in the meantime are not blocked, but continued once the access is
+   * released.
+   * 
+   * @param <T> the type of the modification result
+   * @param modification the operation adding or removing graph elements
+   * @return a future completed with the result of the modification
+   */
+  public <T> Future<T> modifyGraphAsync(final Supplier<Future<T>> modification) {
+    return structureLock.acquireExclusive().compose(granted -> {
+      Future<T> result;
+      try {
+        result = modification.get();
+      } catch (RuntimeException exc) {
+        result = Future.failedFuture(exc);
+      }
+      return result.onComplete(modified -> structureLock.releaseExclusive());
+    });
+  }
+
+  /**
+   * Acquires the remaining stripes of the given iterator one after the other.
+   * 
+   * @param stripeIterator iterator over the stripes which are to be acquired
+   * @param acquired the list of the locks acquired so far
+   * @return future completed with the acquired locks
+   */
+  protected Future<List<Lock>> acquireStripes(final Iterator<Integer> stripeIterator,
+      final List<Lock> acquired) {
+    if (!stripeIterator.hasNext()) {
+      return Future.succeededFuture(acquired);
+    }
+    return lockProvider.getLock(getLockName(stripeIterator.next())).compose(lock -> {
+      acquired.add(lock);
+      return acquireStripes(stripeIterator, acquired);
+    });
+  }
+
+  /**
+   * Returns the (sorted) set of the stripes covering the given tasks.
+   * 
+   * @param tasks the given tasks
+   * @return the sorted set of the stripes covering the given tasks
+   */
+  protected SortedSet<Integer> getStripes(final Set<Task> tasks) {
+    final SortedSet<Integer> result = new TreeSet<>();
+    for (final Task task : tasks) {
+      result.add(getStripe(task));
+      if (result.size() == stripeNumber) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the stripe of the given task.
+   * 
+   * @param task the given task
+   * @return the stripe of the given task
+   */
+  protected int getStripe(final Task task) {
+    return Math.floorMod(task.getId().hashCode(), stripeNumber);
+  }
+
+  /**
+   * Returns the name of the lock used for the given stripe.
+   * 
+   * @param stripe the given stripe
+   * @return the name of the lock used for the given stripe
+   */
+  protected String getLockName(final int stripe) {
+    return ConstantsVertX.stripeLock + stripe;
+  }
+}
@@ -0,0 +1,45 @@
+package at.uibk.dps.ee.control.locks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import io.vertx.core.shareddata.Lock;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link StripedLock} is the handle of all lock stripes acquired for a
+ * region of the enactment graph.
+ * 
+ * @author Fedor Smirnov
+ */
+public class StripedLock {
+
+  protected final List<Lock> stripeLocks;
+  protected final Set<Task> region;
+
+  /**
+   * Default constructor.
+   * 
+   * @param stripeLocks the acquired stripe locks (in the order of their
+   *        acquisition)
+   * @param region the graph region protected by the locks
+   */
+  public StripedLock(final List<Lock> stripeLocks, final Set<Task> region) {
+    this.stripeLocks = new ArrayList<>(stripeLocks);
+    this.region = Collections.unmodifiableSet(region);
+  }
+
+  /**
+   * Releases all stripe locks (in the reverse order of their acquisition).
+   */
+  public void release() {
+    for (int idx = stripeLocks.size() - 1; idx >= 0; idx--) {
+      stripeLocks.get(idx).release();
+    }
+  }
+
+  public Set<Task> getRegion() {
+    return region;
+  }
+}
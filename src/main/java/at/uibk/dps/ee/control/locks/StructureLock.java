@@ -0,0 +1,159 @@
+package at.uibk.dps.ee.control.locks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+
+/**
+ * The {@link StructureLock} is an asynchronous read-write lock guarding the
+ * structure of the enactment graph. Shared access is granted to any number of
+ * readers, exclusive access to a single writer. No thread is ever blocked:
+ * requests which cannot be granted right away are queued and granted in FIFO
+ * order (readers arriving after a waiting writer queue behind it), with the
+ * access being handed over on the context of the requester.
+ *
+ * @author Fedor Smirnov
+ */
+public class StructureLock {
+
+  protected int readers;
+  protected boolean writing;
+  protected final Queue<Request> waiting = new ArrayDeque<>();
+
+  /**
+   * A request waiting for the access to the graph structure.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class Request {
+
+    protected final boolean exclusive;
+    protected final Promise<Void> promise;
+    protected final Context context;
+
+    /**
+     * Default constructor.
+     *
+     * @param exclusive true iff exclusive access is requested
+     * @param promise the promise completed when the access is granted
+     * @param context the context of the requester (null if not requested from a
+     *        vertX thread)
+     */
+    protected Request(final boolean exclusive, final Promise<Void> promise,
+        final Context context) {
+      this.exclusive = exclusive;
+      this.promise = promise;
+      this.context = context;
+    }
+
+    /**
+     * Grants the requested access on the context of the requester.
+     */
+    protected void grant() {
+      if (context == null) {
+        promise.complete();
+      } else {
+        context.runOnContext(event -> promise.complete());
+      }
+    }
+  }
+
+  /**
+   * Requests shared access to the graph structure.
+   *
+   * @return a future completed as soon as the shared access is granted
+   */
+  public synchronized Future<Void> acquireShared() {
+    if (!writing && waiting.isEmpty()) {
+      readers++;
+      return Future.succeededFuture();
+    }
+    return enqueue(false);
+  }
+
+  /**
+   * Requests exclusive access to the graph structure.
+   *
+   * @return a future completed as soon as the exclusive access is granted
+   */
+  public synchronized Future<Void> acquireExclusive() {
+    if (!writing && readers == 0 && waiting.isEmpty()) {
+      writing = true;
+      return Future.succeededFuture();
+    }
+    return enqueue(true);
+  }
+
+  /**
+   * Releases a shared access.
+   */
+  public void releaseShared() {
+    final List<Request> granted;
+    synchronized (this) {
+      if (readers == 0) {
+        throw new IllegalStateException("Shared access released without being held.");
+      }
+      readers--;
+      granted = grantWaiting();
+    }
+    granted.forEach(Request::grant);
+  }
+
+  /**
+   * Releases the exclusive access.
+   */
+  public void releaseExclusive() {
+    final List<Request> granted;
+    synchronized (this) {
+      if (!writing) {
+        throw new IllegalStateException("Exclusive access released without being held.");
+      }
+      writing = false;
+      granted = grantWaiting();
+    }
+    granted.forEach(Request::grant);
+  }
+
+  /**
+   * Queues a request which cannot be granted right away.
+   *
+   * @param exclusive true iff exclusive access is requested
+   * @return a future completed as soon as the access is granted
+   */
+  protected Future<Void> enqueue(final boolean exclusive) {
+    final Promise<Void> promise = Promise.promise();
+    waiting.add(new Request(exclusive, promise, Vertx.currentContext()));
+    return promise.future();
+  }
+
+  /**
+   * Removes the requests which can be granted from the head of the queue and
+   * updates the state accordingly: either the waiting writer or all readers up
+   * to the next waiting writer. Has to be called while holding the monitor.
+   *
+   * @return the requests which are granted
+   */
+  protected List<Request> grantWaiting() {
+    final List<Request> result = new ArrayList<>();
+    if (writing) {
+      return result;
+    }
+    if (!waiting.isEmpty() && waiting.peek().exclusive) {
+      if (readers == 0) {
+        writing = true;
+        result.add(waiting.poll());
+      }
+      return result;
+    }
+    while (!waiting.isEmpty() && !waiting.peek().exclusive) {
+      readers++;
+      result.add(waiting.poll());
+    }
+    return result;
+  }
+}
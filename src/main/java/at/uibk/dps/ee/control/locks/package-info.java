@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to synchronize the operations which the
+ * verticles perform on the enactment graph.
+ */
+package at.uibk.dps.ee.control.locks;
@@ -0,0 +1,43 @@
+package at.uibk.dps.ee.control.metrics;
+
+import com.google.inject.ImplementedBy;
+
+/**
+ * Interface for the classes recording metrics of the enactment. The metrics
+ * can be queried (in form of a snapshot) while the enactment is running.
+ * 
+ * @author Fedor Smirnov
+ */
+@ImplementedBy(EnactmentMetricsNoOp.class)
+public interface EnactmentMetrics {
+
+  /**
+   * Counts a message received on the given address.
+   * 
+   * @param address the event bus address
+   */
+  void countMessage(String address);
+
+  /**
+   * Records a duration measured by the timer with the given name.
+   * 
+   * @param timerName the name of the timer (see {@link MetricNames})
+   * @param durationNanos the duration in nanoseconds
+   */
+  void recordTime(String timerName, long durationNanos);
+
+  /**
+   * Sets the current length of the queue with the given name.
+   * 
+   * @param queueName the name of the queue (see {@link MetricNames})
+   * @param length the current length
+   */
+  void setQueueLength(String queueName, int length);
+
+  /**
+   * Returns a snapshot of the metrics recorded so far.
+   * 
+   * @return a snapshot of the metrics recorded so far
+   */
+  MetricsSnapshot getSnapshot();
+}
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import com.google.inject.Singleton;
+
+/**
+ * Records the enactment metrics in memory. Snapshots can be taken at any point
+ * of the enactment.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentMetricsInMemory implements EnactmentMetrics {
+
+  protected final long startTime = System.nanoTime();
+  protected final Map<String, LongAdder> messageCounts = new ConcurrentHashMap<>();
+  protected final Map<String, LatencyHistogram> timers = new ConcurrentHashMap<>();
+  protected final Map<String, AtomicInteger> queueLengths = new ConcurrentHashMap<>();
+
+  @Override
+  public void countMessage(final String address) {
+    messageCounts.computeIfAbsent(address, a -> new LongAdder()).increment();
+  }
+
+  @Override
+  public void recordTime(final String timerName, final long durationNanos) {
+    timers.computeIfAbsent(timerName, t -> new LatencyHistogram()).record(durationNanos);
+  }
+
+  @Override
+  public void setQueueLength(final String queueName, final int length) {
+    queueLengths.computeIfAbsent(queueName, q -> new AtomicInteger()).set(length);
+  }
+
+  @Override
+  public MetricsSnapshot getSnapshot() {
+    final Map<String, Long> counts = new HashMap<>();
+    messageCounts.forEach((address, adder) -> counts.put(address, adder.sum()));
+    final Map<String, TimerSummary> timerSummaries = new HashMap<>();
+    timers.forEach((name, histogram) -> timerSummaries.put(name, histogram.getSummary()));
+    final Map<String, Integer> lengths = new HashMap<>();
+    queueLengths.forEach((name, length) -> lengths.put(name, length.get()));
+    return new MetricsSnapshot(System.nanoTime() - startTime, counts, timerSummaries, lengths);
+  }
+}
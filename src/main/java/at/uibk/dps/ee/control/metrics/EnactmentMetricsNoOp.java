@@ -0,0 +1,34 @@
+package at.uibk.dps.ee.control.metrics;
+
+import java.util.HashMap;
+import com.google.inject.Singleton;
+
+/**
+ * Metrics implementation which does not record anything (used when metrics are
+ * disabled).
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class EnactmentMetricsNoOp implements EnactmentMetrics {
+
+  @Override
+  public void countMessage(final String address) {
+    // metrics disabled
+  }
+
+  @Override
+  public void recordTime(final String timerName, final long durationNanos) {
+    // metrics disabled
+  }
+
+  @Override
+  public void setQueueLength(final String queueName, final int length) {
+    // metrics disabled
+  }
+
+  @Override
+  public MetricsSnapshot getSnapshot() {
+    return new MetricsSnapshot(0, new HashMap<>(), new HashMap<>(), new HashMap<>());
+  }
+}
@@ -0,0 +1,120 @@
+package at.uibk.dps.ee.control.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of durations with buckets of exponentially growing size
+ * (bucket i contains the durations d with 2^i <= d < 2^(i+1) nanoseconds).
+ * Percentiles are reported as the upper bound of the bucket where they fall.
+ * 
+ * @author Fedor Smirnov
+ */
+public class LatencyHistogram {
+
+  protected static final int bucketNumber = Long.SIZE;
+
+  protected final AtomicLongArray buckets = new AtomicLongArray(bucketNumber);
+  protected final LongAdder count = new LongAdder();
+  protected final LongAdder sum = new LongAdder();
+  protected final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records the given duration.
+   * 
+   * @param durationNanos the duration in nanoseconds
+   */
+  public void record(final long durationNanos) {
+    final long duration = Math.max(0, durationNanos);
+    buckets.incrementAndGet(getBucket(duration));
+    count.increment();
+    sum.add(duration);
+    max.accumulateAndGet(duration, Math::max);
+  }
+
+  /**
+   * Returns a summary of the durations recorded so far.
+   * 
+   * @return a summary of the durations recorded so far
+   */
+  public TimerSummary getSummary() {
+    final long[] bucketCounts = snapshotBuckets();
+    final long total = Arrays.stream(bucketCounts).sum();
+    final long maxValue = max.get();
+    final double mean = total == 0 ? 0 : (double) sum.sum() / count.sum();
+    return new TimerSummary(total, mean, getPercentile(bucketCounts, total, 0.5, maxValue),
+        getPercentile(bucketCounts, total, 0.99, maxValue), maxValue);
+  }
+
+  /**
+   * Returns the number of recorded durations.
+   * 
+   * @return the number of recorded durations
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * Returns the (bucket upper bound of the) given quantile of the durations
+   * recorded so far.
+   * 
+   * @param quantile the quantile (between 0 and 1)
+   * @return the given quantile in nanoseconds
+   */
+  public long getQuantile(final double quantile) {
+    final long[] bucketCounts = snapshotBuckets();
+    return getPercentile(bucketCounts, Arrays.stream(bucketCounts).sum(), quantile, max.get());
+  }
+
+  /**
+   * Returns a copy of the current bucket counts.
+   * 
+   * @return a copy of the current bucket counts
+   */
+  protected long[] snapshotBuckets() {
+    final long[] bucketCounts = new long[bucketNumber];
+    for (int i = 0; i < bucketNumber; i++) {
+      bucketCounts[i] = buckets.get(i);
+    }
+    return bucketCounts;
+  }
+
+  /**
+   * Returns the bucket of the given duration.
+   * 
+   * @param duration the duration
+   * @return the index of the bucket of the given duration
+   */
+  protected static int getBucket(final long duration) {
+    return duration == 0 ? 0 : Long.SIZE - 1 - Long.numberOfLeadingZeros(duration);
+  }
+
+  /**
+   * Returns the upper bound of the bucket containing the given quantile.
+   * 
+   * @param bucketCounts the counts of the buckets
+   * @param total the overall count
+   * @param quantile the quantile (between 0 and 1)
+   * @param maxValue the maximal recorded value
+   * @return the upper bound of the bucket containing the given quantile
+   */
+  protected static long getPercentile(final long[] bucketCounts, final long total,
+      final double quantile, final long maxValue) {
+    if (total == 0) {
+      return 0;
+    }
+    final long rank = (long) Math.ceil(quantile * total);
+    long cumulated = 0;
+    for (int i = 0; i < bucketCounts.length; i++) {
+      cumulated += bucketCounts[i];
+      if (cumulated >= rank) {
+        final long upperBound = i >= Long.SIZE - 2 ? Long.MAX_VALUE : (2L << i) - 1;
+        return Math.min(upperBound, maxValue);
+      }
+    }
+    return maxValue;
+  }
+}
@@ -0,0 +1,99 @@
+package at.uibk.dps.ee.control.metrics;
+
+/**
+ * Static container for the names of the recorded metrics.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class MetricNames {
+
+  // timers
+  public static final String prefixHandler = "handler.";
+  public static final String prefixLockWait = "lockWait.";
+  public static final String timerEnactment = "enactment";
+  public static final String timerScheduling = "scheduling";
+
+  // queues
+  public static final String prefixPauseQueue = "pauseQueue.";
+  public static final String queueWaitingList = "waitingList";
+  public static final String queueAdmission = "admissionQueue";
+  public static final String prefixCapacityUsage = "capacityUsage.";
+
+  // counters (counted like messages)
+  public static final String prefixCapacityContention = "capacityContention.";
+  public static final String counterSpeculativeLaunches = "speculativeLaunches";
+  public static final String counterSpeculativeWins = "speculativeWins";
+  public static final String counterRetries = "retries";
+  public static final String counterTimeouts = "timeouts";
+  public static final String prefixStalls = "stalls.";
+
+  /**
+   * No constructor.
+   */
+  private MetricNames() {}
+
+  /**
+   * Returns the name of the timer measuring the handler time for the given
+   * address.
+   * 
+   * @param address the trigger address of the handler
+   * @return the name of the timer measuring the handler time
+   */
+  public static String handlerTimer(final String address) {
+    return prefixHandler + address;
+  }
+
+  /**
+   * Returns the name of the timer measuring the wait time for the given lock.
+   * 
+   * @param lockName the name of the lock
+   * @return the name of the timer measuring the wait time for the given lock
+   */
+  public static String lockWaitTimer(final String lockName) {
+    return prefixLockWait + lockName;
+  }
+
+  /**
+   * Returns the name of the pause queue of the verticles with the given trigger
+   * address.
+   * 
+   * @param address the trigger address
+   * @return the name of the pause queue
+   */
+  public static String pauseQueue(final String address) {
+    return prefixPauseQueue + address;
+  }
+
+  /**
+   * Returns the name of the queue tracking the number of tasks using the given
+   * resource.
+   * 
+   * @param resId the ID of the resource
+   * @return the name of the queue tracking the capacity usage
+   */
+  public static String capacityUsage(final String resId) {
+    return prefixCapacityUsage + resId;
+  }
+
+  /**
+   * Returns the name of the counter of the failed CAS attempts when updating the
+   * capacity usage of the given resource.
+   * 
+   * @param resId the ID of the resource
+   * @return the name of the contention counter
+   */
+  public static String capacityContention(final String resId) {
+    return prefixCapacityContention + resId;
+  }
+
+  /**
+   * Returns the name of the counter of the event loop stalls caused by the given
+   * handler.
+   * 
+   * @param handler the name of the handler
+   * @return the name of the stall counter
+   */
+  public static String stalls(final String handler) {
+    return prefixStalls + handler;
+  }
+}
@@ -0,0 +1,63 @@
+package at.uibk.dps.ee.control.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the enactment metrics.
+ * 
+ * @author Fedor Smirnov
+ */
+public class MetricsSnapshot {
+
+  protected final long elapsedNanos;
+  protected final Map<String, Long> messageCounts;
+  protected final Map<String, TimerSummary> timers;
+  protected final Map<String, Integer> queueLengths;
+
+  /**
+   * Default constructor.
+   * 
+   * @param elapsedNanos the time since the start of the recording
+   * @param messageCounts the number of messages per address
+   * @param timers the summaries of the timers
+   * @param queueLengths the current queue lengths
+   */
+  public MetricsSnapshot(final long elapsedNanos, final Map<String, Long> messageCounts,
+      final Map<String, TimerSummary> timers, final Map<String, Integer> queueLengths) {
+    this.elapsedNanos = elapsedNanos;
+    this.messageCounts = Collections.unmodifiableMap(messageCounts);
+    this.timers = Collections.unmodifiableMap(timers);
+    this.queueLengths = Collections.unmodifiableMap(queueLengths);
+  }
+
+  /**
+   * Returns the rate (messages per second) of the messages received on the given
+   * address.
+   * 
+   * @param address the event bus address
+   * @return the message rate of the given address
+   */
+  public double getMessageRate(final String address) {
+    if (elapsedNanos == 0) {
+      return 0;
+    }
+    return messageCounts.getOrDefault(address, 0L) * 1e9 / elapsedNanos;
+  }
+
+  public long getElapsedNanos() {
+    return elapsedNanos;
+  }
+
+  public Map<String, Long> getMessageCounts() {
+    return messageCounts;
+  }
+
+  public Map<String, TimerSummary> getTimers() {
+    return timers;
+  }
+
+  public Map<String, Integer> getQueueLengths() {
+    return queueLengths;
+  }
+}
@@ -0,0 +1,162 @@
+package at.uibk.dps.ee.control.metrics;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.opt4j.core.start.Constant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.vertx.core.Context;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link StallDetector} detects the handlers which block an event loop
+ * thread for longer than the configured threshold. The handlers register
+ * their execution on the event loop; a watchdog thread periodically checks the
+ * running executions and reports (once per execution) the handler and the
+ * task causing each stall.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class StallDetector {
+
+  /**
+   * Handle for a tracked execution, closed when the execution is finished.
+   *
+   * @author Fedor Smirnov
+   */
+  public interface Tracking extends AutoCloseable {
+    @Override
+    void close();
+  }
+
+  /**
+   * The state of a tracked handler execution.
+   *
+   * @author Fedor Smirnov
+   */
+  protected static class Execution {
+    protected final String handler;
+    protected final String taskId;
+    protected final long startNanos;
+    protected boolean reported;
+
+    protected Execution(final String handler, final String taskId, final long startNanos) {
+      this.handler = handler;
+      this.taskId = taskId;
+      this.startNanos = startNanos;
+    }
+  }
+
+  protected static final Tracking noTracking = () -> {
+    // nothing tracked
+  };
+
+  protected final long thresholdNanos;
+  protected final Map<Thread, Execution> executions = new ConcurrentHashMap<>();
+  protected ScheduledExecutorService watchdog;
+  protected EnactmentMetrics metrics = new EnactmentMetricsNoOp();
+
+  protected final Logger logger = LoggerFactory.getLogger(StallDetector.class);
+
+  /**
+   * Injection constructor.
+   *
+   * @param thresholdInMs the time (in ms) from which on a handler execution is
+   *        reported as stall (0 to disable the detection)
+   */
+  @Inject
+  public StallDetector(@Constant(namespace = StallDetector.class,
+      value = "thresholdInMs") final int thresholdInMs) {
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdInMs);
+  }
+
+  /**
+   * Sets the metrics recorder used to count the stalls.
+   *
+   * @param metrics the metrics recorder
+   */
+  @Inject
+  public void setMetrics(final EnactmentMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Starts tracking the execution of the given handler on the current thread.
+   * Executions on threads other than event loop threads are not tracked.
+   *
+   * @param handler the name of the handler
+   * @param task the task processed by the handler
+   * @return the handle to close when the execution is finished
+   */
+  public Tracking track(final String handler, final Task task) {
+    if (thresholdNanos <= 0 || !Context.isOnEventLoopThread()) {
+      return noTracking;
+    }
+    startWatchdog();
+    final Thread thread = Thread.currentThread();
+    final Execution previous =
+        executions.put(thread, new Execution(handler, task.getId(), System.nanoTime()));
+    // nested executions hand the thread back to the enclosing one
+    return () -> {
+      if (previous == null) {
+        executions.remove(thread);
+      } else {
+        executions.put(thread, previous);
+      }
+    };
+  }
+
+  /**
+   * Starts the watchdog thread (on the first tracked execution).
+   */
+  protected synchronized void startWatchdog() {
+    if (watchdog != null) {
+      return;
+    }
+    watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "apollo-stall-detector");
+      thread.setDaemon(true);
+      return thread;
+    });
+    final long period = Math.max(1, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 2);
+    watchdog.scheduleAtFixedRate(this::checkExecutions, period, period, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Reports the executions which are running for longer than the threshold and
+   * were not reported yet.
+   */
+  protected void checkExecutions() {
+    final long now = System.nanoTime();
+    executions.forEach((thread, execution) -> {
+      if (!execution.reported && now - execution.startNanos >= thresholdNanos) {
+        execution.reported = true;
+        reportStall(thread, execution, now - execution.startNanos);
+      }
+    });
+  }
+
+  /**
+   * Reports the stall caused by the given execution.
+   *
+   * @param thread the blocked thread
+   * @param execution the execution blocking the thread
+   * @param blockedNanos the time the thread is blocked for
+   */
+  protected void reportStall(final Thread thread, final Execution execution,
+      final long blockedNanos) {
+    logger.warn("Thread {} blocked for {} ms by handler {} processing task {}.", thread.getName(),
+        TimeUnit.NANOSECONDS.toMillis(blockedNanos), execution.handler, execution.taskId);
+    if (logger.isDebugEnabled()) {
+      logger.debug("Stack of the blocked thread: {}", Arrays.toString(thread.getStackTrace()));
+    }
+    metrics.countMessage(MetricNames.stalls(execution.handler));
+  }
+}
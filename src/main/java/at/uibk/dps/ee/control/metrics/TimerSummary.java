@@ -0,0 +1,59 @@
+package at.uibk.dps.ee.control.metrics;
+
+/**
+ * Summary of the durations recorded by a timer.
+ * 
+ * @author Fedor Smirnov
+ */
+public class TimerSummary {
+
+  protected final long count;
+  protected final double meanNanos;
+  protected final long p50Nanos;
+  protected final long p99Nanos;
+  protected final long maxNanos;
+
+  /**
+   * Default constructor.
+   * 
+   * @param count the number of recorded durations
+   * @param meanNanos the mean duration
+   * @param p50Nanos the median duration (bucket upper bound)
+   * @param p99Nanos the 99th percentile of the durations (bucket upper bound)
+   * @param maxNanos the maximal duration
+   */
+  public TimerSummary(final long count, final double meanNanos, final long p50Nanos,
+      final long p99Nanos, final long maxNanos) {
+    this.count = count;
+    this.meanNanos = meanNanos;
+    this.p50Nanos = p50Nanos;
+    this.p99Nanos = p99Nanos;
+    this.maxNanos = maxNanos;
+  }
+
+  public long getCount() {
+    return count;
+  }
+
+  public double getMeanNanos() {
+    return meanNanos;
+  }
+
+  public long getP50Nanos() {
+    return p50Nanos;
+  }
+
+  public long getP99Nanos() {
+    return p99Nanos;
+  }
+
+  public long getMaxNanos() {
+    return maxNanos;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d mean=%.0fns p50=%dns p99=%dns max=%dns", count, meanNanos,
+        p50Nanos, p99Nanos, maxNanos);
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to record metrics of the enactment (message
+ * rates, handler times, lock waits, and queue lengths) while it is running.
+ */
+package at.uibk.dps.ee.control.metrics;
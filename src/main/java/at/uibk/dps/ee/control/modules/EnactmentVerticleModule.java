@@ -4,13 +4,36 @@ import org.opt4j.core.config.annotations.Info;
 import org.opt4j.core.config.annotations.Order;
 import org.opt4j.core.start.Constant;
 import at.uibk.dps.ee.control.command.Control;
+import at.uibk.dps.ee.control.enactment.EnactmentAdmission;
+import at.uibk.dps.ee.control.enactment.ResourceFreedCoalescer;
+import at.uibk.dps.ee.control.enactment.RetryPolicy;
+import at.uibk.dps.ee.control.enactment.SpeculativeExecution;
 import at.uibk.dps.ee.control.enactment.WorkerEnactment;
 import at.uibk.dps.ee.control.extraction.WorkerExtraction;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.failure.FailureHandlerLocalized;
 import at.uibk.dps.ee.control.init.InitializerDelayedExecution;
+import at.uibk.dps.ee.control.locks.EnactmentLockProvider;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderVertX;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.metrics.EnactmentMetrics;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsInMemory;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsNoOp;
+import at.uibk.dps.ee.control.metrics.StallDetector;
+import at.uibk.dps.ee.control.offload.InvocationExecutor;
+import at.uibk.dps.ee.control.offload.InvocationExecutorEventLoop;
+import at.uibk.dps.ee.control.offload.InvocationExecutorPooled;
+import at.uibk.dps.ee.control.offload.InvocationExecutorVirtual;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
+import at.uibk.dps.ee.control.scheduling.ScheduleMemoization;
+import at.uibk.dps.ee.control.scheduling.SchedulingBatcher;
 import at.uibk.dps.ee.control.scheduling.WorkerScheduling;
 import at.uibk.dps.ee.control.transformation.WorkerTransformation;
 import at.uibk.dps.ee.control.transmission.WorkerTransmission;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.control.verticles.VerticleFunction;
+import at.uibk.dps.ee.control.verticles.VerticleFunctionFused;
 import at.uibk.dps.ee.control.verticles.VerticleManager;
 import at.uibk.dps.ee.core.CoreFunction;
 import io.vertx.core.impl.cpu.CpuCoreSensor;
@@ -23,6 +46,42 @@ import io.vertx.core.impl.cpu.CpuCoreSensor;
  */
 public class EnactmentVerticleModule extends VerticleModule {
 
+  /**
+   * The types of locks used to synchronize the verticles.
+   * 
+   * @author Fedor Smirnov
+   */
+  public enum LockType {
+    /**
+     * Locks which are only valid within the current JVM.
+     */
+    Local,
+    /**
+     * The locks of the VertX shared data (cluster-wide for clustered VertX).
+     */
+    Cluster
+  }
+
+  /**
+   * The threads used to perform the function invocations.
+   * 
+   * @author Fedor Smirnov
+   */
+  public enum ExecutionMode {
+    /**
+     * Invocations performed on the event loop of the enactment verticle.
+     */
+    EventLoop,
+    /**
+     * Invocations performed on a pool with a bounded number of threads.
+     */
+    BoundedPool,
+    /**
+     * Invocations performed on virtual threads (if supported by the JVM).
+     */
+    VirtualThreads
+  }
+
   @Order(1)
   @Info("If checked, the EE will be initially in the PAUSED state.")
   @Constant(namespace = Control.class, value = "pauseOnStart")
@@ -38,9 +97,186 @@ public class EnactmentVerticleModule extends VerticleModule {
   @Constant(namespace = InitializerDelayedExecution.class, value = "delayInSeconds")
   protected int delayInSeconds;
 
+  @Order(4)
+  @Info("Number of lock stripes used to synchronize transmissions and graph transformations.")
+  @Constant(namespace = LockStriping.class, value = "stripeNumber")
+  protected int stripeNumber = 64;
+
+  @Order(5)
+  @Info("The type of the locks used to synchronize the verticles. Local locks can only be "
+      + "used if all verticles run in the same JVM.")
+  protected LockType lockType = LockType.Local;
+
+  @Order(6)
+  @Info("If checked, tasks are passed between the verticles as task handles (via a local "
+      + "codec) instead of task IDs. Saves the task lookups, but only for local event buses.")
+  @Constant(namespace = TaskMessenger.class, value = "localTaskCodec")
+  protected boolean localTaskCodec;
+
+  @Order(7)
+  @Info("If checked, the transmission, the scheduling, and the enactment launch of the tasks "
+      + "are passed on without the event bus: as direct calls if an instance of the next worker "
+      + "runs on the same event loop, otherwise by handing the task over to the context of an "
+      + "instance.")
+  protected boolean fusedPipeline;
+
+  @Order(8)
+  @Info("If checked, the verticles record metrics (message rates, handler times, lock waits, "
+      + "and queue lengths) which can be queried while the enactment is running.")
+  protected boolean recordMetrics;
+
+  @Order(9)
+  @Info("Time window (in ms) within which the notifications about freed resources are merged "
+      + "into a single arbitration per resource. With 0, the notifications of one event loop "
+      + "iteration are merged.")
+  @Constant(namespace = ResourceFreedCoalescer.class, value = "windowInMs")
+  protected int resFreedWindowInMs;
+
+  @Order(10)
+  @Info("Time window (in ms) within which the schedulable tasks are collected and scheduled as "
+      + "a batch. Schedulers without batch support query the scheduler once per original task "
+      + "of the batch. With 0, each task is scheduled separately.")
+  @Constant(namespace = SchedulingBatcher.class, value = "windowInMs")
+  protected int schedulingBatchWindowInMs;
+
+  @Order(11)
+  @Info("If checked, the distribution offspring and the while replicas are mapped to the "
+      + "resources chosen for their original task (unless these have a limited capacity).")
+  @Constant(namespace = ScheduleMemoization.class, value = "enabled")
+  protected boolean scheduleMemoization;
+
+  @Order(12)
+  @Info("Capacities of the resources accounted for with lock-free counters, as comma-separated "
+      + "list of resourceId=capacity pairs. If set, the capacity of these resources is taken and "
+      + "released without the capacity lock (and should not be limited in the scheduler).")
+  @Constant(namespace = ResourceCapacityTracker.class, value = "capacities")
+  protected String trackedCapacities = "";
+
+  @Order(13)
+  @Info("Maximal number of concurrent enactments (0 for no limit).")
+  @Constant(namespace = EnactmentAdmission.class, value = "globalLimit")
+  protected int enactmentLimitGlobal;
+
+  @Order(14)
+  @Info("Maximal number of concurrent enactments per resource (0 for no limit).")
+  @Constant(namespace = EnactmentAdmission.class, value = "resourceLimit")
+  protected int enactmentLimitPerResource;
+
+  @Order(15)
+  @Info("Maximal number of concurrent enactments per function, i.e., of a task together with "
+      + "its distribution offspring and while replicas (0 for no limit).")
+  @Constant(namespace = EnactmentAdmission.class, value = "functionLimit")
+  protected int enactmentLimitPerFunction;
+
+  @Order(16)
+  @Info("Maximal number of launches queued due to the enactment limits. Further launches fail.")
+  @Constant(namespace = EnactmentAdmission.class, value = "queueCapacity")
+  protected int launchQueueCapacity = 100000;
+
+  @Order(17)
+  @Info("Percentile of the observed runtimes of a function after which a duplicate of a "
+      + "running enactment is launched on an alternative mapping (0 to disable).")
+  @Constant(namespace = SpeculativeExecution.class, value = "percentile")
+  protected int speculationPercentile;
+
+  @Order(18)
+  @Info("Number of runtimes which have to be observed for a function before its enactments "
+      + "are considered for the speculative execution.")
+  @Constant(namespace = SpeculativeExecution.class, value = "minSamples")
+  protected int speculationMinSamples = 20;
+
+  @Order(19)
+  @Info("Timeout (in ms) of the function invocations (0 for no timeout).")
+  @Constant(namespace = RetryPolicy.class, value = "timeoutInMs")
+  protected int invocationTimeoutInMs;
+
+  @Order(20)
+  @Info("Number of times a failed (or timed out) invocation is retried.")
+  @Constant(namespace = RetryPolicy.class, value = "maxRetries")
+  protected int maxRetries;
+
+  @Order(21)
+  @Info("Backoff (in ms) before the first retry; doubled for each further retry.")
+  @Constant(namespace = RetryPolicy.class, value = "backoffBaseInMs")
+  protected int backoffBaseInMs = 100;
+
+  @Order(22)
+  @Info("Maximal backoff (in ms) between two retries.")
+  @Constant(namespace = RetryPolicy.class, value = "backoffMaxInMs")
+  protected int backoffMaxInMs = 10000;
+
+  @Order(23)
+  @Info("If checked, retries are performed on an alternative mapping (if available).")
+  @Constant(namespace = RetryPolicy.class, value = "rescheduleOnRetry")
+  protected boolean rescheduleOnRetry;
+
+  @Order(24)
+  @Info("Per-function timeouts and retry numbers, as comma-separated list of "
+      + "taskId=timeoutInMs:maxRetries entries.")
+  @Constant(namespace = RetryPolicy.class, value = "overrides")
+  protected String retryOverrides = "";
+
+  @Order(25)
+  @Info("If checked, the failed enactment of a task results in the reset of the graph part "
+      + "depending on the task and a re-launch of the task (instead of a shutdown).")
+  protected boolean localizedFailureHandling;
+
+  @Order(26)
+  @Info("Number of times a failed task is re-launched before the enactment is aborted.")
+  @Constant(namespace = FailureHandlerLocalized.class, value = "maxAttempts")
+  protected int maxFailureAttempts = 3;
+
+  @Order(27)
+  @Info("The threads performing the function invocations. Blocking functions should not be "
+      + "invoked on the event loop.")
+  protected ExecutionMode executionMode = ExecutionMode.EventLoop;
+
+  @Order(28)
+  @Info("Number of threads used for the invocations if executed on a bounded pool (also the "
+      + "fallback if virtual threads are not supported).")
+  @Constant(namespace = InvocationExecutorPooled.class, value = "poolSize")
+  protected int invocationPoolSize = 64;
+
+  @Order(29)
+  @Info("If checked, the graph modifications of the transformations are performed on the "
+      + "worker pool, so that large transformations do not block the event loop. Operations "
+      + "reading the graph in the meantime are continued once the modification is finished.")
+  @Constant(namespace = WorkerTransformation.class, value = "offloadTransformations")
+  protected boolean offloadTransformations;
+
+  @Order(30)
+  @Info("Time (in ms) from which on a handler blocking an event loop thread is reported "
+      + "together with the processed task (0 to disable the detection).")
+  @Constant(namespace = StallDetector.class, value = "thresholdInMs")
+  protected int stallThresholdInMs;
+
   @Override
   protected void config() {
-    bind(CoreFunction.class).to(VerticleFunction.class);
+    if (fusedPipeline) {
+      bind(CoreFunction.class).to(VerticleFunctionFused.class);
+    } else {
+      bind(CoreFunction.class).to(VerticleFunction.class);
+    }
+    if (localizedFailureHandling) {
+      bind(FailureHandler.class).to(FailureHandlerLocalized.class);
+    }
+    if (lockType.equals(LockType.Local)) {
+      bind(EnactmentLockProvider.class).to(EnactmentLockProviderLocal.class);
+    } else {
+      bind(EnactmentLockProvider.class).to(EnactmentLockProviderVertX.class);
+    }
+    if (executionMode.equals(ExecutionMode.BoundedPool)) {
+      bind(InvocationExecutor.class).to(InvocationExecutorPooled.class);
+    } else if (executionMode.equals(ExecutionMode.VirtualThreads)) {
+      bind(InvocationExecutor.class).to(InvocationExecutorVirtual.class);
+    } else {
+      bind(InvocationExecutor.class).to(InvocationExecutorEventLoop.class);
+    }
+    if (recordMetrics) {
+      bind(EnactmentMetrics.class).to(EnactmentMetricsInMemory.class);
+    } else {
+      bind(EnactmentMetrics.class).to(EnactmentMetricsNoOp.class);
+    }
     // worker handlers
     addEBusVerticle(WorkerTransmission.class);
     addEBusVerticle(WorkerScheduling.class);
@@ -77,4 +313,220 @@ public class EnactmentVerticleModule extends VerticleModule {
   public void setDelayInSeconds(final int delayInSeconds) {
     this.delayInSeconds = delayInSeconds;
   }
+
+  public int getStripeNumber() {
+    return stripeNumber;
+  }
+
+  public void setStripeNumber(final int stripeNumber) {
+    this.stripeNumber = stripeNumber;
+  }
+
+  public LockType getLockType() {
+    return lockType;
+  }
+
+  public void setLockType(final LockType lockType) {
+    this.lockType = lockType;
+  }
+
+  public boolean isLocalTaskCodec() {
+    return localTaskCodec;
+  }
+
+  public void setLocalTaskCodec(final boolean localTaskCodec) {
+    this.localTaskCodec = localTaskCodec;
+  }
+
+  public boolean isFusedPipeline() {
+    return fusedPipeline;
+  }
+
+  public void setFusedPipeline(final boolean fusedPipeline) {
+    this.fusedPipeline = fusedPipeline;
+  }
+
+  public boolean isRecordMetrics() {
+    return recordMetrics;
+  }
+
+  public void setRecordMetrics(final boolean recordMetrics) {
+    this.recordMetrics = recordMetrics;
+  }
+
+  public int getResFreedWindowInMs() {
+    return resFreedWindowInMs;
+  }
+
+  public void setResFreedWindowInMs(final int resFreedWindowInMs) {
+    this.resFreedWindowInMs = resFreedWindowInMs;
+  }
+
+  public int getSchedulingBatchWindowInMs() {
+    return schedulingBatchWindowInMs;
+  }
+
+  public void setSchedulingBatchWindowInMs(final int schedulingBatchWindowInMs) {
+    this.schedulingBatchWindowInMs = schedulingBatchWindowInMs;
+  }
+
+  public boolean isScheduleMemoization() {
+    return scheduleMemoization;
+  }
+
+  public void setScheduleMemoization(final boolean scheduleMemoization) {
+    this.scheduleMemoization = scheduleMemoization;
+  }
+
+  public String getTrackedCapacities() {
+    return trackedCapacities;
+  }
+
+  public void setTrackedCapacities(final String trackedCapacities) {
+    this.trackedCapacities = trackedCapacities;
+  }
+
+  public int getEnactmentLimitGlobal() {
+    return enactmentLimitGlobal;
+  }
+
+  public void setEnactmentLimitGlobal(final int enactmentLimitGlobal) {
+    this.enactmentLimitGlobal = enactmentLimitGlobal;
+  }
+
+  public int getEnactmentLimitPerResource() {
+    return enactmentLimitPerResource;
+  }
+
+  public void setEnactmentLimitPerResource(final int enactmentLimitPerResource) {
+    this.enactmentLimitPerResource = enactmentLimitPerResource;
+  }
+
+  public int getEnactmentLimitPerFunction() {
+    return enactmentLimitPerFunction;
+  }
+
+  public void setEnactmentLimitPerFunction(final int enactmentLimitPerFunction) {
+    this.enactmentLimitPerFunction = enactmentLimitPerFunction;
+  }
+
+  public int getLaunchQueueCapacity() {
+    return launchQueueCapacity;
+  }
+
+  public void setLaunchQueueCapacity(final int launchQueueCapacity) {
+    this.launchQueueCapacity = launchQueueCapacity;
+  }
+
+  public int getSpeculationPercentile() {
+    return speculationPercentile;
+  }
+
+  public void setSpeculationPercentile(final int speculationPercentile) {
+    this.speculationPercentile = speculationPercentile;
+  }
+
+  public int getSpeculationMinSamples() {
+    return speculationMinSamples;
+  }
+
+  public void setSpeculationMinSamples(final int speculationMinSamples) {
+    this.speculationMinSamples = speculationMinSamples;
+  }
+
+  public int getInvocationTimeoutInMs() {
+    return invocationTimeoutInMs;
+  }
+
+  public void setInvocationTimeoutInMs(final int invocationTimeoutInMs) {
+    this.invocationTimeoutInMs = invocationTimeoutInMs;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public void setMaxRetries(final int maxRetries) {
+    this.maxRetries = maxRetries;
+  }
+
+  public int getBackoffBaseInMs() {
+    return backoffBaseInMs;
+  }
+
+  public void setBackoffBaseInMs(final int backoffBaseInMs) {
+    this.backoffBaseInMs = backoffBaseInMs;
+  }
+
+  public int getBackoffMaxInMs() {
+    return backoffMaxInMs;
+  }
+
+  public void setBackoffMaxInMs(final int backoffMaxInMs) {
+    this.backoffMaxInMs = backoffMaxInMs;
+  }
+
+  public boolean isRescheduleOnRetry() {
+    return rescheduleOnRetry;
+  }
+
+  public void setRescheduleOnRetry(final boolean rescheduleOnRetry) {
+    this.rescheduleOnRetry = rescheduleOnRetry;
+  }
+
+  public String getRetryOverrides() {
+    return retryOverrides;
+  }
+
+  public void setRetryOverrides(final String retryOverrides) {
+    this.retryOverrides = retryOverrides;
+  }
+
+  public boolean isLocalizedFailureHandling() {
+    return localizedFailureHandling;
+  }
+
+  public void setLocalizedFailureHandling(final boolean localizedFailureHandling) {
+    this.localizedFailureHandling = localizedFailureHandling;
+  }
+
+  public int getMaxFailureAttempts() {
+    return maxFailureAttempts;
+  }
+
+  public void setMaxFailureAttempts(final int maxFailureAttempts) {
+    this.maxFailureAttempts = maxFailureAttempts;
+  }
+
+  public ExecutionMode getExecutionMode() {
+    return executionMode;
+  }
+
+  public void setExecutionMode(final ExecutionMode executionMode) {
+    this.executionMode = executionMode;
+  }
+
+  public int getInvocationPoolSize() {
+    return invocationPoolSize;
+  }
+
+  public void setInvocationPoolSize(final int invocationPoolSize) {
+    this.invocationPoolSize = invocationPoolSize;
+  }
+
+  public boolean isOffloadTransformations() {
+    return offloadTransformations;
+  }
+
+  public void setOffloadTransformations(final boolean offloadTransformations) {
+    this.offloadTransformations = offloadTransformations;
+  }
+
+  public int getStallThresholdInMs() {
+    return stallThresholdInMs;
+  }
+
+  public void setStallThresholdInMs(final int stallThresholdInMs) {
+    this.stallThresholdInMs = stallThresholdInMs;
+  }
 }
@@ -0,0 +1,35 @@
+package at.uibk.dps.ee.control.offload;
+
+import java.util.function.Supplier;
+import com.google.inject.ImplementedBy;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+
+/**
+ * Interface for the classes defining the threads on which the function
+ * invocations (which may block the calling thread) are performed.
+ * 
+ * @author Fedor Smirnov
+ */
+@ImplementedBy(InvocationExecutorEventLoop.class)
+public interface InvocationExecutor {
+
+  /**
+   * Executes the given invocation. The returned future is completed on the
+   * given context.
+   * 
+   * @param <T> the type of the invocation result
+   * @param invocation the invocation to execute
+   * @param context the context of the calling verticle
+   * @return future completed with the result of the invocation
+   */
+  <T> Future<T> execute(Supplier<Future<T>> invocation, Context context);
+
+  /**
+   * Releases the threads of the executor when the engine is torn down. The
+   * invocations which are already running are finished.
+   */
+  default void close() {
+    // no own threads by default
+  }
+}
@@ -0,0 +1,29 @@
+package at.uibk.dps.ee.control.offload;
+
+import io.vertx.core.AbstractVerticle;
+
+/**
+ * The {@link InvocationExecutorCloser} is deployed once per engine, next to the
+ * workers sharing the invocation executor. It closes the executor when it is
+ * undeployed, i.e., when the engine is torn down.
+ *
+ * @author Fedor Smirnov
+ */
+public class InvocationExecutorCloser extends AbstractVerticle {
+
+  protected final InvocationExecutor invocationExecutor;
+
+  /**
+   * Default constructor.
+   *
+   * @param invocationExecutor the executor shared by the enactment workers
+   */
+  public InvocationExecutorCloser(final InvocationExecutor invocationExecutor) {
+    this.invocationExecutor = invocationExecutor;
+  }
+
+  @Override
+  public void stop() throws Exception {
+    invocationExecutor.close();
+  }
+}
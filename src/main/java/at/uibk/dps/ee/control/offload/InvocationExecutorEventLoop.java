@@ -0,0 +1,19 @@
+package at.uibk.dps.ee.control.offload;
+
+import java.util.function.Supplier;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+
+/**
+ * The {@link InvocationExecutorEventLoop} performs the invocations directly on
+ * the thread of the calling verticle.
+ * 
+ * @author Fedor Smirnov
+ */
+public class InvocationExecutorEventLoop implements InvocationExecutor {
+
+  @Override
+  public <T> Future<T> execute(final Supplier<Future<T>> invocation, final Context context) {
+    return invocation.get();
+  }
+}
@@ -0,0 +1,89 @@
+package at.uibk.dps.ee.control.offload;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+
+/**
+ * The {@link InvocationExecutorPooled} performs the invocations on a dedicated
+ * pool with a bounded number of threads. The invocation results are handed
+ * back to the context of the calling verticle.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class InvocationExecutorPooled implements InvocationExecutor {
+
+  protected final ExecutorService executor;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param poolSize the maximal number of threads used for the invocations
+   */
+  @Inject
+  public InvocationExecutorPooled(@Constant(namespace = InvocationExecutorPooled.class,
+      value = "poolSize") final int poolSize) {
+    this(createBoundedPool(poolSize));
+  }
+
+  /**
+   * Constructor used to configure the executor service.
+   * 
+   * @param executor the executor service performing the invocations
+   */
+  protected InvocationExecutorPooled(final ExecutorService executor) {
+    this.executor = executor;
+  }
+
+  @Override
+  public <T> Future<T> execute(final Supplier<Future<T>> invocation, final Context context) {
+    final Promise<T> resultPromise = Promise.promise();
+    executor.execute(() -> {
+      try {
+        invocation.get()
+            .onComplete(asyncRes -> context.runOnContext(v -> resultPromise.handle(asyncRes)));
+      } catch (Throwable exc) {
+        // an error would otherwise leave the result pending
+        context.runOnContext(v -> resultPromise.fail(exc));
+      }
+    });
+    return resultPromise.future();
+  }
+
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Creates a pool with the given number of (daemon) threads. Idle threads are
+   * terminated.
+   * 
+   * @param poolSize the number of threads
+   * @return the executor service of the pool
+   */
+  protected static ExecutorService createBoundedPool(final int poolSize) {
+    final AtomicInteger threadIndex = new AtomicInteger();
+    final ThreadFactory threadFactory = runnable -> {
+      final Thread thread =
+          new Thread(runnable, "apollo-invocation-" + threadIndex.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    };
+    final ThreadPoolExecutor pool = new ThreadPoolExecutor(poolSize, poolSize, 60,
+        TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+    pool.allowCoreThreadTimeOut(true);
+    return pool;
+  }
+}
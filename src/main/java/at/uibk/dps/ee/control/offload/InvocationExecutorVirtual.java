@@ -0,0 +1,55 @@
+package at.uibk.dps.ee.control.offload;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.opt4j.core.start.Constant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * The {@link InvocationExecutorVirtual} performs each invocation on its own
+ * virtual thread, so that blocking invocations do not occupy platform threads.
+ * Virtual threads are created via reflection (the project is compiled for Java
+ * 11); on JVMs without virtual threads, a bounded pool is used instead.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class InvocationExecutorVirtual extends InvocationExecutorPooled {
+
+  protected static final String virtualFactoryMethod = "newVirtualThreadPerTaskExecutor";
+
+  protected static final Logger logger = LoggerFactory.getLogger(InvocationExecutorVirtual.class);
+
+  /**
+   * Injection constructor.
+   * 
+   * @param poolSize the number of threads of the pool used if virtual threads are
+   *        not supported
+   */
+  @Inject
+  public InvocationExecutorVirtual(@Constant(namespace = InvocationExecutorPooled.class,
+      value = "poolSize") final int poolSize) {
+    super(createVirtualExecutor(poolSize));
+  }
+
+  /**
+   * Creates an executor starting a virtual thread for each task or, if virtual
+   * threads are not supported, a bounded pool with the given size.
+   * 
+   * @param poolSize the size of the fallback pool
+   * @return the executor service
+   */
+  protected static ExecutorService createVirtualExecutor(final int poolSize) {
+    try {
+      return (ExecutorService) Executors.class.getMethod(virtualFactoryMethod).invoke(null);
+    } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException exc) {
+      logger.warn("Virtual threads not supported by the JVM; using a pool of {} threads.",
+          poolSize);
+      return createBoundedPool(poolSize);
+    }
+  }
+}
@@ -0,0 +1,5 @@
+/**
+ * Package for the classes used to run (potentially blocking) operations outside
+ * of the vertX event loops.
+ */
+package at.uibk.dps.ee.control.offload;
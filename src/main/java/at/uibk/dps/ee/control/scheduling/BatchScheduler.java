@@ -0,0 +1,30 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.List;
+import java.util.Set;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * Interface for the schedulers which can schedule a batch of tasks within a
+ * single request (e.g., to query the resource graph once per batch or to
+ * consider the placement of all tasks of the batch at once).
+ * 
+ * @author Fedor Smirnov
+ */
+public interface BatchScheduler extends Scheduler {
+
+  /**
+   * Schedules the given tasks.
+   * 
+   * @param tasks the tasks to schedule
+   * @return a list with one future for each given task (in the order of the
+   *         given tasks), completed with the mappings chosen for the task or
+   *         failed (e.g., with a capacity limit exception) if the task could
+   *         not be scheduled
+   */
+  List<Future<Set<Mapping<Task, Resource>>>> scheduleTasks(List<Task> tasks);
+}
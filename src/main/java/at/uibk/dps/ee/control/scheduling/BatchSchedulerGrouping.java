@@ -0,0 +1,92 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import at.uibk.dps.ee.control.verticles.TaskLineage;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.properties.PropertyServiceResource;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link BatchSchedulerGrouping} is the batch variant of a scheduler which
+ * schedules the tasks one by one. The tasks of a batch are grouped by their
+ * original task (typically the offspring of a distribution becoming
+ * schedulable at the same time). The scheduler is queried once per group, and
+ * the resources it chooses are used for the remaining tasks of the group.
+ * Tasks for which this is not possible (the query failed, the chosen resources
+ * have a limited capacity, or the task cannot be mapped to all of them) are
+ * scheduled separately.
+ *
+ * @author Fedor Smirnov
+ */
+public class BatchSchedulerGrouping implements BatchScheduler {
+
+  protected final Scheduler scheduler;
+  protected final MappingsConcurrent mappings;
+
+  /**
+   * Default constructor.
+   *
+   * @param scheduler the scheduler used for the individual queries
+   * @param mappings the mapping options of the tasks
+   */
+  public BatchSchedulerGrouping(final Scheduler scheduler, final MappingsConcurrent mappings) {
+    this.scheduler = scheduler;
+    this.mappings = mappings;
+  }
+
+  @Override
+  public Future<Set<Mapping<Task, Resource>>> scheduleTask(final Task task) {
+    return scheduler.scheduleTask(task);
+  }
+
+  @Override
+  public List<Future<Set<Mapping<Task, Resource>>>> scheduleTasks(final List<Task> tasks) {
+    final Map<String, Future<Set<Mapping<Task, Resource>>>> groupResults = new HashMap<>();
+    final List<Future<Set<Mapping<Task, Resource>>>> result = new ArrayList<>();
+    for (final Task task : tasks) {
+      final String originalId = TaskLineage.getOriginalId(task);
+      final Future<Set<Mapping<Task, Resource>>> groupResult = groupResults.get(originalId);
+      if (groupResult == null) {
+        final Future<Set<Mapping<Task, Resource>>> scheduled = scheduler.scheduleTask(task);
+        groupResults.put(originalId, scheduled);
+        result.add(scheduled);
+      } else {
+        result.add(groupResult.compose(chosen -> deriveSchedule(task, chosen),
+            failure -> scheduler.scheduleTask(task)));
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Maps the given task to the resources chosen for another task of its group.
+   * Queries the scheduler if this is not possible.
+   *
+   * @param task the task to schedule
+   * @param groupSchedule the mappings chosen for the other task of the group
+   * @return a future completed with the mappings of the given task
+   */
+  protected Future<Set<Mapping<Task, Resource>>> deriveSchedule(final Task task,
+      final Set<Mapping<Task, Resource>> groupSchedule) {
+    final Set<Resource> targets =
+        groupSchedule.stream().map(Mapping::getTarget).collect(Collectors.toSet());
+    if (targets.isEmpty()
+        || targets.stream().anyMatch(PropertyServiceResource::hasLimitedCapacity)) {
+      return scheduler.scheduleTask(task);
+    }
+    final Set<Mapping<Task, Resource>> derived = mappings.getMappings(task).stream()
+        .filter(m -> targets.contains(m.getTarget())).collect(Collectors.toSet());
+    final long coveredTargets = derived.stream().map(Mapping::getTarget).distinct().count();
+    return coveredTargets == targets.size() ? Future.succeededFuture(derived)
+        : scheduler.scheduleTask(task);
+  }
+}
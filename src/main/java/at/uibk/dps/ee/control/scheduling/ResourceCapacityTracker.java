@@ -0,0 +1,220 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.metrics.EnactmentMetrics;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsNoOp;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link ResourceCapacityTracker} accounts for the capacity of the
+ * resources with an atomic usage counter per resource. Taking and releasing
+ * capacity are CAS operations, so that neither the scheduling nor the
+ * post-enactment treatment have to acquire the (cluster-wide) capacity lock.
+ * Failed CAS attempts are counted as contention metric.
+ * 
+ * The tracker is only used if capacities are configured (as a comma-separated
+ * list of resourceId=capacity pairs). Resources without a configured capacity
+ * are not limited by the tracker.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ResourceCapacityTracker {
+
+  protected final Map<String, Integer> capacities;
+  protected final Map<String, AtomicInteger> usage = new ConcurrentHashMap<>();
+
+  protected EnactmentMetrics metrics = new EnactmentMetricsNoOp();
+
+  /**
+   * Injection constructor
+   * 
+   * @param capacities the capacities of the tracked resources, as a
+   *        comma-separated list of resourceId=capacity pairs (empty to disable
+   *        the tracker)
+   */
+  @Inject
+  public ResourceCapacityTracker(@Constant(namespace = ResourceCapacityTracker.class,
+      value = "capacities") final String capacities) {
+    this.capacities = parseCapacities(capacities);
+  }
+
+  /**
+   * Sets the metrics recorder.
+   * 
+   * @param metrics the metrics recorder
+   */
+  @Inject
+  public void setMetrics(final EnactmentMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Returns true iff capacities are configured, i.e., iff the tracker is used
+   * for the capacity accounting.
+   * 
+   * @return true iff capacities are configured
+   */
+  public boolean isEnabled() {
+    return !capacities.isEmpty();
+  }
+
+  /**
+   * Returns true iff the capacity of the given resource is tracked.
+   * 
+   * @param res the given resource
+   * @return true iff the capacity of the given resource is tracked
+   */
+  public boolean isTracked(final Resource res) {
+    return capacities.containsKey(res.getId());
+  }
+
+  /**
+   * Takes one capacity unit of each of the given resources. Either all units are
+   * taken or none.
+   * 
+   * @param resources the resources to take the capacity from
+   * @return true iff the capacity was taken
+   */
+  public boolean tryAcquireAll(final Collection<Resource> resources) {
+    final List<Resource> acquired = new ArrayList<>();
+    for (final Resource res : resources) {
+      if (tryAcquire(res)) {
+        acquired.add(res);
+      } else {
+        releaseAll(acquired);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Takes one capacity unit of the given resource.
+   * 
+   * @param res the given resource
+   * @return true iff the capacity was taken (always true for resources which
+   *         are not tracked)
+   */
+  public boolean tryAcquire(final Resource res) {
+    final Integer capacity = capacities.get(res.getId());
+    if (capacity == null) {
+      return true;
+    }
+    final AtomicInteger counter = getCounter(res);
+    while (true) {
+      final int current = counter.get();
+      if (current >= capacity) {
+        return false;
+      }
+      if (counter.compareAndSet(current, current + 1)) {
+        metrics.setQueueLength(MetricNames.capacityUsage(res.getId()), current + 1);
+        return true;
+      }
+      metrics.countMessage(MetricNames.capacityContention(res.getId()));
+    }
+  }
+
+  /**
+   * Releases one capacity unit of each of the given resources.
+   * 
+   * @param resources the given resources
+   */
+  public void releaseAll(final Collection<Resource> resources) {
+    resources.forEach(this::release);
+  }
+
+  /**
+   * Releases one capacity unit of the given resource.
+   * 
+   * @param res the given resource
+   */
+  public void release(final Resource res) {
+    if (!isTracked(res)) {
+      return;
+    }
+    final AtomicInteger counter = getCounter(res);
+    while (true) {
+      final int current = counter.get();
+      if (current == 0) {
+        throw new IllegalStateException("Release of unused resource " + res.getId());
+      }
+      if (counter.compareAndSet(current, current - 1)) {
+        metrics.setQueueLength(MetricNames.capacityUsage(res.getId()), current - 1);
+        return;
+      }
+      metrics.countMessage(MetricNames.capacityContention(res.getId()));
+    }
+  }
+
+  /**
+   * Returns the number of capacity units of the given resource currently in
+   * use.
+   * 
+   * @param res the given resource
+   * @return the number of capacity units in use
+   */
+  public int getUsage(final Resource res) {
+    return getCounter(res).get();
+  }
+
+  /**
+   * Returns the resources whose capacity is used by the given schedule (the
+   * targets of the mappings without negligible workload).
+   * 
+   * @param taskSchedule the mappings chosen for a task
+   * @return the resources whose capacity is used by the given schedule
+   */
+  public static Set<Resource> getUsedResources(final Set<Mapping<Task, Resource>> taskSchedule) {
+    return taskSchedule.stream() //
+        .filter(m -> !PropertyServiceFunction.hasNegligibleWorkload(m.getSource())) //
+        .map(Mapping::getTarget) //
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * Returns the usage counter of the given resource.
+   * 
+   * @param res the given resource
+   * @return the usage counter of the given resource
+   */
+  protected AtomicInteger getCounter(final Resource res) {
+    return usage.computeIfAbsent(res.getId(), id -> new AtomicInteger());
+  }
+
+  /**
+   * Parses the configured capacities.
+   * 
+   * @param capacities comma-separated list of resourceId=capacity pairs
+   * @return map of the resource IDs to their capacities
+   */
+  protected static Map<String, Integer> parseCapacities(final String capacities) {
+    final Map<String, Integer> result = new HashMap<>();
+    if (capacities == null || capacities.isBlank()) {
+      return result;
+    }
+    for (final String entry : capacities.split(",")) {
+      final String[] pair = entry.split("=");
+      if (pair.length != 2) {
+        throw new IllegalArgumentException("Malformed capacity entry: " + entry);
+      }
+      result.put(pair[0].trim(), Integer.parseInt(pair[1].trim()));
+    }
+    return result;
+  }
+}
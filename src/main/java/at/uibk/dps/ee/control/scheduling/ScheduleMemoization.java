@@ -0,0 +1,86 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.control.verticles.TaskLineage;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceResource;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link ScheduleMemoization} remembers the resources chosen for the
+ * original tasks of the enactment graph. The offspring of distribution
+ * transformations and the replicas of while loops (tasks with a parent link to
+ * an original task) are then mapped to the same resources without querying the
+ * scheduler. Decisions involving resources with limited capacity are not
+ * reused, since the capacity has to be checked by the scheduler.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ScheduleMemoization {
+
+  protected final boolean enabled;
+  protected final MappingsConcurrent mappings;
+  protected final Map<String, Set<Resource>> decisions = new ConcurrentHashMap<>();
+
+  /**
+   * Injection constructor
+   * 
+   * @param specProvider the specification provider
+   * @param enabled true iff the scheduling decisions are to be reused
+   */
+  @Inject
+  public ScheduleMemoization(final SpecificationProvider specProvider,
+      @Constant(namespace = ScheduleMemoization.class, value = "enabled") final boolean enabled) {
+    this.mappings = specProvider.getMappings();
+    this.enabled = enabled;
+  }
+
+  /**
+   * Returns the mappings derived from the decision memorized for the original of
+   * the given task. Returns an empty optional if the memoization is disabled, if
+   * no decision was memorized, if the decision involves resources with limited
+   * capacity, or if the given task has no mappings to the memorized resources.
+   * 
+   * @param task the task to schedule
+   * @return the mappings derived from the memorized decision
+   */
+  public Optional<Set<Mapping<Task, Resource>>> lookUp(final Task task) {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    final Set<Resource> targets = decisions.get(TaskLineage.getOriginalId(task));
+    if (targets == null
+        || targets.stream().anyMatch(PropertyServiceResource::hasLimitedCapacity)) {
+      return Optional.empty();
+    }
+    final Set<Mapping<Task, Resource>> result = mappings.getMappings(task).stream()
+        .filter(m -> targets.contains(m.getTarget())).collect(Collectors.toSet());
+    final long coveredTargets = result.stream().map(Mapping::getTarget).distinct().count();
+    return coveredTargets == targets.size() ? Optional.of(result) : Optional.empty();
+  }
+
+  /**
+   * Memorizes the decision made by the scheduler for the given task (if no
+   * decision was memorized for its original yet).
+   * 
+   * @param task the scheduled task
+   * @param chosenMappings the mappings chosen by the scheduler
+   */
+  public void memorize(final Task task, final Set<Mapping<Task, Resource>> chosenMappings) {
+    if (enabled && !chosenMappings.isEmpty()) {
+      decisions.putIfAbsent(TaskLineage.getOriginalId(task),
+          chosenMappings.stream().map(Mapping::getTarget).collect(Collectors.toSet()));
+    }
+  }
+}
@@ -0,0 +1,174 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link SchedulingBatcher} is the front-end used by the scheduling
+ * verticles to access the scheduler. If a batching window is configured, the
+ * tasks becoming schedulable within the window are collected and scheduled with
+ * a single batch request. Schedulers which do not implement the
+ * {@link BatchScheduler} interface are wrapped into a
+ * {@link BatchSchedulerGrouping}. Without a window, each task is scheduled with
+ * a separate call.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class SchedulingBatcher {
+
+  /**
+   * A scheduling request waiting for the next batch.
+   * 
+   * @author Fedor Smirnov
+   */
+  protected static class PendingRequest {
+    protected final Task task;
+    protected final Promise<Set<Mapping<Task, Resource>>> promise;
+    protected final Context context;
+
+    /**
+     * Default constructor.
+     * 
+     * @param task the task to schedule
+     * @param promise the promise to complete with the mappings of the task
+     * @param context the context of the requester (null if not requested from a
+     *        vertX thread)
+     */
+    protected PendingRequest(final Task task,
+        final Promise<Set<Mapping<Task, Resource>>> promise, final Context context) {
+      this.task = task;
+      this.promise = promise;
+      this.context = context;
+    }
+
+    /**
+     * Completes the request with the given result on the context of the
+     * requester.
+     * 
+     * @param result the scheduling result of the task
+     */
+    protected void complete(final AsyncResult<Set<Mapping<Task, Resource>>> result) {
+      if (context == null) {
+        promise.handle(result);
+      } else {
+        context.runOnContext(nothing -> promise.handle(result));
+      }
+    }
+  }
+
+  protected final Scheduler scheduler;
+  protected final BatchScheduler batchScheduler;
+  protected final Vertx vertx;
+  protected final int windowInMs;
+
+  protected final List<PendingRequest> pending = new ArrayList<>();
+
+  /**
+   * Injection constructor
+   * 
+   * @param scheduler the scheduler
+   * @param specProvider the specification provider
+   * @param vProv the vertx provider
+   * @param windowInMs the time window (in ms) used to collect the tasks of a
+   *        batch; 0 to schedule each task separately
+   */
+  @Inject
+  public SchedulingBatcher(final Scheduler scheduler, final SpecificationProvider specProvider,
+      final VertxProvider vProv, @Constant(namespace = SchedulingBatcher.class,
+          value = "windowInMs") final int windowInMs) {
+    this.scheduler = scheduler;
+    this.batchScheduler = scheduler instanceof BatchScheduler ? (BatchScheduler) scheduler
+        : new BatchSchedulerGrouping(scheduler, specProvider.getMappings());
+    this.vertx = vProv.getVertx();
+    this.windowInMs = windowInMs;
+  }
+
+  /**
+   * Schedules the given task, either directly or as part of the next batch. The
+   * future is completed on the context of the caller.
+   * 
+   * @param task the task to schedule
+   * @return a future completed with the mappings chosen for the task
+   */
+  public Future<Set<Mapping<Task, Resource>>> scheduleTask(final Task task) {
+    if (windowInMs <= 0) {
+      return scheduler.scheduleTask(task);
+    }
+    final Promise<Set<Mapping<Task, Resource>>> promise = Promise.promise();
+    final boolean firstInBatch;
+    synchronized (pending) {
+      firstInBatch = pending.isEmpty();
+      pending.add(new PendingRequest(task, promise, Vertx.currentContext()));
+    }
+    if (firstInBatch) {
+      vertx.setTimer(windowInMs, timerId -> scheduleBatch());
+    }
+    return promise.future();
+  }
+
+  /**
+   * Drops the requests collected for the next batch (e.g., for a new
+   * enactment). The futures of the dropped requests are failed with a
+   * {@link CancellationException}.
+   */
+  public void reset() {
+    final List<PendingRequest> dropped;
+    synchronized (pending) {
+      dropped = new ArrayList<>(pending);
+      pending.clear();
+    }
+    final Future<Set<Mapping<Task, Resource>>> cancellation = Future.failedFuture(
+        new CancellationException("Scheduling request dropped by the enactment reset."));
+    dropped.forEach(request -> request.complete(cancellation));
+  }
+
+  /**
+   * Schedules the tasks collected since the last batch with a single request. A
+   * task requested multiple times within the batch is scheduled once, and all
+   * its requests are completed with the same result.
+   */
+  protected void scheduleBatch() {
+    final Map<Task, List<PendingRequest>> batch = new LinkedHashMap<>();
+    synchronized (pending) {
+      pending.forEach(request -> batch
+          .computeIfAbsent(request.task, task -> new ArrayList<>()).add(request));
+      pending.clear();
+    }
+    if (batch.isEmpty()) {
+      return;
+    }
+    final List<Task> tasks = new ArrayList<>(batch.keySet());
+    final List<Future<Set<Mapping<Task, Resource>>>> results =
+        batchScheduler.scheduleTasks(tasks);
+    if (results.size() != tasks.size()) {
+      final Future<Set<Mapping<Task, Resource>>> failure =
+          Future.failedFuture(new IllegalStateException("Batch scheduler returned "
+              + results.size() + " results for " + tasks.size() + " tasks."));
+      batch.values().forEach(requests -> requests.forEach(request -> request.complete(failure)));
+      return;
+    }
+    for (int i = 0; i < tasks.size(); i++) {
+      final List<PendingRequest> requests = batch.get(tasks.get(i));
+      results.get(i).onComplete(result -> requests.forEach(request -> request.complete(result)));
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import com.google.inject.Singleton;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link WaitingTaskIndex} contains the tasks which could not be scheduled
+ * due to capacity limitations. It is shared by all scheduling verticles and
+ * indexes the waiting tasks by the resources they can be mapped to, so that the
+ * candidates for a freed resource are found without scanning all waiting
+ * tasks.
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class WaitingTaskIndex {
+
+  protected final Map<Resource, Set<Task>> tasksPerResource = new HashMap<>();
+  protected final Map<Task, Set<Resource>> resourcesPerTask = new HashMap<>();
+
+  /**
+   * Adds the given task, waiting for one of the given resources.
+   * 
+   * @param task the waiting task
+   * @param resources the resources the task can be mapped to
+   */
+  public synchronized void add(final Task task, final Collection<Resource> resources) {
+    resourcesPerTask.computeIfAbsent(task, t -> new HashSet<>()).addAll(resources);
+    resources.forEach(
+        res -> tasksPerResource.computeIfAbsent(res, r -> new LinkedHashSet<>()).add(task));
+  }
+
+  /**
+   * Removes and returns the tasks waiting for the given resource (in the order
+   * in which they were added).
+   * 
+   * @param res the given resource
+   * @return the tasks which were waiting for the given resource
+   */
+  public synchronized List<Task> removeCandidates(final Resource res) {
+    final Set<Task> candidates = tasksPerResource.remove(res);
+    if (candidates == null) {
+      return new ArrayList<>();
+    }
+    for (final Task candidate : candidates) {
+      for (final Resource otherRes : resourcesPerTask.remove(candidate)) {
+        final Set<Task> otherTasks = tasksPerResource.get(otherRes);
+        if (otherTasks != null) {
+          otherTasks.remove(candidate);
+          if (otherTasks.isEmpty()) {
+            tasksPerResource.remove(otherRes);
+          }
+        }
+      }
+    }
+    return new ArrayList<>(candidates);
+  }
+
+  /**
+   * Removes all waiting tasks.
+   */
+  public synchronized void clear() {
+    tasksPerResource.clear();
+    resourcesPerTask.clear();
+  }
+
+  /**
+   * Returns true iff the given task is waiting.
+   * 
+   * @param task the given task
+   * @return true iff the given task is waiting
+   */
+  public synchronized boolean contains(final Task task) {
+    return resourcesPerTask.containsKey(task);
+  }
+
+  /**
+   * Returns the number of waiting tasks.
+   * 
+   * @return the number of waiting tasks
+   */
+  public synchronized int size() {
+    return resourcesPerTask.size();
+  }
+
+  /**
+   * Returns true iff no tasks are waiting.
+   * 
+   * @return true iff no tasks are waiting
+   */
+  public synchronized boolean isEmpty() {
+    return resourcesPerTask.isEmpty();
+  }
+}
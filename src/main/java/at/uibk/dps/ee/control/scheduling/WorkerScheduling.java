@@ -1,20 +1,25 @@
 package at.uibk.dps.ee.control.scheduling;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.inject.Inject;
+import at.uibk.dps.ee.control.locks.EnactmentLockProvider;
+import at.uibk.dps.ee.control.metrics.MetricNames;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.control.verticles.VerticleApollo;
 import at.uibk.dps.ee.control.verticles.WorkerException;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.arbitration.ResourceArbiter;
 import at.uibk.dps.sc.core.capacity.CapacityLimitException;
-import at.uibk.dps.sc.core.scheduler.Scheduler;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.shareddata.Lock;
 import net.sf.opendse.model.Mapping;
@@ -30,10 +35,14 @@ import net.sf.opendse.model.Task;
 public class WorkerScheduling extends VerticleApollo {
 
   protected final ScheduleModel schedule;
-  protected final Scheduler scheduler;
+  protected final SchedulingBatcher scheduler;
   protected final ResourceArbiter arbiter;
+  protected final EnactmentLockProvider lockProvider;
+  protected final TaskMessenger taskMessenger;
 
-  protected final List<Task> waitingTasks;
+  protected final WaitingTaskIndex waitingTasks;
+  protected final ScheduleMemoization memoization;
+  protected final ResourceCapacityTracker capacityTracker;
 
   protected final Logger logger = LoggerFactory.getLogger(WorkerScheduling.class);
 
@@ -42,17 +51,32 @@ public class WorkerScheduling extends VerticleApollo {
    * 
    * @param specProvider the specification provider
    * @param schedule the schedule model
-   * @param scheduler the scheduler
+   * @param scheduler the front-end of the scheduler (batching the tasks if
+   *        configured)
+   * @param arbiter the arbiter prioritizing the waiting tasks
+   * @param lockProvider provides the lock for the waiting list
+   * @param taskMessenger used to send the scheduled tasks
+   * @param waitingTasks the tasks waiting for free resources (shared by all
+   *        scheduling verticles)
+   * @param memoization reuses the decisions made for the original tasks
+   * @param capacityTracker accounts for the capacity of the resources
    */
   @Inject
   public WorkerScheduling(final SpecificationProvider specProvider, final ScheduleModel schedule,
-      final Scheduler scheduler, final ResourceArbiter arbiter) {
+      final SchedulingBatcher scheduler, final ResourceArbiter arbiter,
+      final EnactmentLockProvider lockProvider, final TaskMessenger taskMessenger,
+      final WaitingTaskIndex waitingTasks, final ScheduleMemoization memoization,
+      final ResourceCapacityTracker capacityTracker) {
     super(ConstantsVertX.addressTaskSchedulable, ConstantsVertX.addressTaskLaunchable,
         ConstantsVertX.addressFailureAbort, specProvider);
     this.schedule = schedule;
     this.scheduler = scheduler;
     this.arbiter = arbiter;
-    this.waitingTasks = new ArrayList<>();
+    this.lockProvider = lockProvider;
+    this.taskMessenger = taskMessenger;
+    this.waitingTasks = waitingTasks;
+    this.memoization = memoization;
+    this.capacityTracker = capacityTracker;
   }
 
   @Override
@@ -68,8 +92,11 @@ public class WorkerScheduling extends VerticleApollo {
    */
   protected void processFreedResource(final Message<String> resMessage) {
     final Resource freedRes = rGraph.getVertex(resMessage.body());
-    this.vertx.sharedData().getLock(ConstantsVertX.waitingListLock, lockRes -> {
+    final long lockRequest = System.nanoTime();
+    lockProvider.getLock(ConstantsVertX.waitingListLock).onComplete(lockRes -> {
       if (lockRes.succeeded()) {
+        metrics.recordTime(MetricNames.lockWaitTimer(ConstantsVertX.waitingListLock),
+            System.nanoTime() - lockRequest);
         final Lock waitingListLock = lockRes.result();
         considerWaiting(freedRes);
         waitingListLock.release();
@@ -85,17 +112,18 @@ public class WorkerScheduling extends VerticleApollo {
    * @param res the given resource (which was just freed)
    */
   protected void considerWaiting(final Resource res) {
-    final List<Task> relevant = waitingTasks.stream() //
-        .filter(t -> mappings.getMappings(t).stream() //
-            .anyMatch(m -> m.getTarget().equals(res))) //
-        .collect(Collectors.toList());
+    final List<Task> relevant = waitingTasks.removeCandidates(res);
     if (!relevant.isEmpty()) {
       try {
-        final List<Task> prioList = arbiter.prioritizeTasks(relevant, res);
+        final List<Task> prioList = arbiter.prioritizeTasks(new ArrayList<>(relevant), res);
+        // tasks not chosen by the arbiter keep waiting
+        final Set<Task> chosen = new HashSet<>(prioList);
+        relevant.stream().filter(t -> !chosen.contains(t))
+            .forEach(t -> waitingTasks.add(t, getTargetResources(t)));
+        metrics.setQueueLength(MetricNames.queueWaitingList, waitingTasks.size());
         for (final Task taskToSchedule : prioList) {
           logger.debug("Attempting to schedule Task {} from the wait list.",
               taskToSchedule.getId());
-          waitingTasks.remove(taskToSchedule);
           work(taskToSchedule);
         }
       } catch (WorkerException e) {
@@ -104,19 +132,42 @@ public class WorkerScheduling extends VerticleApollo {
     }
   }
 
+  /**
+   * Returns the resources which the given task can be mapped to.
+   * 
+   * @param task the given task
+   * @return the resources which the given task can be mapped to
+   */
+  protected Set<Resource> getTargetResources(final Task task) {
+    return mappings.getMappings(task).stream().map(Mapping::getTarget)
+        .collect(Collectors.toSet());
+  }
+
   @Override
   protected void work(final Task schedulableTask) throws WorkerException {
     if (schedule.isScheduled(schedulableTask)) {
       throw new WorkerException("Task " + schedulableTask.getId() + " already scheduled.");
     }
+    final Optional<Set<Mapping<Task, Resource>>> memorized =
+        memoization.lookUp(schedulableTask);
+    if (memorized.isPresent()) {
+      processChosenMappings(schedulableTask, memorized.get());
+      return;
+    }
+    final long schedulingStart = System.nanoTime();
     scheduler.scheduleTask(schedulableTask).onComplete(asyncRes -> {
+      metrics.recordTime(MetricNames.timerScheduling, System.nanoTime() - schedulingStart);
       if (asyncRes.succeeded()) {
+        memoization.memorize(schedulableTask, asyncRes.result());
         processChosenMappings(schedulableTask, asyncRes.result());
       } else {
         if (asyncRes.cause() instanceof CapacityLimitException) {
           final Task waiting = ((CapacityLimitException) asyncRes.cause()).getUnscheduledTask();
           logger.debug("Task {} added to waiting list.", schedulableTask.getId());
-          waitingTasks.add(waiting);
+          waitingTasks.add(waiting, getTargetResources(waiting));
+          metrics.setQueueLength(MetricNames.queueWaitingList, waitingTasks.size());
+        } else if (asyncRes.cause() instanceof CancellationException) {
+          logger.debug("Scheduling of task {} cancelled.", schedulableTask.getId());
         } else {
           throw new IllegalArgumentException("Async scheduling call failed.");
         }
@@ -132,8 +183,43 @@ public class WorkerScheduling extends VerticleApollo {
    */
   protected void processChosenMappings(final Task task,
       final Set<Mapping<Task, Resource>> chosenMappings) {
+    final Set<Resource> usedResources = ResourceCapacityTracker.getUsedResources(chosenMappings);
+    if (capacityTracker.tryAcquireAll(usedResources)) {
+      launchTask(task, chosenMappings);
+      return;
+    }
+    // the capacity may be released (and the waiting tasks reconsidered) before
+    // the task is enqueued, so that the task has to be enqueued while holding
+    // the lock of the waiting list and after trying the acquisition once more
+    final long lockRequest = System.nanoTime();
+    lockProvider.getLock(ConstantsVertX.waitingListLock).onComplete(lockRes -> {
+      if (lockRes.failed()) {
+        throw new IllegalStateException("Failed to acquire waiting list lock");
+      }
+      metrics.recordTime(MetricNames.lockWaitTimer(ConstantsVertX.waitingListLock),
+          System.nanoTime() - lockRequest);
+      final Lock waitingListLock = lockRes.result();
+      if (capacityTracker.tryAcquireAll(usedResources)) {
+        waitingListLock.release();
+        launchTask(task, chosenMappings);
+      } else {
+        logger.debug("Task {} added to waiting list.", task.getId());
+        waitingTasks.add(task, getTargetResources(task));
+        metrics.setQueueLength(MetricNames.queueWaitingList, waitingTasks.size());
+        waitingListLock.release();
+      }
+    });
+  }
+
+  /**
+   * Annotates the chosen mappings and sends the task to the enactment.
+   * 
+   * @param task the scheduled task
+   * @param chosenMappings the chosen mappings
+   */
+  protected void launchTask(final Task task, final Set<Mapping<Task, Resource>> chosenMappings) {
     schedule.setTaskSchedule(task, chosenMappings);
-    this.vertx.eventBus().send(successAddress, task.getId());
+    taskMessenger.send(this.vertx.eventBus(), successAddress, task);
     if (schedule.isScheduled(task)) {
       logger.debug("Thread {}; Task {} scheduled", Thread.currentThread().getId(), task.getId());
     }
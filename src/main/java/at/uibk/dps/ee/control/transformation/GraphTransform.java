@@ -1,5 +1,7 @@
 package at.uibk.dps.ee.control.transformation;
 
+import java.util.HashSet;
+import java.util.Set;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import net.sf.opendse.model.Task;
 
@@ -19,6 +21,19 @@ public interface GraphTransform {
    */
   void modifyEnactmentGraph(EnactmentGraph graph, Task taskNode);
 
+  /**
+   * Returns the tasks which are read or modified by the transformation triggered
+   * by the given task (in the current state of the graph). Transformations which
+   * cannot narrow down the affected region return all vertices of the graph.
+   * 
+   * @param graph the enactment graph
+   * @param taskNode the task triggering the modification
+   * @return the tasks which are read or modified by the transformation
+   */
+  default Set<Task> getAffectedRegion(final EnactmentGraph graph, final Task taskNode) {
+    return new HashSet<>(graph.getVertices());
+  }
+
   /**
    * Returns the name of the performed modification (for logging/exception
    * purposes).
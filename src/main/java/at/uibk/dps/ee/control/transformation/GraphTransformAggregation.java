@@ -2,14 +2,14 @@ package at.uibk.dps.ee.control.transformation;
 
 import java.util.HashSet;
 import java.util.Set;
-import java.util.stream.Collectors;
+import com.google.inject.Inject;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry.ReproductionScope;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceReproduction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
 import edu.uci.ics.jung.graph.util.EdgeType;
-import net.sf.opendse.model.Attributes;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
@@ -23,20 +23,50 @@ import net.sf.opendse.model.Task;
  */
 public class GraphTransformAggregation implements GraphTransform {
 
+  protected final ScopeRegistry scopeRegistry;
+
   /**
-   * Contains the total number of aggregations for a specific scope.
+   * Injection constructor.
+   * 
+   * @param scopeRegistry the registry of the reproduction scopes
    */
-  private int aggregationsPerScope = 0;
+  @Inject
+  public GraphTransformAggregation(final ScopeRegistry scopeRegistry) {
+    this.scopeRegistry = scopeRegistry;
+  }
 
   @Override
   public void modifyEnactmentGraph(final EnactmentGraph graph, final Task taskNode) {
     revertDistributionReproduction(graph, taskNode);
   }
 
+  @Override
+  public Set<Task> getAffectedRegion(final EnactmentGraph graph, final Task taskNode) {
+    final Set<Task> result = new HashSet<>();
+    result.add(taskNode);
+    final String scope = PropertyServiceFunctionDataFlowCollections.getScope(taskNode);
+    final ReproductionScope reproductionScope = scopeRegistry.getScope(scope);
+    if (!readyForRevert(graph, reproductionScope)) {
+      // the graph is not modified
+      return result;
+    }
+    final Set<Task> offspringTasks = new HashSet<>();
+    final Set<Dependency> offspringDependencies = new HashSet<>();
+    recSweepReproducedGraphSection(graph, reproductionScope.getDistributionNode(),
+        offspringTasks, offspringDependencies, scope);
+    result.addAll(offspringTasks);
+    offspringDependencies.forEach(dependency -> {
+      result.add(graph.getSource(dependency));
+      result.add(graph.getDest(dependency));
+    });
+    return result;
+  }
+
   /**
    * Checks whether the completion of the provided aggregation node finishes up
-   * the operations within the corresponding reproduction scope. Collapses the
-   * graph if it does.
+   * the operations within the corresponding reproduction scope (i.e., whether
+   * all aggregators of the scope have their input). Collapses the graph if it
+   * does.
    * 
    * @param graph the enactment graph
    * @param aggregationNode the finished aggregation node
@@ -44,52 +74,23 @@ public class GraphTransformAggregation implements GraphTransform {
   public void revertDistributionReproduction(final EnactmentGraph graph,
       final Task aggregationNode) {
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(aggregationNode);
-
-    // Calculate the number of aggregations in this scope
-    if(aggregationsPerScope == 0){
-      for(Task t: graph.getVertices()) {
-        if(PropertyServiceFunctionDataFlowCollections.isAggregationNode(t) && 
-		PropertyServiceFunctionDataFlowCollections.getOperationType(t).equals(OperationType.Aggregation) && 
-		PropertyServiceFunctionDataFlowCollections.getScope(t).equals(scope)){
-            aggregationsPerScope++;
-        }
-      }
-    }
-
-    // Check if last aggregation
-    if(aggregationsPerScope == 1){
-
-      if (!readyForRevert(graph, scope)) {
-        return;
-      }
-      // find the distribution node
-      final Set<Task> dNodes = graph.getVertices().stream()
-          .filter(task -> PropertyServiceFunctionDataFlowCollections.isDistributionNode(task)
-              && PropertyServiceFunctionDataFlowCollections.getScope(task).equals(scope))
-          .collect(Collectors.toSet());
-      final boolean moreThanOneDistNode = dNodes.size() > 1;
-      if (moreThanOneDistNode) {
-        throw new IllegalArgumentException("Multiple distribution nodes with the scope " + scope);
-      }
-
-      // sweep the graph to find the reproduced and the original elements
-      final Set<Task> offspringTasks = new HashSet<>();
-      final Set<Dependency> offspringDependencies = new HashSet<>();
-      final Task distributionNode = dNodes.iterator().next();
-      final Task startNode = distributionNode;
-
-      recSweepReproducedGraphSection(graph, startNode, offspringTasks, offspringDependencies, scope);
-      // add the original edges (vertices added automatically)
-
-      offspringDependencies
-          .forEach(dependency -> addOriginalEdge(graph, dependency, scope, distributionNode));
-      // remove the offsprings
-      offspringDependencies.forEach(dependency -> graph.removeEdge(dependency));
-      offspringTasks.forEach(task -> graph.removeVertex(task));
-    } else {
-      // Not the last task in aggregation
-      aggregationsPerScope--;
+    final ReproductionScope reproductionScope = scopeRegistry.getScope(scope);
+    if (!readyForRevert(graph, reproductionScope)) {
+      return;
     }
+    // sweep the graph to find the reproduced and the original elements
+    final Set<Task> offspringTasks = new HashSet<>();
+    final Set<Dependency> offspringDependencies = new HashSet<>();
+    final Task distributionNode = reproductionScope.getDistributionNode();
+    recSweepReproducedGraphSection(graph, distributionNode, offspringTasks,
+        offspringDependencies, scope);
+    // add the original edges (vertices added automatically)
+    offspringDependencies
+        .forEach(dependency -> addOriginalEdge(graph, dependency, scope, distributionNode));
+    // remove the offsprings
+    offspringDependencies.forEach(dependency -> graph.removeEdge(dependency));
+    offspringTasks.forEach(task -> graph.removeVertex(task));
+    scopeRegistry.unregister(scope);
   }
 
   /**
@@ -227,22 +228,24 @@ public class GraphTransformAggregation implements GraphTransform {
   }
 
   /**
-   * Returns true if the reproduction indicated by the provided scope is ready to
-   * be reverted (which is the case of all of its aggregators have content
-   * available).
+   * Returns true if the given reproduction scope is ready to be reverted (which
+   * is the case if the reproduction was not reverted yet and all of its
+   * aggregators have content available).
    * 
    * @param graph the enactment graph
-   * @param scope the reproduction scope
-   * @return true if the reproduction indicated by the provided scope is ready to
-   *         be reverted
+   * @param reproductionScope the nodes of the reproduction scope
+   * @return true if the given reproduction scope is ready to be reverted
    */
-  protected boolean readyForRevert(final EnactmentGraph graph, final String scope) {
-    // get the aggregators
-    final Set<Task> aggregators = graph.getVertices().stream()
-        .filter(task -> PropertyServiceFunctionDataFlowCollections.isAggregationNode(task)
-            && PropertyServiceFunctionDataFlowCollections.getScope(task).equals(scope))
-        .collect(Collectors.toSet());
-    return aggregators.stream()
+  protected boolean readyForRevert(final EnactmentGraph graph,
+      final ReproductionScope reproductionScope) {
+    final Task distributionNode = reproductionScope.getDistributionNode();
+    if (distributionNode == null || !graph.containsVertex(distributionNode)) {
+      return false;
+    }
+    // the out edges of a reverted distribution node are originals
+    final boolean reproduced = graph.getOutEdges(distributionNode).stream()
+        .anyMatch(outEdge -> outEdge.getParent() != null);
+    return reproduced && reproductionScope.getAggregators().stream()
         .allMatch(aggregator -> PropertyServiceFunction.isInputSet(aggregator));
   }
 
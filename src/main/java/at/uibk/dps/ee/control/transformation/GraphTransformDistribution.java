@@ -6,6 +6,7 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import com.google.inject.Inject;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry.ReproductionScope;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData.Property;
@@ -31,14 +32,18 @@ public class GraphTransformDistribution implements GraphTransform {
   // adjusted during reproduction
   protected final Set<String> nodeReferenceAttributes;
   protected final Set<String> edgeReferenceAttributes;
+  protected final ScopeRegistry scopeRegistry;
 
   /**
-   * Default constructor
+   * Injection constructor.
+   * 
+   * @param scopeRegistry the registry of the reproduction scopes
    */
   @Inject
-  public GraphTransformDistribution() {
+  public GraphTransformDistribution(final ScopeRegistry scopeRegistry) {
     this.nodeReferenceAttributes = generateNodeReferenceAttributes();
     this.edgeReferenceAttributes = generateEdgeReferenceAttributes();
+    this.scopeRegistry = scopeRegistry;
   }
 
   @Override
@@ -46,6 +51,43 @@ public class GraphTransformDistribution implements GraphTransform {
     applyDistributionReproduction(graph, taskNode);
   }
 
+  @Override
+  public Set<Task> getAffectedRegion(final EnactmentGraph graph, final Task taskNode) {
+    final String scope = PropertyServiceFunctionDataFlowCollections.getScope(taskNode);
+    final Set<Task> result = new HashSet<>();
+    recCollectRegion(graph, taskNode, scope, new HashSet<>(), result);
+    return result;
+  }
+
+  /**
+   * Recursive operation collecting the end points of all edges which are
+   * reproduced by the distribution operation (without annotating them).
+   * 
+   * @param graph the enactment graph
+   * @param curNode the node to check
+   * @param scope the reproduction scope
+   * @param visited the set of visited nodes
+   * @param region the end points gathered so far
+   */
+  protected void recCollectRegion(final EnactmentGraph graph, final Task curNode,
+      final String scope, final Set<Task> visited, final Set<Task> region) {
+    visited.add(curNode);
+    region.add(curNode);
+    if (PropertyServiceFunctionDataFlowCollections.isAggregationNode(curNode)
+        && PropertyServiceFunctionDataFlowCollections.getScope(curNode).equals(scope)) {
+      return;
+    }
+    if (!(PropertyServiceFunctionDataFlowCollections.isDistributionNode(curNode)
+        && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(curNode)))) {
+      region.addAll(graph.getPredecessors(curNode));
+    }
+    for (final Task dest : graph.getSuccessors(curNode)) {
+      if (!visited.contains(dest)) {
+        recCollectRegion(graph, dest, scope, visited, region);
+      }
+    }
+  }
+
   /**
    * Generates the set of edge attributes which have to be updated during
    * reproduction.
@@ -81,7 +123,8 @@ public class GraphTransformDistribution implements GraphTransform {
    * its aggregators. Creates i (i = number of parallel loop iterations) copies of
    * the subgraph in between and adds them to the graph. Each original element of
    * the graph is annotated as parent of each offspring. The parents are removed
-   * from the graph.
+   * from the graph. The nodes of the reproduction scope, as well as the scopes
+   * nested into the offspring, are registered in the scope registry.
    * 
    * @param graph the enactment graph
    * @param distributionTask the distribution task
@@ -94,22 +137,17 @@ public class GraphTransformDistribution implements GraphTransform {
 
     // reproduce each of the edges, while keeping track of the new nodes in the
     // graph
+    final Set<Task> offspring = new HashSet<>();
+    final Set<Task> aggregators = new HashSet<>();
     for (final Dependency originalEdge : edgesToReproduce) {
-      reproduceEdge(graph, originalEdge, distributionTask);
+      reproduceEdge(graph, originalEdge, distributionTask, offspring, aggregators);
     }
 
     // remove the original elements
     removeOriginalElements(graph, edgesToReproduce, scope, distributionTask);
-
-    final Set<Task> newTasks = graph.getVertices().stream()
-        .filter(task -> TaskPropertyService.isProcess(task)
-            && PropertyServiceReproduction.belongsToDistributionNode(task, distributionTask))
-        .collect(Collectors.toSet());
-    final Set<Task> aggregationNodes = newTasks.stream()
-        .filter(task -> PropertyServiceFunctionDataFlowCollections.isAggregationNode(task)
-            && scope.equals(PropertyServiceFunctionDataFlowCollections.getScope(task)))
-        .collect(Collectors.toSet());
-    newTasks.removeAll(aggregationNodes);
+    scopeRegistry.register(scope,
+        new ReproductionScope(distributionTask, aggregators, offspring));
+    scopeRegistry.registerCreated(offspring);
   }
 
 
@@ -146,9 +184,12 @@ public class GraphTransformDistribution implements GraphTransform {
    * 
    * @param originalEdge the original edge
    * @param graph the enactment graph
+   * @param distributionNode the distribution node doing the reproduction
+   * @param offspring the set to add the reproduced end points to
+   * @param aggregators the set to add the aggregation node of the scope to
    */
   protected void reproduceEdge(final EnactmentGraph graph, final Dependency originalEdge,
-      final Task distributionNode) {
+      final Task distributionNode, final Set<Task> offspring, final Set<Task> aggregators) {
     final int iterationNum =
         PropertyServiceFunctionDataFlowCollections.getIterationNumber(distributionNode);
     final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distributionNode);
@@ -165,6 +206,7 @@ public class GraphTransformDistribution implements GraphTransform {
       if (PropertyServiceReproduction.belongsToDistributionNode(originalSrc, distributionNode)) {
         // src needs to be reproduced
         offspringSrc = reproduceNode(graph, originalSrc, reproductionIdx);
+        offspring.add(offspringSrc.get());
       } else {
         // edge from distribution node
         offspringSrc = Optional.of(originalSrc);
@@ -178,11 +220,13 @@ public class GraphTransformDistribution implements GraphTransform {
           && PropertyServiceFunctionDataFlowCollections.getScope(originalDst).equals(scope)) {
         // edge to aggregation node
         offspringDst = Optional.of(originalDst);
+        aggregators.add(originalDst);
         jsonKey = ConstantsEEModel.getCollectionElementKey(ConstantsEEModel.JsonKeyAggregation,
             reproductionIdx);
       } else {
         // dst needs to be reproduced
         offspringDst = reproduceNode(graph, originalDst, reproductionIdx);
+        offspring.add(offspringDst.get());
       }
       final Dependency edgeOffspring = PropertyServiceReproduction.addDataDependencyOffspring(
           offspringSrc.get(), offspringDst.get(), jsonKey, graph, originalEdge, scope);
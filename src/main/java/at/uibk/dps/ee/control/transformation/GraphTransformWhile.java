@@ -3,6 +3,7 @@ package at.uibk.dps.ee.control.transformation;
 import java.util.HashSet;
 import java.util.Optional;
 import java.util.Set;
+import com.google.inject.Inject;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
@@ -25,6 +26,18 @@ import net.sf.opendse.model.Task;
  */
 public class GraphTransformWhile implements GraphTransform {
 
+  protected final ScopeRegistry scopeRegistry;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param scopeRegistry the registry of the reproduction scopes
+   */
+  @Inject
+  public GraphTransformWhile(final ScopeRegistry scopeRegistry) {
+    this.scopeRegistry = scopeRegistry;
+  }
+
   @Override
   public void modifyEnactmentGraph(final EnactmentGraph graph, final Task whileEnd) {
     // Get the reference to the originalWhileEnd
@@ -51,16 +64,47 @@ public class GraphTransformWhile implements GraphTransform {
     // their outEdges (contained within the while) and in-edges (potentially
     // pointing to things outside the while body)
     final Set<Task> whileBody = new HashSet<>(graph.getSuccessors(whileStartTask));
-    whileBody.forEach(toReplicate -> graph
-        .addVertex(replicateTask(toReplicate, referenceOriginalWhileEnd, originalWhileStartRef)));
+    final Set<Task> bodyReplicas = new HashSet<>();
+    whileBody.forEach(toReplicate -> {
+      final Task replica =
+          replicateTask(toReplicate, referenceOriginalWhileEnd, originalWhileStartRef);
+      graph.addVertex(replica);
+      bodyReplicas.add(replica);
+    });
     // process the out edges (add the data node replicas)
     final String whileRef = PropertyServiceFunctionUtilityWhile.getWhileStart(whileEnd);
     whileBody.forEach(toReplicate -> graph.getOutEdges(toReplicate)
         .forEach(outEdge -> processOutEdge(outEdge, graph, whileRef, originalWhileStartRef)));
+    final Set<Task> replicas = new HashSet<>(bodyReplicas);
+    bodyReplicas.forEach(replica -> replicas.addAll(graph.getSuccessors(replica)));
+    replicas.add(whileEndRep);
+    replicas.add(whileStartRep);
     // process the in edges (connect to the predecessor data nodes)
     whileBody.add(whileEnd);
     whileBody.forEach(toReplicate -> graph.getInEdges(toReplicate)
         .forEach(inEdge -> processInEdge(inEdge, graph, whileRef, originalWhileStartRef)));
+    // register the replicas with the enclosing scopes and the scopes within the
+    // replicated body
+    scopeRegistry.addReplicas(whileEnd, replicas);
+    scopeRegistry.registerCreated(replicas);
+  }
+
+  @Override
+  public Set<Task> getAffectedRegion(final EnactmentGraph graph, final Task whileEnd) {
+    final Task whileStartTask =
+        graph.getVertex(PropertyServiceFunctionUtilityWhile.getWhileStart(whileEnd));
+    final Set<Task> result = new HashSet<>();
+    result.add(whileStartTask);
+    result.add(
+        graph.getVertex(PropertyServiceFunctionUtilityWhile.getWhileCounterReference(whileEnd)));
+    final Set<Task> whileBody = new HashSet<>(graph.getSuccessors(whileStartTask));
+    whileBody.add(whileEnd);
+    whileBody.forEach(task -> {
+      result.add(task);
+      result.addAll(graph.getPredecessors(task));
+      result.addAll(graph.getSuccessors(task));
+    });
+    return result;
   }
 
   /**
@@ -1,6 +1,7 @@
 package at.uibk.dps.ee.control.transformation;
 
 import com.google.gson.JsonObject;
+import com.google.inject.Inject;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
@@ -18,6 +19,25 @@ import net.sf.opendse.model.Task;
  */
 public class GraphTransformer {
 
+  protected final ScopeRegistry scopeRegistry;
+
+  /**
+   * Default constructor (the transforms share a scope registry of their own).
+   */
+  public GraphTransformer() {
+    this(new ScopeRegistry());
+  }
+
+  /**
+   * Injection constructor.
+   * 
+   * @param scopeRegistry the registry of the reproduction scopes
+   */
+  @Inject
+  public GraphTransformer(final ScopeRegistry scopeRegistry) {
+    this.scopeRegistry = scopeRegistry;
+  }
+
   /**
    * Returns the appropriate transform operation for the given function node.
    * 
@@ -28,9 +48,9 @@ public class GraphTransformer {
     if (PropertyServiceFunction.getUsageType(functionNode).equals(UsageType.DataFlow)) {
       if (PropertyServiceFunctionDataFlowCollections.getOperationType(functionNode)
           .equals(OperationType.Distribution)) {
-        return new GraphTransformDistribution();
+        return new GraphTransformDistribution(scopeRegistry);
       } else {
-        return new GraphTransformAggregation();
+        return new GraphTransformAggregation(scopeRegistry);
       }
     } else if (PropertyServiceFunction.getUsageType(functionNode).equals(UsageType.Utility)
         && PropertyServiceFunctionUtility.getUtilityType(functionNode).equals(UtilityType.While)) {
@@ -41,7 +61,8 @@ public class GraphTransformer {
             "While decision variable not set in the while end task " + functionNode);
       }
       final boolean whileGoesOn = content.get(ConstantsEEModel.JsonKeyWhileDecision).getAsBoolean();
-      return whileGoesOn ? new GraphTransformWhile() : new GraphTransformWhileCollapse();
+      return whileGoesOn ? new GraphTransformWhile(scopeRegistry)
+          : new GraphTransformWhileCollapse();
     }
     throw new IllegalArgumentException("Unknown type of transform operation.");
   }
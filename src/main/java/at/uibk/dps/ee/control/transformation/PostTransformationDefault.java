@@ -1,7 +1,9 @@
 package at.uibk.dps.ee.control.transformation;
 
 import com.google.gson.JsonObject;
+import com.google.inject.Inject;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
@@ -19,6 +21,17 @@ import net.sf.opendse.model.Task;
 public class PostTransformationDefault implements PostTransformation {
 
   protected final String enactAddress = ConstantsVertX.addressEnactmentFinished;
+  protected final TaskMessenger taskMessenger;
+
+  /**
+   * Injection constructor.
+   * 
+   * @param taskMessenger used to send the transformed tasks
+   */
+  @Inject
+  public PostTransformationDefault(final TaskMessenger taskMessenger) {
+    this.taskMessenger = taskMessenger;
+  }
 
   @Override
   public void postTransformationTreatment(final Task transformationTriggerTask,
@@ -49,9 +62,10 @@ public class PostTransformationDefault implements PostTransformation {
     final boolean whileContinued = output.get(ConstantsEEModel.JsonKeyWhileDecision).getAsBoolean();
     if (whileContinued) {
       // just built the next iteration => enact the while end (replica)
-      eBus.send(enactAddress, whileEndTask.getId());
+      taskMessenger.send(eBus, enactAddress, whileEndTask);
     } else {
-      // while finished and collapsed => enact the original while end
+      // while finished and collapsed => enact the original while end (resolved
+      // by the receiver)
       final String originalWhileEndReference =
           PropertyServiceReproduction.getOriginalWhileEndReference(whileEndTask);
       eBus.send(enactAddress, originalWhileEndReference);
@@ -66,6 +80,6 @@ public class PostTransformationDefault implements PostTransformation {
    * @param eBus the vertX event bus
    */
   protected void postTransformParFor(final Task parallelForTask, final EventBus eBus) {
-    eBus.send(enactAddress, parallelForTask.getId());
+    taskMessenger.send(eBus, enactAddress, parallelForTask);
   }
 }
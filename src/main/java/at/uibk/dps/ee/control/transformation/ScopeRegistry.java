@@ -0,0 +1,154 @@
+package at.uibk.dps.ee.control.transformation;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link ScopeRegistry} maps the scopes of the reproductions performed by
+ * the {@link GraphTransformDistribution} onto their distribution node, their
+ * aggregators, and the offspring created by the reproduction, so that the
+ * {@link GraphTransformAggregation} does not have to scan the whole graph for
+ * the nodes of a scope. The scopes are registered by the transforms creating
+ * them (the distribution registers its own scope and the scopes nested into
+ * its offspring, the while replication the scopes within the replicated body)
+ * and removed when the reproduction is reverted.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class ScopeRegistry {
+
+  /**
+   * The nodes of a reproduction scope.
+   *
+   * @author Fedor Smirnov
+   */
+  public static class ReproductionScope {
+    protected final Task distributionNode;
+    protected final Set<Task> aggregators;
+    protected final Set<Task> offspring;
+
+    /**
+     * Default constructor.
+     *
+     * @param distributionNode the distribution node of the scope
+     * @param aggregators the aggregation nodes of the scope
+     * @param offspring the offspring tasks created by the reproduction
+     */
+    public ReproductionScope(final Task distributionNode, final Set<Task> aggregators,
+        final Set<Task> offspring) {
+      this.distributionNode = distributionNode;
+      this.aggregators = aggregators;
+      this.offspring = offspring;
+    }
+
+    public Task getDistributionNode() {
+      return distributionNode;
+    }
+
+    public Set<Task> getAggregators() {
+      return aggregators;
+    }
+
+    public Set<Task> getOffspring() {
+      return offspring;
+    }
+  }
+
+  protected final Map<String, ReproductionScope> scopes = new ConcurrentHashMap<>();
+
+  /**
+   * Registers the given reproduction scope.
+   *
+   * @param scope the scope name
+   * @param reproductionScope the nodes of the scope
+   */
+  public void register(final String scope, final ReproductionScope reproductionScope) {
+    scopes.put(scope, reproductionScope);
+  }
+
+  /**
+   * Returns the registered nodes of the given scope.
+   *
+   * @param scope the scope name
+   * @return the registered nodes of the given scope, an empty optional if the
+   *         scope is not registered
+   */
+  public Optional<ReproductionScope> getRegistered(final String scope) {
+    return Optional.ofNullable(scopes.get(scope));
+  }
+
+  /**
+   * Returns the nodes of the given scope.
+   *
+   * @param scope the scope name
+   * @return the nodes of the given scope
+   * @throws IllegalStateException if the scope is not registered
+   */
+  public ReproductionScope getScope(final String scope) {
+    return getRegistered(scope).orElseThrow(
+        () -> new IllegalStateException("Reproduction scope " + scope + " not registered."));
+  }
+
+  /**
+   * Registers the scopes of the distribution nodes among the given tasks, which
+   * were created by a transform (the offspring of an enclosing distribution or
+   * the replicas of a while body), together with the aggregators of these scopes
+   * among the given tasks. The offspring of the scopes are added when the
+   * distribution nodes perform the reproduction.
+   *
+   * @param created the tasks created by a transform
+   */
+  public void registerCreated(final Set<Task> created) {
+    final Map<String, Set<Task>> aggregators = created.stream()
+        .filter(PropertyServiceFunctionDataFlowCollections::isAggregationNode)
+        .collect(Collectors.groupingBy(PropertyServiceFunctionDataFlowCollections::getScope,
+            Collectors.toSet()));
+    created.stream().filter(PropertyServiceFunctionDataFlowCollections::isDistributionNode)
+        .forEach(distribution -> {
+          final String scope = PropertyServiceFunctionDataFlowCollections.getScope(distribution);
+          register(scope, new ReproductionScope(distribution,
+              aggregators.getOrDefault(scope, new HashSet<>()), new HashSet<>()));
+        });
+  }
+
+  /**
+   * Adds the replicas created by a while iteration to the offspring of the
+   * scopes which the replicated while end belongs to.
+   *
+   * @param whileEnd the replicated while end
+   * @param replicas the replicas created by the while iteration
+   */
+  public void addReplicas(final Task whileEnd, final Set<Task> replicas) {
+    scopes.values().stream().filter(scope -> scope.getOffspring().contains(whileEnd))
+        .forEach(scope -> scope.getOffspring().addAll(replicas));
+  }
+
+  /**
+   * Removes the given scope, together with the scopes of the distribution nodes
+   * among its offspring.
+   *
+   * @param scope the scope name
+   */
+  public void unregister(final String scope) {
+    final ReproductionScope removed = scopes.remove(scope);
+    if (removed != null) {
+      scopes.values().removeIf(
+          nested -> removed.getOffspring().contains(nested.getDistributionNode()));
+    }
+  }
+
+  /**
+   * Removes all registered scopes.
+   */
+  public void clear() {
+    scopes.clear();
+  }
+}
@@ -1,15 +1,23 @@
 package at.uibk.dps.ee.control.transformation;
 
+import java.util.HashSet;
 import java.util.Set;
+import org.opt4j.core.start.Constant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.inject.Inject;
+import at.uibk.dps.ee.control.extraction.LeafNodeTracker;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.locks.StripedLock;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.control.metrics.StallDetector.Tracking;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
 import at.uibk.dps.ee.control.verticles.VerticleApollo;
 import at.uibk.dps.ee.control.verticles.WorkerException;
 import at.uibk.dps.ee.core.ModelModificationListener;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
-import io.vertx.core.shareddata.Lock;
+import io.vertx.core.Future;
 import net.sf.opendse.model.Task;
 
 /**
@@ -22,6 +30,10 @@ public class WorkerTransformation extends VerticleApollo {
   protected final GraphTransformer transformer;
   protected final PostTransformation postTransformation;
   protected final Set<ModelModificationListener> listeners;
+  protected final PendingInputCounter pendingInputs;
+  protected final LeafNodeTracker leafNodeTracker;
+  protected final LockStriping lockStriping;
+  protected final boolean offloadTransformations;
 
   protected final Logger logger = LoggerFactory.getLogger(WorkerTransformation.class);
 
@@ -34,43 +46,142 @@ public class WorkerTransformation extends VerticleApollo {
    * @param listeners the transformation listeners
    * @param postTransformation the object performing the action to trigger the
    *        next step of the orchestration
+   * @param pendingInputs the input counters invalidated by the transformations
+   * @param leafNodeTracker the tracker of the leaf nodes updated by the
+   *        transformations
+   * @param lockStriping the locks synchronizing the access to the graph regions
+   * @param offloadTransformations if true, the graph modifications are performed
+   *        on the worker pool instead of the event loop
    */
   @Inject
   public WorkerTransformation(final SpecificationProvider specProv,
       final GraphTransformer transformer, final Set<ModelModificationListener> listeners,
-      final PostTransformation postTransformation) {
+      final PostTransformation postTransformation, final PendingInputCounter pendingInputs,
+      final LeafNodeTracker leafNodeTracker, final LockStriping lockStriping,
+      @Constant(namespace = WorkerTransformation.class,
+          value = "offloadTransformations") final boolean offloadTransformations) {
     super(ConstantsVertX.addressRequiredTransformation, ConstantsVertX.addressEnactmentFinished,
         ConstantsVertX.addressFailureAbort, specProv);
     this.transformer = transformer;
     this.listeners = listeners;
     this.postTransformation = postTransformation;
+    this.pendingInputs = pendingInputs;
+    this.leafNodeTracker = leafNodeTracker;
+    this.lockStriping = lockStriping;
+    this.offloadTransformations = offloadTransformations;
   }
 
   @Override
   protected void work(final Task transformNode) throws WorkerException {
-    this.vertx.sharedData().getLock(ConstantsVertX.transformTransmitLock, lockRes -> {
-      if (lockRes.succeeded()) {
-        final Lock lock = lockRes.result();
-        performTransformation(transformNode);
-        lock.release();
-      } else {
-        throw new IllegalStateException("Failed getting transformation annotation lock");
-      }
-    });
+    final GraphTransform transformOperation = transformer.getTransformOperation(transformNode);
+    final long lockRequest = System.nanoTime();
+    inFlight.begin();
+    lockStriping.lockRegion(() -> transformOperation.getAffectedRegion(eGraph, transformNode))
+        .onComplete(lockRes -> {
+          if (lockRes.succeeded()) {
+            metrics.recordTime(MetricNames.lockWaitTimer(ConstantsVertX.stripeLock),
+                System.nanoTime() - lockRequest);
+            final StripedLock lock = lockRes.result();
+            try (Tracking tracking = stallDetector.track(triggerAddress, transformNode)) {
+              performTransformation(transformNode, transformOperation, lock.getRegion())
+                  .onComplete(transformRes -> {
+                    lock.release();
+                    inFlight.end();
+                    if (transformRes.failed()) {
+                      logger.error("Transformation of task {} failed.", transformNode.getId(),
+                          transformRes.cause());
+                      failureHandler(transformRes.cause());
+                    }
+                  });
+            }
+          } else {
+            inFlight.end();
+            throw new IllegalStateException("Failed getting transformation annotation lock");
+          }
+        });
   }
 
   /**
-   * Performs the actual transformation.
+   * Performs the transformation while holding the lock of the affected region.
+   * The graph structure is modified with exclusive access, which does not block
+   * the event loops waiting for it: their operations are continued once the
+   * modification is finished.
    * 
    * @param transformNode the node triggerring the transformation
-   * @throws WorkerException thrown in case of transformation exceptions
+   * @param transformOperation the transform operation
+   * @param region the (locked) graph region affected by the transformation
+   * @return a future completed once the transformation is finished
    */
-  protected void performTransformation(final Task transformNode) {
-    final GraphTransform transformOperation = transformer.getTransformOperation(transformNode);
+  protected Future<Void> performTransformation(final Task transformNode,
+      final GraphTransform transformOperation, final Set<Task> region) {
+    return modifyGraph(transformNode, transformOperation, region)
+        .compose(modified -> lockStriping
+            .readGraph(() -> leafNodeTracker.updateLeafNodes(getModifiedRegion(region))))
+        .map(workflowComplete -> {
+          logger.debug("Thread {}; Transform operation task {} completed.",
+              Thread.currentThread().getId(), transformNode.getId());
+          listeners.forEach(listener -> listener.reactToModelModification());
+          postTransformation.postTransformationTreatment(transformNode, this.vertx.eventBus());
+          if (workflowComplete) {
+            this.vertx.eventBus().publish(ConstantsVertX.addressWorkflowResultAvailable,
+                leafNodeTracker.getWorkflowResult());
+          }
+          return null;
+        });
+  }
+
+  /**
+   * Applies the transform operation with exclusive access to the graph
+   * structure. If configured, the operation is performed on the worker pool,
+   * with the exclusive access being held until it is finished.
+   * 
+   * @param transformNode the node triggerring the transformation
+   * @param transformOperation the transform operation
+   * @param region the (locked) graph region affected by the transformation
+   * @return a future completed once the graph is modified
+   */
+  protected Future<Void> modifyGraph(final Task transformNode,
+      final GraphTransform transformOperation, final Set<Task> region) {
+    if (offloadTransformations) {
+      return lockStriping.modifyGraphAsync(() -> this.vertx.<Void>executeBlocking(promise -> {
+        applyTransformation(transformNode, transformOperation, region);
+        promise.complete();
+      }, false));
+    }
+    return lockStriping
+        .modifyGraph(() -> applyTransformation(transformNode, transformOperation, region));
+  }
+
+  /**
+   * Applies the transform operation to the graph (has to be called with
+   * exclusive access to the graph structure).
+   * 
+   * @param transformNode the node triggerring the transformation
+   * @param transformOperation the transform operation
+   * @param region the (locked) graph region affected by the transformation
+   */
+  protected void applyTransformation(final Task transformNode,
+      final GraphTransform transformOperation, final Set<Task> region) {
     transformOperation.modifyEnactmentGraph(eGraph, transformNode);
-    logger.debug("Thread {}; Transform operation task {} completed.",
-        Thread.currentThread().getId(), transformNode.getId());
-    listeners.forEach(listener -> listener.reactToModelModification());
-    postTransformation.postTransformationTreatment(transformNode, this.vertx.eventBus());
+    // the in-edges of the functions within the region and of the ones attached to
+    // it may have changed (e.g., transmissions reset for while replicas)
+    getModifiedRegion(region).forEach(pendingInputs::invalidate);
+  }
+
+  /**
+   * Returns the region modified by a transformation of the given region: the
+   * region itself (including the removed nodes) and the current neighbors of
+   * its nodes (including the added nodes attached to the region).
+   * 
+   * @param region the region locked for the transformation
+   * @return the region modified by the transformation
+   */
+  protected Set<Task> getModifiedRegion(final Set<Task> region) {
+    final Set<Task> result = new HashSet<>(region);
+    region.stream().filter(eGraph::containsVertex).forEach(task -> {
+      result.addAll(eGraph.getPredecessors(task));
+      result.addAll(eGraph.getSuccessors(task));
+    });
+    return result;
   }
 }
@@ -0,0 +1,84 @@
+package at.uibk.dps.ee.control.transmission;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link PendingInputCounter} keeps track of the number of in-edges of each
+ * function node which have not been transmitted yet. The counter of a function
+ * is created (by counting its unfinished in-edges) when the first transmission
+ * towards the function is processed and is decremented with each further
+ * transmission, so that the check whether all inputs are present does not
+ * require a scan of the in-edges.
+ *
+ * Counters are invalidated whenever a graph transformation changes the in-edges
+ * of the corresponding function and are recreated from the edge annotations on
+ * the next transmission.
+ *
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class PendingInputCounter {
+
+  protected final Map<Task, AtomicInteger> pendingInputs = new ConcurrentHashMap<>();
+
+  /**
+   * Annotates the given edge as transmitted and returns the number of in-edges
+   * of its destination which are still waiting for a transmission.
+   *
+   * @param transmissionEdge the transmitted edge
+   * @param graph the enactment graph
+   * @return the number of in-edges of the edge destination which have not been
+   *         transmitted yet
+   */
+  public int annotateTransmission(final Dependency transmissionEdge,
+      final EnactmentGraph graph) {
+    final Task functionNode = graph.getDest(transmissionEdge);
+    // the counter has to be created before the annotation of the edge
+    final AtomicInteger counter = pendingInputs.computeIfAbsent(functionNode,
+        function -> new AtomicInteger(countPendingInEdges(function, graph)));
+    if (PropertyServiceDependency.isTransmissionDone(transmissionEdge)) {
+      // repeated transmission, does not change the number of pending inputs
+      return counter.get();
+    }
+    PropertyServiceDependency.annotateFinishedTransmission(transmissionEdge);
+    return counter.decrementAndGet();
+  }
+
+  /**
+   * Invalidates the counter of the given function node (used after its in-edges
+   * were modified).
+   *
+   * @param functionNode the given function node
+   */
+  public void invalidate(final Task functionNode) {
+    pendingInputs.remove(functionNode);
+  }
+
+  /**
+   * Invalidates the counters of all function nodes.
+   */
+  public void invalidateAll() {
+    pendingInputs.clear();
+  }
+
+  /**
+   * Counts the in-edges of the given function which are not annotated as
+   * transmitted.
+   *
+   * @param functionNode the given function
+   * @param graph the enactment graph
+   * @return the number of in-edges of the function which are not annotated as
+   *         transmitted
+   */
+  protected int countPendingInEdges(final Task functionNode, final EnactmentGraph graph) {
+    return (int) graph.getInEdges(functionNode).stream()
+        .filter(inEdge -> !PropertyServiceDependency.isTransmissionDone(inEdge)).count();
+  }
+}
@@ -1,18 +1,24 @@
 package at.uibk.dps.ee.control.transmission;
 
+import java.util.HashSet;
+import java.util.Set;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.inject.Inject;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.locks.StripedLock;
+import at.uibk.dps.ee.control.metrics.MetricNames;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.control.verticles.VerticleApollo;
 import at.uibk.dps.ee.control.verticles.WorkerException;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
-import io.vertx.core.shareddata.Lock;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlow;
 import net.sf.opendse.model.Dependency;
 import net.sf.opendse.model.Task;
 
@@ -24,6 +30,9 @@ import net.sf.opendse.model.Task;
 public class WorkerTransmission extends VerticleApollo {
 
   protected final SchedulabilityCheck schedulabilityCheck;
+  protected final PendingInputCounter pendingInputs;
+  protected final LockStriping lockStriping;
+  protected final TaskMessenger taskMessenger;
 
   protected final Logger logger = LoggerFactory.getLogger(WorkerTransmission.class);
 
@@ -32,30 +41,59 @@ public class WorkerTransmission extends VerticleApollo {
    * 
    * @param eGraphProvider provides the enactment graph
    * @param schedulabilityCheck checks the schedulability of functions
+   * @param pendingInputs counts the inputs which functions are still waiting for
+   * @param lockStriping the locks synchronizing the access to the graph regions
+   * @param taskMessenger used to send the schedulable tasks
    */
   @Inject
   public WorkerTransmission(final SpecificationProvider specProvider,
-      final SchedulabilityCheck schedulabilityCheck) {
+      final SchedulabilityCheck schedulabilityCheck, final PendingInputCounter pendingInputs,
+      final LockStriping lockStriping, final TaskMessenger taskMessenger) {
     super(ConstantsVertX.addressDataAvailable, ConstantsVertX.addressTaskSchedulable,
         ConstantsVertX.addressFailureAbort, specProvider);
     this.schedulabilityCheck = schedulabilityCheck;
+    this.pendingInputs = pendingInputs;
+    this.lockStriping = lockStriping;
+    this.taskMessenger = taskMessenger;
   }
 
   @Override
   protected void work(final Task dataNode) throws WorkerException {
-    this.vertx.sharedData().getLock(ConstantsVertX.transformTransmitLock, lockRes -> {
+    final long lockRequest = System.nanoTime();
+    lockStriping.lockRegion(() -> getTransmissionRegion(dataNode)).onComplete(lockRes -> {
       if (lockRes.succeeded()) {
-        final Lock lock = lockRes.result();
-        for (final Dependency transmissionEdge : eGraph.getOutEdges(dataNode)) {
-          processTransmissionEdge(transmissionEdge);
-        }
-        lock.release();
+        metrics.recordTime(MetricNames.lockWaitTimer(ConstantsVertX.stripeLock),
+            System.nanoTime() - lockRequest);
+        final StripedLock lock = lockRes.result();
+        lockStriping.readGraph(() -> {
+          for (final Dependency transmissionEdge : eGraph.getOutEdges(dataNode)) {
+            processTransmissionEdge(transmissionEdge);
+          }
+        }).onComplete(transmissionRes -> {
+          lock.release();
+          if (transmissionRes.failed()) {
+            failureHandler(transmissionRes.cause());
+          }
+        });
       } else {
         throw new IllegalStateException("Failed getting transmission annotation lock");
       }
     });
   }
 
+  /**
+   * Returns the graph region which is accessed by the transmission from the
+   * given data node: the data node itself and the functions it points to.
+   * 
+   * @param dataNode the data node being processed
+   * @return the graph region accessed by the transmission
+   */
+  protected Set<Task> getTransmissionRegion(final Task dataNode) {
+    final Set<Task> result = new HashSet<>(eGraph.getSuccessors(dataNode));
+    result.add(dataNode);
+    return result;
+  }
+
   /**
    * Processes a transmission edge which goes out from the data node being
    * processed.
@@ -77,8 +115,12 @@ public class WorkerTransmission extends VerticleApollo {
    * @return true iff all the in-edges of the function dest are processed
    */
   protected boolean annotateAndCheck(final Dependency transmissionEdge) {
-    PropertyServiceDependency.annotateFinishedTransmission(transmissionEdge);
+    final int pendingNumber = pendingInputs.annotateTransmission(transmissionEdge, eGraph);
     final Task functionNode = eGraph.getDest(transmissionEdge);
+    if (pendingNumber > 0 && !PropertyServiceFunctionDataFlow.isMultiplexerNode(functionNode)) {
+      // inputs missing (only muxers can be scheduled without all their inputs)
+      return false;
+    }
     return schedulabilityCheck.isTargetSchedulable(functionNode, eGraph);
   }
 
@@ -103,6 +145,6 @@ public class WorkerTransmission extends VerticleApollo {
     PropertyServiceFunction.setInput(functionNode, functionInput);
     logger.debug("Thread {}; Task {} is schedulable.", Thread.currentThread().getId(),
         functionNode.getId());
-    this.vertx.eventBus().send(successAddress, functionNode.getId());
+    taskMessenger.send(this.vertx.eventBus(), successAddress, functionNode);
   }
 }
@@ -16,9 +16,13 @@ public final class ConstantsVertX {
   public static final String implId = "implId";
 
   // Locks
-  public static final String transformTransmitLock = "transformTransmit";
+  public static final String stripeLock = "stripes";
   public static final String waitingListLock = "waitingList";
 
+  // Message codecs
+  public static final String codecNameJsonObject = "gsonJsonObject";
+  public static final String codecNameTaskHandle = "taskHandle";
+
   // Event bus messages
   public static final String messagePause = "pause";
   public static final String messageResume = "resume";
@@ -64,6 +68,12 @@ public final class ConstantsVertX {
 
   public static final String addressFailureAbort = "FAILURE_ABORT";
 
+  // cast when the enactment of a task failed. Has a json object with the task ID
+  // and the failure message as message body
+  public static final String addressFailureTask = "FAILURE_TASK";
+  public static final String failureKeyTaskId = "taskId";
+  public static final String failureKeyMessage = "message";
+
 
   /**
    * No constructor.
@@ -25,6 +25,7 @@ public class InputDataHandler {
 
   protected final EnactmentGraph eGraph;
   protected final EventBus eBus;
+  protected final TaskMessenger taskMessenger;
 
   protected final Logger logger = LoggerFactory.getLogger(InputDataHandler.class);
 
@@ -33,12 +34,14 @@ public class InputDataHandler {
    * 
    * @param eGraphProvider provides the e graph
    * @param vertxProvider provides the vertX instance
+   * @param taskMessenger used to send the data nodes
    */
   @Inject
   public InputDataHandler(final EnactmentGraphProvider eGraphProvider,
-      final VertxProvider vertxProvider) {
+      final VertxProvider vertxProvider, final TaskMessenger taskMessenger) {
     this.eGraph = eGraphProvider.getEnactmentGraph();
     this.eBus = vertxProvider.geteBus();
+    this.taskMessenger = taskMessenger;
   }
 
   /**
@@ -63,7 +66,7 @@ public class InputDataHandler {
    */
   protected void processConstantNode(final Task constantNode) {
     logger.debug("Availability of constant node {} advertized.", constantNode.getId());
-    eBus.send(ConstantsVertX.addressDataAvailable, constantNode.getId());
+    taskMessenger.send(eBus, ConstantsVertX.addressDataAvailable, constantNode);
   }
 
   /**
@@ -79,6 +82,6 @@ public class InputDataHandler {
             "No entry with the key " + jsonKey + " in the WF input."));
     PropertyServiceData.setContent(rootNode, content);
     logger.debug("Availability of the input data modeled by node {} advertized.", rootNode.getId());
-    eBus.send(ConstantsVertX.addressDataAvailable, rootNode.getId());
+    taskMessenger.send(eBus, ConstantsVertX.addressDataAvailable, rootNode);
   }
 }
@@ -0,0 +1,49 @@
+package at.uibk.dps.ee.control.verticles;
+
+import java.nio.charset.StandardCharsets;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Message codec used to send gson {@link JsonObject}s over the event bus. Local
+ * deliveries pass the object itself (without serialization); the string
+ * representation is only used when the message leaves the JVM (clustered event
+ * bus).
+ * 
+ * @author Fedor Smirnov
+ */
+public class JsonObjectCodec implements MessageCodec<JsonObject, JsonObject> {
+
+  @Override
+  public void encodeToWire(final Buffer buffer, final JsonObject jsonObject) {
+    final byte[] bytes = jsonObject.toString().getBytes(StandardCharsets.UTF_8);
+    buffer.appendInt(bytes.length);
+    buffer.appendBytes(bytes);
+  }
+
+  @Override
+  public JsonObject decodeFromWire(final int pos, final Buffer buffer) {
+    final int length = buffer.getInt(pos);
+    final int start = pos + Integer.BYTES;
+    final String jsonString = buffer.getString(start, start + length, "UTF-8");
+    return JsonParser.parseString(jsonString).getAsJsonObject();
+  }
+
+  @Override
+  public JsonObject transform(final JsonObject jsonObject) {
+    // the sent objects are not modified after sending
+    return jsonObject;
+  }
+
+  @Override
+  public String name() {
+    return ConstantsVertX.codecNameJsonObject;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
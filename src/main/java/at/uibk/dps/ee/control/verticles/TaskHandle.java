@@ -0,0 +1,56 @@
+package at.uibk.dps.ee.control.verticles;
+
+import net.sf.opendse.model.Task;
+
+/**
+ * Lightweight reference to a task of the enactment graph which is sent over the
+ * (local) event bus instead of the task ID. Carries the resolved task object,
+ * so that the receiving verticles do not have to look up the task in the graph.
+ * A handle is created for each message, so that it always references the task
+ * object currently contained in the graph.
+ * 
+ * @author Fedor Smirnov
+ */
+public class TaskHandle {
+
+  protected final String taskId;
+  protected final Task task;
+
+  /**
+   * Constructor used for the local hand-off of tasks.
+   * 
+   * @param task the referenced task
+   */
+  public TaskHandle(final Task task) {
+    this(task.getId(), task);
+  }
+
+  /**
+   * Constructor used when the handle is decoded from the wire (the task has to
+   * be looked up by the receiver).
+   * 
+   * @param taskId the id of the referenced task
+   * @param task the referenced task, null if not resolved
+   */
+  public TaskHandle(final String taskId, final Task task) {
+    this.taskId = taskId;
+    this.task = task;
+  }
+
+  /**
+   * Returns true iff the handle carries the resolved task object.
+   * 
+   * @return true iff the handle carries the resolved task object
+   */
+  public boolean isResolved() {
+    return task != null;
+  }
+
+  public String getTaskId() {
+    return taskId;
+  }
+
+  public Task getTask() {
+    return task;
+  }
+}
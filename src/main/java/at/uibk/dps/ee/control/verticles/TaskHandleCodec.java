@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.control.verticles;
+
+import java.nio.charset.StandardCharsets;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+
+/**
+ * Message codec for {@link TaskHandle}s. Local deliveries pass the handle
+ * itself. When sent over the wire, only the task ID is transmitted, so that the
+ * task has to be resolved by the receiver.
+ * 
+ * @author Fedor Smirnov
+ */
+public class TaskHandleCodec implements MessageCodec<TaskHandle, TaskHandle> {
+
+  @Override
+  public void encodeToWire(final Buffer buffer, final TaskHandle handle) {
+    final byte[] idBytes = handle.getTaskId().getBytes(StandardCharsets.UTF_8);
+    buffer.appendInt(idBytes.length);
+    buffer.appendBytes(idBytes);
+  }
+
+  @Override
+  public TaskHandle decodeFromWire(final int pos, final Buffer buffer) {
+    final int length = buffer.getInt(pos);
+    final int start = pos + Integer.BYTES;
+    final String taskId = buffer.getString(start, start + length, "UTF-8");
+    return new TaskHandle(taskId, null);
+  }
+
+  @Override
+  public TaskHandle transform(final TaskHandle handle) {
+    // handles are immutable
+    return handle;
+  }
+
+  @Override
+  public String name() {
+    return ConstantsVertX.codecNameTaskHandle;
+  }
+
+  @Override
+  public byte systemCodecID() {
+    return -1;
+  }
+}
@@ -0,0 +1,34 @@
+package at.uibk.dps.ee.control.verticles;
+
+import net.sf.opendse.model.Element;
+import net.sf.opendse.model.Task;
+
+/**
+ * Static methods relating the tasks created by graph transformations
+ * (distribution offspring and while replicas) to the original tasks of the
+ * enactment graph.
+ * 
+ * @author Fedor Smirnov
+ */
+public final class TaskLineage {
+
+  /**
+   * No constructor.
+   */
+  private TaskLineage() {}
+
+  /**
+   * Returns the ID of the original task (the root of the parent links) of the
+   * given task.
+   * 
+   * @param task the given task
+   * @return the ID of the original task
+   */
+  public static String getOriginalId(final Task task) {
+    Element original = task;
+    while (original.getParent() != null) {
+      original = original.getParent();
+    }
+    return original.getId();
+  }
+}
@@ -0,0 +1,108 @@
+package at.uibk.dps.ee.control.verticles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.opt4j.core.start.Constant;
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import io.vertx.core.eventbus.EventBus;
+import net.sf.opendse.model.Task;
+
+/**
+ * The {@link TaskMessenger} is used to send task references between the
+ * workers. Depending on the configuration, tasks are either sent as IDs (which
+ * works for all event bus configurations) or as {@link TaskHandle}s passed via
+ * a local codec (which saves the task lookup on each hop).
+ * 
+ * @author Fedor Smirnov
+ */
+@Singleton
+public class TaskMessenger {
+
+  protected final boolean localTaskCodec;
+  protected final Map<String, List<VerticleApollo>> directRoutes = new ConcurrentHashMap<>();
+  protected final AtomicInteger nextRoute = new AtomicInteger();
+
+  /**
+   * Injection constructor.
+   * 
+   * @param localTaskCodec true iff tasks are to be sent as task handles
+   */
+  @Inject
+  public TaskMessenger(@Constant(namespace = TaskMessenger.class,
+      value = "localTaskCodec") final boolean localTaskCodec) {
+    this.localTaskCodec = localTaskCodec;
+  }
+
+  /**
+   * Sends a reference to the given task to the given address. Tasks sent to an
+   * address with a direct route are handed over to one of the worker instances
+   * without using the event bus: to the instance running on the calling event
+   * loop, which is called directly, if there is one, and otherwise to the
+   * instances in a round-robin manner.
+   * 
+   * @param eBus the event bus
+   * @param address the address to send to
+   * @param task the task to send
+   */
+  public void send(final EventBus eBus, final String address, final Task task) {
+    final List<VerticleApollo> directTargets = directRoutes.get(address);
+    if (directTargets != null) {
+      selectTarget(directTargets).handOver(task);
+    } else if (localTaskCodec) {
+      eBus.send(address, new TaskHandle(task));
+    } else {
+      eBus.send(address, task.getId());
+    }
+  }
+
+  /**
+   * Selects the worker instance to hand a task over to, preferring the instance
+   * running on the calling event loop.
+   * 
+   * @param directTargets the instances of the worker
+   * @return the selected worker instance
+   */
+  protected VerticleApollo selectTarget(final List<VerticleApollo> directTargets) {
+    for (final VerticleApollo target : directTargets) {
+      if (target.isOnOwnEventLoop()) {
+        return target;
+      }
+    }
+    final int route = Math.floorMod(nextRoute.getAndIncrement(), directTargets.size());
+    return directTargets.get(route);
+  }
+
+  /**
+   * Configures the given (deployed) instances of a worker to process the tasks
+   * sent to their trigger address directly instead of receiving them over the
+   * event bus.
+   * 
+   * @param workerInstances the deployed instances of the worker
+   */
+  public void routeDirectly(final List<VerticleApollo> workerInstances) {
+    if (workerInstances.isEmpty()) {
+      throw new IllegalArgumentException("No worker instances to route to.");
+    }
+    directRoutes.put(workerInstances.get(0).getTriggerAddress(), List.copyOf(workerInstances));
+  }
+
+  /**
+   * Resolves the task referenced by the given message body, which is either a
+   * task ID or a {@link TaskHandle}.
+   * 
+   * @param messageBody the message body
+   * @param eGraph the enactment graph
+   * @return the referenced task
+   */
+  public static Task resolveTask(final Object messageBody, final EnactmentGraph eGraph) {
+    if (messageBody instanceof TaskHandle) {
+      final TaskHandle handle = (TaskHandle) messageBody;
+      return handle.isResolved() ? handle.getTask() : eGraph.getVertex(handle.getTaskId());
+    }
+    return eGraph.getVertex((String) messageBody);
+  }
+}
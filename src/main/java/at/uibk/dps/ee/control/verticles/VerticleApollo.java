@@ -5,11 +5,19 @@ import java.util.ArrayList;
 import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.inject.Inject;
+import at.uibk.dps.ee.control.init.InFlightCounter;
+import at.uibk.dps.ee.control.metrics.EnactmentMetrics;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsNoOp;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.control.metrics.StallDetector;
+import at.uibk.dps.ee.control.metrics.StallDetector.Tracking;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.MappingsConcurrent;
 import at.uibk.dps.ee.model.graph.ResourceGraph;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import io.vertx.core.AbstractVerticle;
+import io.vertx.core.Context;
 import io.vertx.core.eventbus.Message;
 import net.sf.opendse.model.Task;
 
@@ -35,6 +43,13 @@ public abstract class VerticleApollo extends AbstractVerticle {
   protected boolean paused;
   protected final List<Task> queue = new ArrayList<>();
 
+  // the event loop thread the verticle runs on (null for worker verticles)
+  protected Thread eventLoopThread;
+
+  protected EnactmentMetrics metrics = new EnactmentMetricsNoOp();
+  protected StallDetector stallDetector = new StallDetector(0);
+  protected InFlightCounter inFlight = new InFlightCounter();
+
   /**
    * Parent constructor
    * 
@@ -54,8 +69,45 @@ public abstract class VerticleApollo extends AbstractVerticle {
   }
 
 
+  /**
+   * Sets the metrics recorder (injected into all verticles; the metrics are not
+   * recorded if not set).
+   * 
+   * @param metrics the metrics recorder
+   */
+  @Inject
+  public void setMetrics(final EnactmentMetrics metrics) {
+    this.metrics = metrics;
+  }
+
+  /**
+   * Sets the detector of the event loop stalls (injected into all verticles;
+   * stalls are not detected if not set).
+   * 
+   * @param stallDetector the stall detector
+   */
+  @Inject
+  public void setStallDetector(final StallDetector stallDetector) {
+    this.stallDetector = stallDetector;
+  }
+
+  /**
+   * Sets the counter of the operations in flight (injected into all verticles;
+   * verticles whose operations outlive the processing of a trigger register them
+   * with the counter).
+   * 
+   * @param inFlight the counter of the operations in flight
+   */
+  @Inject
+  public void setInFlightCounter(final InFlightCounter inFlight) {
+    this.inFlight = inFlight;
+  }
+
   @Override
   public void start() throws Exception {
+    if (Context.isOnEventLoopThread()) {
+      eventLoopThread = Thread.currentThread();
+    }
     this.vertx.eventBus().consumer(ConstantsVertX.addressControlPause, this::pauseHandler);
     this.vertx.eventBus().consumer(ConstantsVertX.addressControlResume, this::resumeHandler);
     this.vertx.eventBus().consumer(triggerAddress, this::processTaskTrigger);
@@ -65,28 +117,68 @@ public abstract class VerticleApollo extends AbstractVerticle {
    * Processes the task trigger received via the event bus. Stores trigger in
    * queue if currently paused.
    * 
-   * @param taskMessage the message containing the task ID
+   * @param taskMessage the message containing the task ID or the task handle
+   */
+  protected void processTaskTrigger(final Message<?> taskMessage) {
+    processTrigger(TaskMessenger.resolveTask(taskMessage.body(), eGraph));
+  }
+
+  /**
+   * Processes the given trigger task (received via the event bus or handed over
+   * directly). Stores trigger in queue if currently paused.
+   * 
+   * @param triggerTask the trigger task
    */
-  protected void processTaskTrigger(final Message<String> taskMessage) {
-    final Task triggerTask = eGraph.getVertex(taskMessage.body());
+  protected void processTrigger(final Task triggerTask) {
+    metrics.countMessage(triggerAddress);
     if (paused) {
       queue.add(triggerTask);
+      metrics.setQueueLength(MetricNames.pauseQueue(triggerAddress), queue.size());
     } else {
       processTask(triggerTask);
     }
   }
 
+  /**
+   * Hands the given trigger task over to this verticle without using the event
+   * bus. If called from the event loop of this verticle, the task is processed
+   * with a direct call; otherwise, it is processed on the context of this
+   * verticle.
+   * 
+   * @param triggerTask the trigger task
+   */
+  public void handOver(final Task triggerTask) {
+    if (isOnOwnEventLoop()) {
+      processTrigger(triggerTask);
+    } else {
+      context.runOnContext(nothing -> processTrigger(triggerTask));
+    }
+  }
+
+  /**
+   * Returns true iff the calling thread is the event loop this verticle runs on
+   * (so that the verticle can be called directly without racing its handlers).
+   * 
+   * @return true iff the calling thread is the event loop of this verticle
+   */
+  public boolean isOnOwnEventLoop() {
+    return eventLoopThread != null && eventLoopThread == Thread.currentThread();
+  }
+
   /**
    * Processes the trigger task, reporting failures if they occur.
    * 
    * @param triggerTask the trigger task
    */
   protected void processTask(final Task triggerTask) {
-    try {
+    final long start = System.nanoTime();
+    try (Tracking tracking = stallDetector.track(triggerAddress, triggerTask)) {
       work(triggerTask);
     } catch (WorkerException wExc) {
       logger.error("Worker Exception Encountered.", wExc);
       failureHandler(wExc);
+    } finally {
+      metrics.recordTime(MetricNames.handlerTimer(triggerAddress), System.nanoTime() - start);
     }
   }
 
@@ -110,6 +202,7 @@ public abstract class VerticleApollo extends AbstractVerticle {
     while (!queue.isEmpty()) {
       processTask(queue.remove(0));
     }
+    metrics.setQueueLength(MetricNames.pauseQueue(triggerAddress), 0);
     paused = false;
   }
 
@@ -132,4 +225,19 @@ public abstract class VerticleApollo extends AbstractVerticle {
    */
   protected abstract void work(Task triggeringTask) throws WorkerException;
 
+  /**
+   * Returns true iff the instances of this verticle are to be deployed as worker
+   * verticles (run on the worker pool) instead of event-loop verticles.
+   * Overridden by the verticles whose work may block the thread.
+   * 
+   * @return true iff the verticle is deployed as a worker verticle
+   */
+  public boolean isWorkerVerticle() {
+    return false;
+  }
+
+  public String getTriggerAddress() {
+    return triggerAddress;
+  }
+
 }
@@ -3,9 +3,9 @@ package at.uibk.dps.ee.control.verticles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.inject.Inject;
 import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.init.EnactmentReset;
 import at.uibk.dps.ee.core.CoreFunction;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
 import io.vertx.core.Future;
@@ -27,9 +27,12 @@ public class VerticleFunction implements CoreFunction {
   protected final InputDataHandler dataHandler;
   protected final FailureHandler failureHandler;
   protected final PromiseProvider promiseProvider;
-  protected Promise<JsonObject> currentPromise;
+  protected final EnactmentReset enactmentReset;
+  protected boolean enacted;
+  protected volatile Promise<JsonObject> currentPromise;
   protected final EventBus eBus;
   protected final Vertx vertx;
+  protected final Future<Void> deployment;
 
   protected final Logger logger = LoggerFactory.getLogger(VerticleFunction.class);
 
@@ -39,10 +42,14 @@ public class VerticleFunction implements CoreFunction {
    * @param dataHandler the handler to inject input data into the eBus
    * @param vManager the manager deploying the verticles
    * @param vProv vertX provider
+   * @param pProv the promise provider
+   * @param failureHandler the failure handler
+   * @param enactmentReset resets the enactment state between invocations
    */
   @Inject
   public VerticleFunction(final InputDataHandler dataHandler, final VerticleManager vManager,
-      final VertxProvider vProv, final PromiseProvider pProv, final FailureHandler failureHandler) {
+      final VertxProvider vProv, final PromiseProvider pProv, final FailureHandler failureHandler,
+      final EnactmentReset enactmentReset) {
     super();
     this.vManager = vManager;
     this.dataHandler = dataHandler;
@@ -50,9 +57,29 @@ public class VerticleFunction implements CoreFunction {
     this.eBus = vProv.geteBus();
     this.promiseProvider = pProv;
     this.failureHandler = failureHandler;
+    this.enactmentReset = enactmentReset;
+    registerCodecs();
     eBus.consumer(ConstantsVertX.addressWorkflowResultAvailable, this::handleResult);
     eBus.consumer(failureHandler.getTriggerAddress(), this::handleFailure);
-    vManager.deployVerticles();
+    eBus.consumer(ConstantsVertX.addressFailureTask, this::handleTaskFailure);
+    this.deployment = vManager.deployVerticles();
+  }
+
+  /**
+   * Registers the codecs used to send objects over the event bus. Has to happen
+   * before the deployment of the verticles.
+   */
+  protected final void registerCodecs() {
+    try {
+      eBus.registerDefaultCodec(JsonObject.class, new JsonObjectCodec());
+    } catch (IllegalStateException alreadyRegistered) {
+      logger.debug("Json codec already registered for the event bus.");
+    }
+    try {
+      eBus.registerDefaultCodec(TaskHandle.class, new TaskHandleCodec());
+    } catch (IllegalStateException alreadyRegistered) {
+      logger.debug("Task handle codec already registered for the event bus.");
+    }
   }
 
   /**
@@ -65,21 +92,57 @@ public class VerticleFunction implements CoreFunction {
     failureHandler.handleFailure(failureMessage.body(), currentPromise, vertx);
   }
 
+  /**
+   * Handler for the message signaling the failed enactment of a task.
+   * 
+   * @param failureMessage json object with the task ID and the failure message
+   */
+  protected void handleTaskFailure(final Message<JsonObject> failureMessage) {
+    final String taskId =
+        failureMessage.body().get(ConstantsVertX.failureKeyTaskId).getAsString();
+    final String message =
+        failureMessage.body().get(ConstantsVertX.failureKeyMessage).getAsString();
+    logger.error("Handling failure of task {} with message {}", taskId, message);
+    failureHandler.handleTaskFailure(taskId, message, currentPromise, vertx);
+  }
+
   /**
    * Handler for the message sent when the enactment of the application is
    * finished.
    * 
    * @param resultMessage the result message.
    */
-  protected void handleResult(final Message<String> resultMessage) {
-    final JsonObject resultObject = JsonParser.parseString(resultMessage.body()).getAsJsonObject();
-    currentPromise.complete(resultObject);
+  protected void handleResult(final Message<JsonObject> resultMessage) {
+    currentPromise.complete(resultMessage.body());
   }
 
+  /**
+   * Processes the given input. The enactment state is annotated on the shared
+   * enactment graph, so that an invocation has to be finished before the next
+   * one is made.
+   */
   @Override
   public Future<JsonObject> processInput(final JsonObject input) {
-    dataHandler.processInput(input);
-    currentPromise = promiseProvider.getJsonPromise();
-    return currentPromise.future();
+    final Promise<JsonObject> promise = promiseProvider.getJsonPromise();
+    startInvocation(input, promise);
+    return promise.future();
+  }
+
+  /**
+   * Starts the enactment of the given input as soon as the verticles are
+   * deployed. The state left by a previous enactment is reset (once its
+   * operations in flight are finished), so that the deployed verticles are
+   * reused.
+   * 
+   * @param input the wf input
+   * @param promise the promise to complete with the wf result
+   */
+  protected void startInvocation(final JsonObject input, final Promise<JsonObject> promise) {
+    final Future<Void> previousReset = enacted ? enactmentReset.reset() : Future.succeededFuture();
+    enacted = true;
+    previousReset.compose(reset -> deployment).onSuccess(deployed -> {
+      currentPromise = promise;
+      dataHandler.processInput(input);
+    }).onFailure(promise::tryFail);
   }
 }
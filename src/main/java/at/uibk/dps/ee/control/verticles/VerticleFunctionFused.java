@@ -0,0 +1,52 @@
+package at.uibk.dps.ee.control.verticles;
+
+import java.util.Set;
+import com.google.inject.Inject;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.init.EnactmentReset;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+
+/**
+ * Variant of the {@link VerticleFunction} where the tasks of the hot path
+ * (transmission, scheduling, and the launch of the enactment) are handed over
+ * directly to the worker instances. A stage is a direct method call if an
+ * instance of the next worker runs on the current event loop; otherwise, the
+ * task is handed over to the context of an instance. The event bus is only
+ * used for the remaining (asynchronous) steps, i.e., the extraction of the
+ * results and the graph transformations.
+ * 
+ * @author Fedor Smirnov
+ */
+public class VerticleFunctionFused extends VerticleFunction {
+
+  /**
+   * The addresses of the workers which are called directly.
+   */
+  protected static final Set<String> fusedAddresses =
+      Set.of(ConstantsVertX.addressDataAvailable, ConstantsVertX.addressTaskSchedulable,
+          ConstantsVertX.addressTaskLaunchable);
+
+  /**
+   * Injection constructor.
+   * 
+   * @param dataHandler the handler to inject input data into the eBus
+   * @param vManager the manager deploying the verticles
+   * @param vProv vertX provider
+   * @param pProv the promise provider
+   * @param failureHandler the failure handler
+   * @param taskMessenger the messenger used to send tasks between the workers
+   * @param enactmentReset resets the enactment state between invocations
+   */
+  @Inject
+  public VerticleFunctionFused(final InputDataHandler dataHandler,
+      final VerticleManager vManager, final VertxProvider vProv, final PromiseProvider pProv,
+      final FailureHandler failureHandler, final TaskMessenger taskMessenger,
+      final EnactmentReset enactmentReset) {
+    super(dataHandler, vManager, vProv, pProv, failureHandler, enactmentReset);
+    // registered before the processing of the inputs, which also waits for the
+    // deployment
+    deployment.onSuccess(deployed -> vManager.getEventBusVerticles().stream()
+        .filter(worker -> fusedAddresses.contains(worker.getTriggerAddress()))
+        .forEach(worker -> taskMessenger.routeDirectly(vManager.getInstances(worker))));
+  }
+}
@@ -1,19 +1,37 @@
 package at.uibk.dps.ee.control.verticles;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.opt4j.core.start.Constant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.google.inject.Inject;
+import com.google.inject.Injector;
+import at.uibk.dps.ee.control.offload.InvocationExecutor;
+import at.uibk.dps.ee.control.offload.InvocationExecutorCloser;
+import at.uibk.dps.ee.control.offload.InvocationExecutorEventLoop;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
-import io.vertx.core.AsyncResult;
+import io.vertx.core.CompositeFuture;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
 
 /**
  * The {@link VerticleManager} manages the deployment of the verticles used by
- * Apollo.
- * 
+ * Apollo. Each verticle type is deployed with the configured number of
+ * instances, so that the instances (each with its own state) are spread over
+ * the event loops (or run on worker threads, if requested by the verticle
+ * type). The first instance of each type is the one contained in the injected
+ * set; the further instances are created by the instance factory.
+ *
  * @author Fedor Smirnov
  */
 public class VerticleManager {
@@ -22,55 +40,119 @@ public class VerticleManager {
   protected final Vertx vertx;
   protected final int deploymentNumber;
   protected final int verticleNumber;
-  protected final CountDownLatch latch;
+  protected final Function<Class<? extends VerticleApollo>, VerticleApollo> instanceFactory;
+  protected final Map<VerticleApollo, List<VerticleApollo>> instances = new ConcurrentHashMap<>();
+  protected Future<Void> deployment;
+  protected InvocationExecutor invocationExecutor = new InvocationExecutorEventLoop();
 
   protected final Logger logger = LoggerFactory.getLogger(VerticleManager.class);
 
   /**
    * Injection constructor.
-   * 
+   *
    * @param eventBusVerticles the verticle types which are to be deployed as part
    *        of the current apollo instance
    * @param deploymentNumber the number of verticles which are to be deployed for
    *        each verticle type
    * @param vertxProv the vertX provider
+   * @param injector the injector used to create the verticle instances
    */
   @Inject
   public VerticleManager(final Set<VerticleApollo> eventBusVerticles,
       @Constant(namespace = VerticleManager.class,
           value = "deploymentNumber") final int deploymentNumber,
-      final VertxProvider vertxProv) {
+      final VertxProvider vertxProv, final Injector injector) {
+    this(eventBusVerticles, deploymentNumber, vertxProv, injector::getInstance);
+  }
+
+  /**
+   * Constructor with an explicit factory for the verticle instances.
+   *
+   * @param eventBusVerticles the verticle types which are to be deployed as part
+   *        of the current apollo instance
+   * @param deploymentNumber the number of verticles which are to be deployed for
+   *        each verticle type
+   * @param vertxProv the vertX provider
+   * @param instanceFactory creates a new instance of the given verticle type
+   */
+  public VerticleManager(final Set<VerticleApollo> eventBusVerticles, final int deploymentNumber,
+      final VertxProvider vertxProv,
+      final Function<Class<? extends VerticleApollo>, VerticleApollo> instanceFactory) {
     this.eventBusVerticles = eventBusVerticles;
     this.deploymentNumber = deploymentNumber;
     this.verticleNumber = eventBusVerticles.size() * deploymentNumber;
     this.vertx = vertxProv.getVertx();
-    this.latch = new CountDownLatch(verticleNumber);
+    this.instanceFactory = instanceFactory;
   }
 
   /**
-   * Deploys the configured number of the configured verticle types. Synchronous
-   * method waiting until the deployment is finished.
+   * Sets the invocation executor shared by the deployed enactment workers (closed
+   * when the engine is torn down).
+   *
+   * @param invocationExecutor the invocation executor
    */
-  public void deployVerticles() {
-    for (final VerticleApollo verticleType : eventBusVerticles) {
-      for (int i = 0; i < deploymentNumber; i++) {
-        vertx.deployVerticle(verticleType, this::deployCallBack);
-      }
+  @Inject
+  public void setInvocationExecutor(final InvocationExecutor invocationExecutor) {
+    this.invocationExecutor = invocationExecutor;
+  }
+
+  /**
+   * Deploys the configured number of the configured verticle types. The
+   * deployment is only triggered on the first call.
+   *
+   * @return future completed when all verticles are deployed
+   */
+  @SuppressWarnings("rawtypes")
+  public synchronized Future<Void> deployVerticles() {
+    if (deployment != null) {
+      return deployment;
     }
-    try {
-      latch.await();
-      logger.info("Deployed {} verticles.", verticleNumber);
-    } catch (InterruptedException e) {
-      throw new IllegalStateException("Interrupted while deploying verticels", e);
+    final List<Future> deployments = new ArrayList<>();
+    for (final VerticleApollo verticleType : eventBusVerticles) {
+      final DeploymentOptions options = new DeploymentOptions().setInstances(deploymentNumber)
+          .setWorker(verticleType.isWorkerVerticle());
+      deployments.add(vertx.deployVerticle(instanceSupplier(verticleType), options));
     }
+    // the executor is shared by all instances, so that it is closed only once
+    deployments.add(vertx.deployVerticle(new InvocationExecutorCloser(invocationExecutor)));
+    deployment = CompositeFuture.all(deployments)
+        .onSuccess(res -> logger.info("Deployed {} verticles.", verticleNumber))
+        .onFailure(failure -> logger.error("Failed deploying the verticles.", failure))
+        .mapEmpty();
+    return deployment;
   }
 
   /**
-   * The latch is decremented once for the deployment of each verticle.
-   * 
-   * @param result not used
+   * Returns the supplier for the instances of the given verticle type. The first
+   * supplied instance is the given verticle, the further ones are created by the
+   * instance factory.
+   *
+   * @param verticleType the given verticle
+   * @return the supplier for the instances of the given verticle type
    */
-  protected void deployCallBack(final AsyncResult<String> result) {
-    latch.countDown();
+  protected Supplier<Verticle> instanceSupplier(final VerticleApollo verticleType) {
+    final AtomicBoolean firstSupplied = new AtomicBoolean();
+    final List<VerticleApollo> typeInstances =
+        instances.computeIfAbsent(verticleType, type -> new CopyOnWriteArrayList<>());
+    return () -> {
+      final VerticleApollo instance = firstSupplied.compareAndSet(false, true) ? verticleType
+          : instanceFactory.apply(verticleType.getClass());
+      typeInstances.add(instance);
+      return instance;
+    };
+  }
+
+  /**
+   * Returns the deployed instances of the given verticle type.
+   *
+   * @param verticleType the given verticle (contained in the injected set)
+   * @return the deployed instances of the given verticle type
+   */
+  public List<VerticleApollo> getInstances(final VerticleApollo verticleType) {
+    return instances.getOrDefault(verticleType, List.of());
+  }
+
+  public Set<VerticleApollo> getEventBusVerticles() {
+    return eventBusVerticles;
   }
 }
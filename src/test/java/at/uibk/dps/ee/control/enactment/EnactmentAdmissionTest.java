@@ -0,0 +1,98 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class EnactmentAdmissionTest {
+
+  @Test
+  void testDisabled() {
+    EnactmentAdmission tested = new EnactmentAdmission(0, 0, 0, 0);
+    List<String> launched = new ArrayList<>();
+    tested.admit(new Task("t1"), Set.of(), () -> launched.add("t1"));
+    assertEquals(List.of("t1"), launched);
+    assertTrue(tested.admitted.isEmpty());
+  }
+
+  @Test
+  void testGlobalLimit() {
+    EnactmentAdmission tested = new EnactmentAdmission(1, 0, 0, 1);
+    List<String> launched = new ArrayList<>();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    tested.admit(t1, Set.of(), () -> launched.add("t1"));
+    tested.admit(t2, Set.of(), () -> launched.add("t2"));
+    assertEquals(List.of("t1"), launched);
+    assertThrows(RejectedExecutionException.class, () -> {
+      tested.admit(t3, Set.of(), () -> launched.add("t3"));
+    });
+    tested.complete(t1);
+    assertEquals(List.of("t1", "t2"), launched);
+    tested.complete(t2);
+    assertEquals(0, tested.running);
+  }
+
+  @Test
+  void testResourceAndFunctionLimits() {
+    EnactmentAdmission tested = new EnactmentAdmission(0, 1, 1, 10);
+    List<String> launched = new ArrayList<>();
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+    Task original = new Task("original");
+    Task offspring = new Task("offspring");
+    offspring.setParent(original);
+    Task other = new Task("other");
+    Task third = new Task("third");
+
+    tested.admit(original, Set.of(res1), () -> launched.add("original"));
+    // same function
+    tested.admit(offspring, Set.of(res2), () -> launched.add("offspring"));
+    // same resource
+    tested.admit(other, Set.of(res1), () -> launched.add("other"));
+    // queued behind the earlier launches (res2 is taken by the offspring first)
+    tested.admit(third, Set.of(res2), () -> launched.add("third"));
+    assertEquals(List.of("original"), launched);
+
+    tested.complete(original);
+    assertEquals(List.of("original", "offspring", "other"), launched);
+    tested.complete(offspring);
+    assertEquals(List.of("original", "offspring", "other", "third"), launched);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testQueuedLaunchOnRequestingContext() {
+    EnactmentAdmission tested = new EnactmentAdmission(1, 0, 0, 1);
+    List<String> launched = new ArrayList<>();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Context context = mock(Context.class);
+    List<Handler<Void>> scheduled = new ArrayList<>();
+    doAnswer(invocation -> {
+      scheduled.add(invocation.getArgument(0));
+      return null;
+    }).when(context).runOnContext(any());
+    tested.admit(t1, Set.of(), () -> launched.add("t1"));
+    tested.queue
+        .add(new EnactmentAdmission.Launch(t2, Set.of(), () -> launched.add("t2"), context));
+    tested.complete(t1);
+    // the launch is not run on the completing thread
+    assertEquals(List.of("t1"), launched);
+    verify(context).runOnContext(any(Handler.class));
+    scheduled.get(0).handle(null);
+    assertEquals(List.of("t1", "t2"), launched);
+  }
+}
@@ -1,25 +1,35 @@
 package at.uibk.dps.ee.control.enactment;
 
 import static org.junit.jupiter.api.Assertions.*;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import at.uibk.dps.sc.core.ConstantsScheduling;
 import at.uibk.dps.sc.core.ScheduleModel;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.shareddata.Lock;
+import io.vertx.core.shareddata.SharedData;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Task;
 
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 class PostEnactmentDefaultTest {
 
@@ -51,11 +61,38 @@ class PostEnactmentDefaultTest {
     Lock mockLock = mock(Lock.class);
     when(asynRes.result()).thenReturn(mockLock);
     when(asynRes.succeeded()).thenReturn(true);
-    tested.lockResHandler(asynRes, requiresNoTrans, eBus);
+    tested.lockResHandler(asynRes, requiresNoTrans, Set.of(), eBus);
     verify(eBus).send(ConstantsVertX.addressEnactmentFinished, requiresNoTrans.getId());
     verify(mockLock).release();
   }
 
+  /**
+   * Tests that the tracked capacity is released without the lock, while the
+   * capacity of the untracked resources is still released under the lock.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testUntrackedReleasedUnderLock() {
+    Resource tracked = new Resource("tracked");
+    Resource untracked = new Resource("untracked");
+    Set<Mapping<Task, Resource>> taskSchedule = Set.of(
+        new Mapping<>("m1", requiresNoTrans, tracked),
+        new Mapping<>("m2", requiresNoTrans, untracked));
+    ScheduleModel schedule = mock(ScheduleModel.class);
+    when(schedule.getTaskSchedule(requiresNoTrans)).thenReturn(taskSchedule);
+    Vertx vertxMock = mock(Vertx.class);
+    SharedData sharedData = mock(SharedData.class);
+    when(vertxMock.sharedData()).thenReturn(sharedData);
+    VertxProvider vProv = new VertxProvider(vertxMock);
+    ResourceCapacityTracker tracker = new ResourceCapacityTracker("tracked=1");
+    assertTrue(tracker.tryAcquire(tracked));
+    PostEnactmentDefault postEnactment = new PostEnactmentDefault(schedule, vProv,
+        new TaskMessenger(false), new ResourceFreedCoalescer(vProv, 0), tracker);
+    postEnactment.postEnactmentTreatment(requiresNoTrans, eBus);
+    assertEquals(0, tracker.getUsage(tracked));
+    verify(sharedData).getLock(eq(ConstantsScheduling.lockCapacityQuery), any(Handler.class));
+  }
+
   /**
    * Tests the transformation requirement check.
    */
@@ -77,7 +114,9 @@ class PostEnactmentDefaultTest {
     requiresTrans = PropertyServiceFunctionDataFlowCollections.createCollectionDataFlowTask("task2",
         OperationType.Aggregation, "scope");
     ScheduleModel mockSchedule = mock(ScheduleModel.class);
-    tested = new PostEnactmentDefault(mockSchedule, new VertxProvider(vertx));
+    VertxProvider vProv = new VertxProvider(vertx);
+    tested = new PostEnactmentDefault(mockSchedule, vProv, new TaskMessenger(false),
+        new ResourceFreedCoalescer(vProv, 0), new ResourceCapacityTracker(""));
     eBus = mock(EventBus.class);
   }
 }
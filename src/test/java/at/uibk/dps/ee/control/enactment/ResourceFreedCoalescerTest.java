@@ -0,0 +1,57 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import net.sf.opendse.model.Resource;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import org.mockito.ArgumentCaptor;
+
+class ResourceFreedCoalescerTest {
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void testCoalescing() {
+    Vertx vertx = mock(Vertx.class);
+    EventBus eBus = mock(EventBus.class);
+    ResourceFreedCoalescer tested = new ResourceFreedCoalescer(new VertxProvider(vertx), 10);
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+
+    tested.resourceFreed(res1, eBus);
+    tested.resourceFreed(res1, eBus);
+    tested.resourceFreed(res2, eBus);
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx, times(1)).setTimer(eq(10L), captor.capture());
+    verify(eBus, never()).send(any(String.class), any());
+
+    captor.getValue().handle(1L);
+    verify(eBus, times(1)).send(ConstantsVertX.addressResourceFreed, "res1");
+    verify(eBus, times(1)).send(ConstantsVertX.addressResourceFreed, "res2");
+    assertTrue(tested.freedResources.isEmpty());
+
+    // a new window is started after the flush
+    tested.resourceFreed(res1, eBus);
+    verify(vertx, times(2)).setTimer(eq(10L), any());
+  }
+
+  @Test
+  void testEventLoopIteration() {
+    Vertx vertx = mock(Vertx.class);
+    when(vertx.eventBus()).thenReturn(mock(EventBus.class));
+    ResourceFreedCoalescer tested = new ResourceFreedCoalescer(new VertxProvider(vertx), 0);
+    tested.resourceFreed(new Resource("res"), vertx.eventBus());
+    tested.resourceFreed(new Resource("res2"), vertx.eventBus());
+    verify(vertx, times(1)).runOnContext(any());
+  }
+}
@@ -0,0 +1,37 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import net.sf.opendse.model.Task;
+
+class RetryPolicyTest {
+
+  @Test
+  void testOverrides() {
+    RetryPolicy tested = new RetryPolicy(1000, 2, 10, 100, false, "special=50:5");
+    Task task = new Task("task");
+    Task special = new Task("special");
+    Task offspring = new Task("special_0");
+    offspring.setParent(special);
+    assertEquals(1000, tested.getTimeoutInMs(task));
+    assertEquals(2, tested.getMaxRetries(task));
+    assertEquals(50, tested.getTimeoutInMs(offspring));
+    assertEquals(5, tested.getMaxRetries(offspring));
+    assertThrows(IllegalArgumentException.class, () -> {
+      new RetryPolicy(1000, 2, 10, 100, false, "special=50");
+    });
+  }
+
+  @Test
+  void testBackoff() {
+    RetryPolicy tested = new RetryPolicy(0, 5, 10, 100, false, "");
+    for (int i = 0; i < 20; i++) {
+      long first = tested.getBackoffInMs(0);
+      assertTrue(first >= 5 && first <= 10);
+      long third = tested.getBackoffInMs(2);
+      assertTrue(third >= 20 && third <= 40);
+      long capped = tested.getBackoffInMs(10);
+      assertTrue(capped >= 50 && capped <= 100);
+    }
+  }
+}
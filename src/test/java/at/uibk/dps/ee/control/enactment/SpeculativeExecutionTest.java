@@ -0,0 +1,75 @@
+package at.uibk.dps.ee.control.enactment;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class SpeculativeExecutionTest {
+
+  @Test
+  void testThreshold() {
+    SpeculativeExecution tested =
+        new SpeculativeExecution(mock(SpecificationProvider.class), new ResourceCapacityTracker(""),
+            50, 2);
+    Task original = new Task("task");
+    Task offspring = new Task("task_0");
+    offspring.setParent(original);
+    assertTrue(tested.getStragglerThreshold(offspring).isEmpty());
+    tested.recordRuntime(original, 1000);
+    assertTrue(tested.getStragglerThreshold(offspring).isEmpty());
+    tested.recordRuntime(offspring, 1000);
+    assertEquals(1000, tested.getStragglerThreshold(offspring).getAsLong());
+  }
+
+  @Test
+  void testDisabled() {
+    SpeculativeExecution tested =
+        new SpeculativeExecution(mock(SpecificationProvider.class), new ResourceCapacityTracker(""),
+            0, 0);
+    Task task = new Task("task");
+    tested.recordRuntime(task, 1000);
+    assertFalse(tested.isEnabled());
+    assertTrue(tested.getStragglerThreshold(task).isEmpty());
+  }
+
+  @Test
+  void testAlternativeMapping() {
+    Task task = new Task("task");
+    Mapping<Task, Resource> m1 = new Mapping<>("m1", task, new Resource("res1"));
+    Mapping<Task, Resource> m2 = new Mapping<>("m2", task, new Resource("res2"));
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(m1);
+    mappings.addMapping(m2);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(mappings);
+    SpeculativeExecution tested =
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker(""), 90, 1);
+    assertEquals(m2, tested.getAlternativeMapping(task, Set.of(m1.getTarget())).get());
+    assertTrue(
+        tested.getAlternativeMapping(task, Set.of(m1.getTarget(), m2.getTarget())).isEmpty());
+  }
+
+  @Test
+  void testNoAlternativeWithLimitedCapacity() {
+    Task task = new Task("task");
+    Mapping<Task, Resource> m1 = new Mapping<>("m1", task, new Resource("res1"));
+    Mapping<Task, Resource> m2 = new Mapping<>("m2", task, new Resource("res2"));
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(m1);
+    mappings.addMapping(m2);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(mappings);
+    SpeculativeExecution tested =
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker("res2=1"), 90, 1);
+    // the duplicate would bypass the capacity accounting of res2
+    assertTrue(tested.getAlternativeMapping(task, Set.of(m1.getTarget())).isEmpty());
+  }
+}
@@ -4,13 +4,19 @@ import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.offload.InvocationExecutorEventLoop;
+import at.uibk.dps.ee.control.scheduling.ResourceCapacityTracker;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
 import at.uibk.dps.ee.control.verticles.WorkerException;
 import at.uibk.dps.ee.core.function.EnactmentFunction;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.sc.core.ScheduleModel;
 import at.uibk.dps.sc.core.interpreter.ScheduleInterpreter;
 import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import net.sf.opendse.model.Mapping;
@@ -20,6 +26,9 @@ import net.sf.opendse.model.Task;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
+import static org.mockito.ArgumentMatchers.anyLong;
+import org.mockito.ArgumentCaptor;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -29,7 +38,17 @@ class WorkerEnactmentTest {
 
     public MockWorker(SpecificationProvider specProvider, PostEnactment postEnactment,
         ScheduleModel scheduleModel, ScheduleInterpreter interpreter) {
-      super(specProvider, postEnactment, scheduleModel, interpreter);
+      this(specProvider, postEnactment, scheduleModel, interpreter,
+          new SpeculativeExecution(specProvider, new ResourceCapacityTracker(""), 0, 0),
+          new RetryPolicy(0, 0, 0, 0, false, ""));
+    }
+
+    public MockWorker(SpecificationProvider specProvider, PostEnactment postEnactment,
+        ScheduleModel scheduleModel, ScheduleInterpreter interpreter,
+        SpeculativeExecution speculation, RetryPolicy retryPolicy) {
+      super(specProvider, postEnactment, scheduleModel, interpreter,
+          new EnactmentAdmission(0, 0, 0, 0), speculation, retryPolicy,
+          new InvocationExecutorEventLoop());
     }
 
     public void setVertx(Vertx vertx) {
@@ -77,6 +96,140 @@ class WorkerEnactmentTest {
     }
   }
 
+  /**
+   * Tests that a straggler is duplicated and that only the first result is
+   * processed.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testSpeculation() throws WorkerException {
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+    Mapping<Task, Resource> m1 = new Mapping<>("m1", functionTask, res1);
+    Mapping<Task, Resource> m2 = new Mapping<>("m2", functionTask, res2);
+    schedule.add(m1);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(m1);
+    mappings.addMapping(m2);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(mappings);
+    SpeculativeExecution speculation =
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker(""), 90, 1);
+    speculation.recordRuntime(functionTask, 1_000_000L);
+
+    Promise<JsonObject> slowResult = Promise.promise();
+    when(function.processInput(input)).thenReturn(slowResult.future());
+    EnactmentFunction alternative = mock(EnactmentFunction.class);
+    when(alternative.processInput(input)).thenReturn(Future.succeededFuture(result));
+    when(scheduleInterpreter.interpretSchedule(functionTask, Set.of(m2))).thenReturn(alternative);
+
+    MockWorker speculating = new MockWorker(specProv, postEnactment, scheduleModel,
+        scheduleInterpreter, speculation, new RetryPolicy(0, 0, 0, 0, false, ""));
+    Vertx vertx = mock(Vertx.class);
+    when(vertx.eventBus()).thenReturn(eBus);
+    speculating.setVertx(vertx);
+    speculating.work(functionTask);
+
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx).setTimer(anyLong(), captor.capture());
+    captor.getValue().handle(1L);
+    verify(alternative).processInput(input);
+    verify(postEnactment).postEnactmentTreatment(functionTask, eBus);
+    // the late result of the straggler is ignored
+    slowResult.complete(new JsonObject());
+    verify(postEnactment, times(1)).postEnactmentTreatment(functionTask, eBus);
+    assertEquals(result, PropertyServiceFunction.getOutput(functionTask));
+  }
+
+  /**
+   * Tests that a failed invocation is retried after the backoff.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testRetry() throws WorkerException {
+    when(function.processInput(input)).thenReturn(Future.failedFuture(new Exception("transient")),
+        Future.succeededFuture(result));
+    Vertx vertx = mock(Vertx.class);
+    when(vertx.eventBus()).thenReturn(eBus);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    MockWorker retrying = new MockWorker(specProv, postEnactment, scheduleModel,
+        scheduleInterpreter,
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker(""), 0, 0),
+        new RetryPolicy(0, 1, 10, 100, false, ""));
+    retrying.setVertx(vertx);
+    retrying.work(functionTask);
+
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx).setTimer(anyLong(), captor.capture());
+    verify(postEnactment, times(0)).postEnactmentTreatment(functionTask, eBus);
+    captor.getValue().handle(1L);
+    verify(function, times(2)).processInput(input);
+    verify(postEnactment).postEnactmentTreatment(functionTask, eBus);
+  }
+
+  /**
+   * Tests that the retries on alternative mappings do not return to the
+   * resources which were already tried.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testRescheduleOnRetry() throws WorkerException {
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+    Mapping<Task, Resource> m1 = new Mapping<>("m1", functionTask, res1);
+    Mapping<Task, Resource> m2 = new Mapping<>("m2", functionTask, res2);
+    schedule.add(m1);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(m1);
+    mappings.addMapping(m2);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(mappings);
+    when(function.processInput(input)).thenReturn(Future.failedFuture(new Exception("fail")));
+    EnactmentFunction alternative = mock(EnactmentFunction.class);
+    when(alternative.processInput(input)).thenReturn(Future.failedFuture(new Exception("fail")),
+        Future.succeededFuture(result));
+    when(scheduleInterpreter.interpretSchedule(functionTask, Set.of(m2))).thenReturn(alternative);
+    Vertx vertx = mock(Vertx.class);
+    when(vertx.eventBus()).thenReturn(eBus);
+    MockWorker retrying = new MockWorker(specProv, postEnactment, scheduleModel,
+        scheduleInterpreter,
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker(""), 0, 0),
+        new RetryPolicy(0, 2, 10, 100, true, ""));
+    retrying.setVertx(vertx);
+    retrying.work(functionTask);
+
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx).setTimer(anyLong(), captor.capture());
+    captor.getValue().handle(1L);
+    verify(vertx, times(2)).setTimer(anyLong(), captor.capture());
+    captor.getValue().handle(2L);
+    // both retries use the alternative resource
+    verify(function, times(1)).processInput(input);
+    verify(alternative, times(2)).processInput(input);
+    verify(postEnactment).postEnactmentTreatment(functionTask, eBus);
+  }
+
+  /**
+   * Tests that the failure is reported once the retries are exhausted.
+   */
+  @Test
+  void testRetriesExhausted() throws WorkerException {
+    when(function.processInput(input)).thenReturn(Future.failedFuture(new Exception("fail")));
+    Vertx vertx = mock(Vertx.class);
+    when(vertx.eventBus()).thenReturn(eBus);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    MockWorker failing = new MockWorker(specProv, postEnactment, scheduleModel,
+        scheduleInterpreter,
+        new SpeculativeExecution(specProv, new ResourceCapacityTracker(""), 0, 0),
+        new RetryPolicy(0, 0, 10, 100, false, ""));
+    failing.setVertx(vertx);
+    failing.work(functionTask);
+    JsonObject failure = new JsonObject();
+    failure.addProperty(ConstantsVertX.failureKeyTaskId, functionTask.getId());
+    failure.addProperty(ConstantsVertX.failureKeyMessage, "fail");
+    verify(eBus).publish(ConstantsVertX.addressFailureTask, failure);
+  }
+
   @BeforeEach
   void setup() {
     postEnactment = mock(PostEnactment.class);
@@ -0,0 +1,122 @@
+package at.uibk.dps.ee.control.extraction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import edu.uci.ics.jung.graph.util.EdgeType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+public class LeafNodeTrackerTest {
+
+  @Test
+  public void testCompletion() {
+    Task function = new Task("function");
+    Communication leaf1 = new Communication("leaf1");
+    Communication leaf2 = new Communication("leaf2");
+    Communication inner = new Communication("inner");
+    PropertyServiceData.makeLeaf(leaf1);
+    PropertyServiceData.makeLeaf(leaf2);
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addEdge(new Dependency("d1"), inner, function, EdgeType.DIRECTED);
+    eGraph.addEdge(new Dependency("d2"), function, leaf1, EdgeType.DIRECTED);
+    eGraph.addEdge(new Dependency("d3"), function, leaf2, EdgeType.DIRECTED);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(eGraph);
+
+    LeafNodeTracker tested = new LeafNodeTracker(specProv);
+    assertEquals(2, tested.getLeafNodes().size());
+    assertFalse(tested.registerAvailableData(inner));
+    assertFalse(tested.registerAvailableData(leaf1));
+    // repeated registration does not count
+    assertFalse(tested.registerAvailableData(leaf1));
+    assertTrue(tested.registerAvailableData(leaf2));
+    // completion is reported once
+    assertFalse(tested.registerAvailableData(leaf2));
+  }
+
+  @Test
+  public void testModelModification() {
+    Task function = new Task("function");
+    Communication leaf1 = new Communication("leaf1");
+    PropertyServiceData.makeLeaf(leaf1);
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addEdge(new Dependency("d1"), function, leaf1, EdgeType.DIRECTED);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(eGraph);
+    LeafNodeTracker tested = new LeafNodeTracker(specProv);
+
+    Communication leaf2 = new Communication("leaf2");
+    PropertyServiceData.makeLeaf(leaf2);
+    eGraph.addEdge(new Dependency("d2"), function, leaf2, EdgeType.DIRECTED);
+    PropertyServiceData.setContent(leaf2, new JsonPrimitive(42));
+    assertFalse(tested.updateLeafNodes(Set.of(function, leaf2)));
+    assertEquals(2, tested.getLeafNodes().size());
+    assertTrue(tested.registerAvailableData(leaf1));
+  }
+
+  @Test
+  public void testDataDuringUpdate() {
+    Task function = new Task("function");
+    Communication leaf1 = new Communication("leaf1");
+    PropertyServiceData.makeLeaf(leaf1);
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addEdge(new Dependency("d1"), function, leaf1, EdgeType.DIRECTED);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(eGraph);
+    LeafNodeTracker tested = new LeafNodeTracker(specProv);
+
+    // the data arrives before the update, the registration after it
+    PropertyServiceData.setContent(leaf1, new JsonPrimitive(42));
+    assertTrue(tested.updateLeafNodes(Set.of(leaf1)));
+    assertFalse(tested.registerAvailableData(leaf1));
+  }
+
+  @Test
+  public void testCompletionByUpdate() {
+    Task function = new Task("function");
+    Communication leaf1 = new Communication("leaf1");
+    Communication leaf2 = new Communication("leaf2");
+    PropertyServiceData.makeLeaf(leaf1);
+    PropertyServiceData.makeLeaf(leaf2);
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addEdge(new Dependency("d1"), function, leaf1, EdgeType.DIRECTED);
+    eGraph.addEdge(new Dependency("d2"), function, leaf2, EdgeType.DIRECTED);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(eGraph);
+    LeafNodeTracker tested = new LeafNodeTracker(specProv);
+    assertFalse(tested.registerAvailableData(leaf1));
+
+    // removing the outstanding leaf completes the workflow
+    eGraph.removeVertex(leaf2);
+    assertTrue(tested.updateLeafNodes(Set.of(leaf2)));
+    assertEquals(1, tested.getLeafNodes().size());
+  }
+
+  @Test
+  public void testReset() {
+    Task function = new Task("function");
+    Communication leaf1 = new Communication("leaf1");
+    PropertyServiceData.makeLeaf(leaf1);
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addEdge(new Dependency("d1"), function, leaf1, EdgeType.DIRECTED);
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(eGraph);
+    LeafNodeTracker tested = new LeafNodeTracker(specProv);
+    assertTrue(tested.registerAvailableData(leaf1));
+
+    PropertyServiceData.resetContent(leaf1);
+    tested.reset();
+    // the completion of the next enactment is reported again
+    assertTrue(tested.registerAvailableData(leaf1));
+  }
+}
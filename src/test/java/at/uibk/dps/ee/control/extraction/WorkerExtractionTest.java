@@ -11,6 +11,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
 import at.uibk.dps.ee.control.verticles.WorkerException;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
@@ -28,7 +29,7 @@ public class WorkerExtractionTest {
 
   protected class ExtractionMock extends WorkerExtraction {
     public ExtractionMock(SpecificationProvider specProvider) {
-      super(specProvider);
+      super(specProvider, new LeafNodeTracker(specProvider), new TaskMessenger(false));
     }
 
     public void setVertX(Vertx vertx) {
@@ -46,7 +47,8 @@ public class WorkerExtractionTest {
     eGraph.addEdge(dep, finished, dataNode, EdgeType.DIRECTED);
     SpecificationProvider specProv = mock(SpecificationProvider.class);
     when(specProv.getEnactmentGraph()).thenReturn(eGraph);
-    WorkerExtraction tested = new WorkerExtraction(specProv);
+    WorkerExtraction tested = new WorkerExtraction(specProv, new LeafNodeTracker(specProv),
+        new TaskMessenger(false));
     PropertyServiceFunction.setOutput(finished, new JsonObject());
     try {
       tested.work(finished);
@@ -119,7 +121,7 @@ public class WorkerExtractionTest {
     }
     assertEquals(content, PropertyServiceData.getContent(dataNode));
     verify(busMock).send(ConstantsVertX.addressDataAvailable, dataNode.getId());
-    verify(busMock).publish(ConstantsVertX.addressWorkflowResultAvailable, result.toString());
+    verify(busMock).publish(ConstantsVertX.addressWorkflowResultAvailable, result);
   }
 
   @Test
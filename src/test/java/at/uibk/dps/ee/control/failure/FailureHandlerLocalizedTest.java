@@ -0,0 +1,137 @@
+package at.uibk.dps.ee.control.failure;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.locks.StripedLock;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.EventBus;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+class FailureHandlerLocalizedTest {
+
+  FailureHandlerLocalized tested;
+  LockStriping lockStriping;
+
+  Promise<JsonObject> promise;
+  Vertx vertx;
+  EventBus eBus;
+
+  Task failed;
+  Task result;
+  Task downstream;
+  Task other;
+  Dependency inEdge;
+  Dependency outEdge;
+  Dependency resultEdge;
+  Dependency otherEdge;
+
+  @Test
+  void testRelaunch() {
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    verify(eBus).send(ConstantsVertX.addressTaskLaunchable, failed.getId());
+    verify(vertx, never()).close();
+
+    assertTrue(PropertyServiceDependency.isTransmissionDone(inEdge));
+    assertTrue(PropertyServiceDependency.isTransmissionDone(otherEdge));
+    assertFalse(PropertyServiceDependency.isTransmissionDone(outEdge));
+    assertFalse(PropertyServiceDependency.isTransmissionDone(resultEdge));
+    assertFalse(PropertyServiceData.isDataAvailable(result));
+    assertTrue(PropertyServiceData.isDataAvailable(other));
+    assertFalse(PropertyServiceFunction.isInputSet(downstream));
+    assertTrue(PropertyServiceFunction.isInputSet(failed));
+  }
+
+  @Test
+  void testAttemptsExhausted() {
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    verify(promise).tryFail("stuff failed");
+    verify(vertx).close();
+  }
+
+  @Test
+  void testSuccessResetsAttempts() {
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    tested.handleTaskSuccess(failed);
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    verify(eBus, times(2)).send(ConstantsVertX.addressTaskLaunchable, failed.getId());
+    verify(vertx, never()).close();
+  }
+
+  @Test
+  void testRelaunchAfterLockRelease() {
+    Promise<StripedLock> held = Promise.promise();
+    lockStriping.lockRegion(() -> Set.of(downstream)).onSuccess(held::complete);
+    tested.handleTaskFailure(failed.getId(), "stuff failed", promise, vertx);
+    // the region is locked by another operation
+    verify(eBus, never()).send(ConstantsVertX.addressTaskLaunchable, failed.getId());
+    assertTrue(PropertyServiceData.isDataAvailable(result));
+    held.future().result().release();
+    verify(eBus).send(ConstantsVertX.addressTaskLaunchable, failed.getId());
+    assertFalse(PropertyServiceData.isDataAvailable(result));
+  }
+
+  @Test
+  void testUnknownTask() {
+    tested.handleTaskFailure("unknown", "stuff failed", promise, vertx);
+    verify(promise).tryFail("stuff failed");
+    verify(vertx).close();
+  }
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setup() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task input = new Communication("input");
+    failed = new Task("failed");
+    result = new Communication("result");
+    other = new Communication("other");
+    downstream = new Task("downstream");
+    inEdge = PropertyServiceDependency.addDataDependency(input, failed, "in", graph);
+    outEdge = PropertyServiceDependency.addDataDependency(failed, result, "out", graph);
+    resultEdge = PropertyServiceDependency.addDataDependency(result, downstream, "in1", graph);
+    otherEdge = PropertyServiceDependency.addDataDependency(other, downstream, "in2", graph);
+    PropertyServiceDependency.annotateFinishedTransmission(inEdge);
+    PropertyServiceDependency.annotateFinishedTransmission(otherEdge);
+    // state left behind by the failed enactment
+    PropertyServiceDependency.annotateFinishedTransmission(outEdge);
+    PropertyServiceDependency.annotateFinishedTransmission(resultEdge);
+    PropertyServiceData.setContent(result, new JsonPrimitive(42));
+    PropertyServiceData.setContent(other, new JsonPrimitive(1));
+    PropertyServiceFunction.setInput(failed, new JsonObject());
+    PropertyServiceFunction.setInput(downstream, new JsonObject());
+
+    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    when(specProv.getEnactmentGraph()).thenReturn(graph);
+    lockStriping = new LockStriping(1, new EnactmentLockProviderLocal());
+    tested = new FailureHandlerLocalized(specProv, new TaskMessenger(false),
+        new PendingInputCounter(), lockStriping, 1);
+    promise = mock(Promise.class);
+    vertx = mock(Vertx.class);
+    eBus = mock(EventBus.class);
+    when(vertx.eventBus()).thenReturn(eBus);
+  }
+}
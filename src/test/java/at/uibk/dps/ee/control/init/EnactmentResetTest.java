@@ -0,0 +1,78 @@
+package at.uibk.dps.ee.control.init;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.extraction.LeafNodeTracker;
+import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.scheduling.SchedulingBatcher;
+import at.uibk.dps.ee.control.scheduling.WaitingTaskIndex;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.sc.core.ScheduleModel;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+class EnactmentResetTest {
+
+  /**
+   * Tests that the reset restores the graph and clears the enactment state.
+   */
+  @Test
+  void testReset() {
+    EnactmentGraph graph = new EnactmentGraph();
+    Task function = new Task("function");
+    Communication output = new Communication("output");
+    PropertyServiceDependency.addDataDependency(function, output, "key", graph);
+    SpecificationProvider specProvider = mock(SpecificationProvider.class);
+    when(specProvider.getEnactmentGraph()).thenReturn(graph);
+    ScheduleModel schedule = mock(ScheduleModel.class);
+    PendingInputCounter pendingInputs = mock(PendingInputCounter.class);
+    LeafNodeTracker leafNodeTracker = mock(LeafNodeTracker.class);
+    ScopeRegistry scopeRegistry = mock(ScopeRegistry.class);
+    FailureHandler failureHandler = mock(FailureHandler.class);
+    SchedulingBatcher batcher = mock(SchedulingBatcher.class);
+    WaitingTaskIndex waitingTasks = mock(WaitingTaskIndex.class);
+    InFlightCounter inFlight = new InFlightCounter();
+    EnactmentReset tested = new EnactmentReset(specProvider, schedule, pendingInputs,
+        leafNodeTracker, scopeRegistry, failureHandler, batcher, waitingTasks,
+        new LockStriping(1, new EnactmentLockProviderLocal()), inFlight);
+
+    Task offspring = new Task("offspring");
+    PropertyServiceDependency.addDataDependency(offspring, output, "key", graph);
+    PropertyServiceData.setContent(output, new JsonPrimitive(42));
+    when(schedule.isScheduled(function)).thenReturn(true);
+    when(schedule.isScheduled(offspring)).thenReturn(true);
+    // an operation of the previous enactment is still in flight
+    inFlight.begin();
+    Future<Void> reset = tested.reset();
+    assertFalse(reset.isComplete());
+    assertTrue(graph.containsVertex(offspring));
+    verify(leafNodeTracker, never()).reset();
+    inFlight.end();
+    assertTrue(reset.succeeded());
+
+    verify(schedule).resetTaskSchedule(function);
+    verify(schedule).resetTaskSchedule(offspring);
+    verify(schedule, never()).resetTaskSchedule(output);
+    assertFalse(graph.containsVertex(offspring));
+    assertFalse(PropertyServiceData.isDataAvailable(output));
+    verify(pendingInputs).invalidateAll();
+    verify(scopeRegistry).clear();
+    verify(leafNodeTracker).reset();
+    verify(failureHandler).reset();
+    verify(batcher).reset();
+    verify(waitingTasks).clear();
+  }
+}
@@ -0,0 +1,78 @@
+package at.uibk.dps.ee.control.init;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceData;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class GraphSnapshotTest {
+
+  EnactmentGraph graph;
+  Communication input;
+  Task function;
+  Communication output;
+  Dependency inEdge;
+  Dependency outEdge;
+
+  /**
+   * Tests that the annotations made during the enactment are reset.
+   */
+  @Test
+  void testRestoreAttributes() {
+    JsonObject content = new JsonObject();
+    content.addProperty("key", 1);
+    PropertyServiceData.setContent(input, content);
+    GraphSnapshot tested = new GraphSnapshot(graph);
+
+    content.addProperty("key", 2);
+    PropertyServiceDependency.annotateFinishedTransmission(inEdge);
+    PropertyServiceData.setContent(output, new JsonPrimitive(42));
+    function.setAttribute("addedAttribute", "value");
+    tested.restore(graph);
+
+    assertEquals(1, PropertyServiceData.getContent(input).getAsJsonObject().get("key").getAsInt());
+    assertFalse(PropertyServiceDependency.isTransmissionDone(inEdge));
+    assertFalse(PropertyServiceData.isDataAvailable(output));
+    assertNull(function.getAttribute("addedAttribute"));
+  }
+
+  /**
+   * Tests that the structural changes made by transformations are undone.
+   */
+  @Test
+  void testRestoreStructure() {
+    GraphSnapshot tested = new GraphSnapshot(graph);
+
+    // replace the function by an equal object, add an offspring
+    graph.removeVertex(function);
+    Task replacement = new Task("function");
+    Task offspring = new Task("offspring");
+    PropertyServiceDependency.addDataDependency(input, replacement, "key", graph);
+    PropertyServiceDependency.addDataDependency(input, offspring, "key", graph);
+    tested.restore(graph);
+
+    assertEquals(3, graph.getVertexCount());
+    assertEquals(2, graph.getEdgeCount());
+    assertNull(graph.getVertex("offspring"));
+    assertSame(function, graph.getVertex("function"));
+    assertSame(function, graph.getDest(inEdge));
+    assertSame(function, graph.getSource(outEdge));
+  }
+
+  @BeforeEach
+  void setUp() {
+    graph = new EnactmentGraph();
+    input = new Communication("input");
+    function = new Task("function");
+    output = new Communication("output");
+    inEdge = PropertyServiceDependency.addDataDependency(input, function, "input", graph);
+    outEdge = PropertyServiceDependency.addDataDependency(function, output, "output", graph);
+  }
+}
@@ -0,0 +1,30 @@
+package at.uibk.dps.ee.control.init;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Future;
+
+class InFlightCounterTest {
+
+  @Test
+  void testQuiescence() {
+    InFlightCounter tested = new InFlightCounter();
+    assertTrue(tested.whenQuiescent().succeeded());
+    tested.begin();
+    tested.begin();
+    Future<Void> quiescent = tested.whenQuiescent();
+    tested.end();
+    assertFalse(quiescent.isComplete());
+    tested.end();
+    assertTrue(quiescent.succeeded());
+    assertEquals(0, tested.getInFlight());
+  }
+
+  @Test
+  void testUnbalancedEnd() {
+    InFlightCounter tested = new InFlightCounter();
+    assertThrows(IllegalStateException.class, () -> {
+      tested.end();
+    });
+  }
+}
@@ -0,0 +1,53 @@
+package at.uibk.dps.ee.control.locks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Future;
+import io.vertx.core.shareddata.Lock;
+
+class EnactmentLockProviderLocalTest {
+
+  EnactmentLockProviderLocal tested;
+
+  /**
+   * Tests that an uncontended lock is granted immediately.
+   */
+  @Test
+  void testUncontended() {
+    Future<Lock> lockFuture = tested.getLock("lock");
+    assertTrue(lockFuture.succeeded());
+    lockFuture.result().release();
+    assertTrue(tested.getLock("lock").succeeded());
+  }
+
+  /**
+   * Tests that the waiters are granted the lock in FIFO order.
+   */
+  @Test
+  void testContended() {
+    List<String> order = new ArrayList<>();
+    Lock first = tested.getLock("lock").result();
+    Future<Lock> second = tested.getLock("lock");
+    Future<Lock> third = tested.getLock("lock");
+    second.onSuccess(lock -> order.add("second"));
+    third.onSuccess(lock -> order.add("third"));
+    assertFalse(second.isComplete());
+    assertFalse(third.isComplete());
+    assertTrue(tested.getLock("other").succeeded());
+    first.release();
+    assertTrue(second.succeeded());
+    assertFalse(third.isComplete());
+    second.result().release();
+    assertTrue(third.succeeded());
+    assertEquals("second", order.get(0));
+    assertEquals("third", order.get(1));
+  }
+
+  @BeforeEach
+  void setup() {
+    tested = new EnactmentLockProviderLocal();
+  }
+}
@@ -0,0 +1,106 @@
+package at.uibk.dps.ee.control.locks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import net.sf.opendse.model.Task;
+
+class LockStripingTest {
+
+  LockStriping tested;
+  Set<Task> region;
+
+  /**
+   * Tests that the stripes are within the configured range.
+   */
+  @Test
+  void testGetStripes() {
+    SortedSet<Integer> stripes = tested.getStripes(region);
+    assertFalse(stripes.isEmpty());
+    assertTrue(stripes.size() <= 4);
+    stripes.forEach(stripe -> assertTrue(stripe >= 0 && stripe < 4));
+    assertEquals(tested.getStripe(new Task("t1")), tested.getStripe(new Task("t1")));
+  }
+
+  /**
+   * Tests that the lock of a region is only granted once the lock held on the
+   * same region is released.
+   */
+  @Test
+  void testLockRegion() throws InterruptedException {
+    CountDownLatch firstLatch = new CountDownLatch(1);
+    CountDownLatch secondLatch = new CountDownLatch(1);
+    StripedLock[] firstLock = new StripedLock[1];
+    tested.lockRegion(() -> region).onSuccess(lock -> {
+      firstLock[0] = lock;
+      firstLatch.countDown();
+    });
+    assertTrue(firstLatch.await(1, TimeUnit.SECONDS));
+    assertEquals(region, firstLock[0].getRegion());
+    tested.lockRegion(() -> region).onSuccess(lock -> {
+      lock.release();
+      secondLatch.countDown();
+    });
+    assertFalse(secondLatch.await(200, TimeUnit.MILLISECONDS));
+    firstLock[0].release();
+    assertTrue(secondLatch.await(1, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Tests that the graph structure is not read while it is modified and that the
+   * reader is continued (instead of blocked) once the modification is finished.
+   */
+  @Test
+  void testReadDuringModification() {
+    Promise<Void> modification = Promise.promise();
+    Future<Void> modified = tested.modifyGraphAsync(() -> modification.future());
+    Future<Set<Task>> read = tested.readGraph(() -> region);
+    assertFalse(read.isComplete());
+    modification.complete();
+    assertTrue(modified.succeeded());
+    assertEquals(region, read.result());
+  }
+
+  /**
+   * Tests that the exclusive access is released if the modification fails.
+   */
+  @Test
+  void testFailedModification() {
+    Future<Void> modified = tested.modifyGraph(() -> {
+      throw new IllegalStateException("modification failed");
+    });
+    assertTrue(modified.failed());
+    assertTrue(tested.readGraph(() -> region).succeeded());
+  }
+
+  /**
+   * Tests that a region is only locked once the modification of the graph
+   * structure is finished.
+   */
+  @Test
+  void testLockRegionDuringModification() {
+    Promise<Void> modification = Promise.promise();
+    tested.modifyGraphAsync(() -> modification.future());
+    Future<StripedLock> lock = tested.lockRegion(() -> region);
+    assertFalse(lock.isComplete());
+    modification.complete();
+    assertEquals(region, lock.result().getRegion());
+    lock.result().release();
+  }
+
+  @BeforeEach
+  void setup() {
+    tested = new LockStriping(4, new EnactmentLockProviderLocal());
+    region = new HashSet<>();
+    region.add(new Task("t1"));
+    region.add(new Task("t2"));
+    region.add(new Task("t3"));
+  }
+}
@@ -0,0 +1,59 @@
+package at.uibk.dps.ee.control.locks;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Future;
+
+class StructureLockTest {
+
+  StructureLock tested;
+
+  /**
+   * Tests that shared access is granted to multiple readers at once.
+   */
+  @Test
+  void testSharedAccess() {
+    assertTrue(tested.acquireShared().succeeded());
+    assertTrue(tested.acquireShared().succeeded());
+    Future<Void> writer = tested.acquireExclusive();
+    assertFalse(writer.isComplete());
+    tested.releaseShared();
+    assertFalse(writer.isComplete());
+    tested.releaseShared();
+    assertTrue(writer.succeeded());
+  }
+
+  /**
+   * Tests that readers arriving after a waiting writer are granted after it.
+   */
+  @Test
+  void testWriterNotStarved() {
+    tested.acquireShared();
+    Future<Void> writer = tested.acquireExclusive();
+    Future<Void> reader1 = tested.acquireShared();
+    Future<Void> reader2 = tested.acquireShared();
+    assertFalse(reader1.isComplete());
+    tested.releaseShared();
+    assertTrue(writer.succeeded());
+    assertFalse(reader1.isComplete());
+    tested.releaseExclusive();
+    // all readers queued up to the next writer are granted together
+    assertTrue(reader1.succeeded());
+    assertTrue(reader2.succeeded());
+  }
+
+  /**
+   * Tests that releasing an access which is not held fails.
+   */
+  @Test
+  void testReleaseNotHeld() {
+    assertThrows(IllegalStateException.class, () -> tested.releaseShared());
+    assertThrows(IllegalStateException.class, () -> tested.releaseExclusive());
+  }
+
+  @BeforeEach
+  void setup() {
+    tested = new StructureLock();
+  }
+}
@@ -0,0 +1,24 @@
+package at.uibk.dps.ee.control.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+class EnactmentMetricsInMemoryTest {
+
+  @Test
+  void testSnapshot() {
+    EnactmentMetricsInMemory tested = new EnactmentMetricsInMemory();
+    tested.countMessage("address");
+    tested.countMessage("address");
+    tested.recordTime(MetricNames.timerEnactment, 1000);
+    tested.setQueueLength(MetricNames.queueWaitingList, 3);
+    tested.setQueueLength(MetricNames.queueWaitingList, 2);
+    MetricsSnapshot snapshot = tested.getSnapshot();
+    assertEquals(2L, snapshot.getMessageCounts().get("address").longValue());
+    assertTrue(snapshot.getMessageRate("address") > 0);
+    assertEquals(0, snapshot.getMessageRate("other"), 0.0);
+    assertEquals(1, snapshot.getTimers().get(MetricNames.timerEnactment).getCount());
+    assertEquals(2, snapshot.getQueueLengths().get(MetricNames.queueWaitingList).intValue());
+  }
+}
@@ -0,0 +1,40 @@
+package at.uibk.dps.ee.control.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+class LatencyHistogramTest {
+
+  @Test
+  void testSummary() {
+    LatencyHistogram tested = new LatencyHistogram();
+    for (int i = 0; i < 99; i++) {
+      tested.record(100);
+    }
+    tested.record(5000);
+    TimerSummary summary = tested.getSummary();
+    assertEquals(100, summary.getCount());
+    assertEquals(149.0, summary.getMeanNanos(), 0.001);
+    // 100 is in the bucket [64, 128)
+    assertEquals(127, summary.getP50Nanos());
+    assertEquals(127, summary.getP99Nanos());
+    assertEquals(5000, summary.getMaxNanos());
+  }
+
+  @Test
+  void testEmpty() {
+    TimerSummary summary = new LatencyHistogram().getSummary();
+    assertEquals(0, summary.getCount());
+    assertEquals(0, summary.getP99Nanos());
+  }
+
+  @Test
+  void testBucket() {
+    assertEquals(0, LatencyHistogram.getBucket(0));
+    assertEquals(0, LatencyHistogram.getBucket(1));
+    assertEquals(1, LatencyHistogram.getBucket(2));
+    assertEquals(1, LatencyHistogram.getBucket(3));
+    assertEquals(10, LatencyHistogram.getBucket(1024));
+    assertEquals(62, LatencyHistogram.getBucket(Long.MAX_VALUE));
+  }
+}
@@ -0,0 +1,44 @@
+package at.uibk.dps.ee.control.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import net.sf.opendse.model.Task;
+
+class StallDetectorTest {
+
+  /**
+   * Tests that long executions are reported once with their handler.
+   */
+  @Test
+  void testCheckExecutions() {
+    StallDetector tested = new StallDetector(10);
+    EnactmentMetrics metrics = mock(EnactmentMetrics.class);
+    tested.setMetrics(metrics);
+    long start = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(20);
+    tested.executions.put(Thread.currentThread(),
+        new StallDetector.Execution("handler", "task", start));
+    // started just now (in the future to avoid timing issues)
+    long recent = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+    tested.executions.put(new Thread(), new StallDetector.Execution("fast", "task", recent));
+    tested.checkExecutions();
+    tested.checkExecutions();
+    verify(metrics, times(1)).countMessage(MetricNames.stalls("handler"));
+    verify(metrics, times(0)).countMessage(MetricNames.stalls("fast"));
+  }
+
+  /**
+   * Tests that only executions on event loop threads are tracked.
+   */
+  @Test
+  void testTrackOutsideEventLoop() {
+    StallDetector tested = new StallDetector(10);
+    try (StallDetector.Tracking tracking = tested.track("handler", new Task("task"))) {
+      assertTrue(tested.executions.isEmpty());
+    }
+    assertNull(tested.watchdog);
+  }
+}
@@ -0,0 +1,99 @@
+package at.uibk.dps.ee.control.offload;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+
+class InvocationExecutorPooledTest {
+
+  Context context;
+  Thread contextThread;
+
+  /**
+   * Tests that the invocation is performed on a pool thread and that the result
+   * is handed back to the context.
+   */
+  @Test
+  void testExecute() throws InterruptedException, ExecutionException, TimeoutException {
+    InvocationExecutorPooled tested = new InvocationExecutorPooled(2);
+    Thread caller = Thread.currentThread();
+    Future<Thread> result =
+        tested.execute(() -> Future.succeededFuture(Thread.currentThread()), context);
+    Thread invocationThread =
+        result.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS);
+    assertNotSame(caller, invocationThread);
+    assertTrue(invocationThread.isDaemon());
+    assertSame(invocationThread, contextThread);
+  }
+
+  /**
+   * Tests that exceptions thrown by the invocation fail the result.
+   */
+  @Test
+  void testExecuteException() throws InterruptedException {
+    InvocationExecutorPooled tested = new InvocationExecutorPooled(1);
+    Future<Object> result = tested.execute(() -> {
+      throw new IllegalStateException("blocking call failed");
+    }, context);
+    ExecutionException exc = assertThrows(ExecutionException.class,
+        () -> result.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS));
+    assertTrue(exc.getCause() instanceof IllegalStateException);
+  }
+
+  /**
+   * Tests that errors thrown by the invocation fail the result.
+   */
+  @Test
+  void testExecuteError() throws InterruptedException {
+    InvocationExecutorPooled tested = new InvocationExecutorPooled(1);
+    Future<Object> result = tested.execute(() -> {
+      throw new StackOverflowError();
+    }, context);
+    ExecutionException exc = assertThrows(ExecutionException.class,
+        () -> result.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS));
+    assertTrue(exc.getCause() instanceof StackOverflowError);
+  }
+
+  /**
+   * Tests that closing the executor shuts down its threads.
+   */
+  @Test
+  void testClose() {
+    ExecutorService executor = mock(ExecutorService.class);
+    InvocationExecutorPooled tested = new InvocationExecutorPooled(executor);
+    tested.close();
+    verify(executor).shutdown();
+  }
+
+  /**
+   * Tests that the virtual executor can be created on every JVM.
+   */
+  @Test
+  void testVirtualExecutor() throws InterruptedException, ExecutionException, TimeoutException {
+    InvocationExecutorVirtual tested = new InvocationExecutorVirtual(1);
+    Future<Integer> result = tested.execute(() -> Future.succeededFuture(42), context);
+    assertEquals(42, result.toCompletionStage().toCompletableFuture().get(5, TimeUnit.SECONDS));
+  }
+
+  @SuppressWarnings("unchecked")
+  @BeforeEach
+  void setup() {
+    context = mock(Context.class);
+    doAnswer(invocation -> {
+      contextThread = Thread.currentThread();
+      ((Handler<Void>) invocation.getArgument(0)).handle(null);
+      return null;
+    }).when(context).runOnContext(any());
+  }
+}
@@ -0,0 +1,91 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.sc.core.capacity.CapacityLimitException;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.Future;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class BatchSchedulerGroupingTest {
+
+  Scheduler scheduler;
+  BatchSchedulerGrouping tested;
+
+  Task original;
+  Task offspring1;
+  Task offspring2;
+  Resource res1;
+  Resource res2;
+  Mapping<Task, Resource> origMapping;
+  Mapping<Task, Resource> offspringMapping1;
+  Mapping<Task, Resource> offspringMapping2;
+
+  @Test
+  void testGroupScheduledOnce() {
+    when(scheduler.scheduleTask(original)).thenReturn(Future.succeededFuture(Set.of(origMapping)));
+    List<Future<Set<Mapping<Task, Resource>>>> result =
+        tested.scheduleTasks(List.of(original, offspring1));
+    assertEquals(2, result.size());
+    assertEquals(Set.of(origMapping), result.get(0).result());
+    assertEquals(Set.of(offspringMapping1), result.get(1).result());
+    verify(scheduler, never()).scheduleTask(offspring1);
+  }
+
+  @Test
+  void testNotDerivable() {
+    // offspring2 cannot be mapped to res1
+    Future<Set<Mapping<Task, Resource>>> separate =
+        Future.succeededFuture(Set.of(offspringMapping2));
+    when(scheduler.scheduleTask(offspring1))
+        .thenReturn(Future.succeededFuture(Set.of(offspringMapping1)));
+    when(scheduler.scheduleTask(offspring2)).thenReturn(separate);
+    List<Future<Set<Mapping<Task, Resource>>>> result =
+        tested.scheduleTasks(List.of(offspring1, offspring2));
+    assertEquals(Set.of(offspringMapping2), result.get(1).result());
+    verify(scheduler).scheduleTask(offspring2);
+  }
+
+  @Test
+  void testFailedGroupQuery() {
+    CapacityLimitException exc = new CapacityLimitException(original);
+    when(scheduler.scheduleTask(original)).thenReturn(Future.failedFuture(exc));
+    when(scheduler.scheduleTask(offspring1))
+        .thenReturn(Future.succeededFuture(Set.of(offspringMapping1)));
+    List<Future<Set<Mapping<Task, Resource>>>> result =
+        tested.scheduleTasks(List.of(original, offspring1));
+    assertEquals(exc, result.get(0).cause());
+    // the other task of the group is scheduled separately
+    assertEquals(Set.of(offspringMapping1), result.get(1).result());
+  }
+
+  @BeforeEach
+  void setup() {
+    original = new Task("task");
+    offspring1 = new Task("task_1");
+    offspring1.setParent(original);
+    offspring2 = new Task("task_2");
+    offspring2.setParent(original);
+    res1 = new Resource("res1");
+    res2 = new Resource("res2");
+    origMapping = new Mapping<>("m1", original, res1);
+    offspringMapping1 = new Mapping<>("m2", offspring1, res1);
+    offspringMapping2 = new Mapping<>("m3", offspring2, res2);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(origMapping);
+    mappings.addMapping(offspringMapping1);
+    mappings.addMapping(offspringMapping2);
+    scheduler = mock(Scheduler.class);
+    tested = new BatchSchedulerGrouping(scheduler, mappings);
+  }
+}
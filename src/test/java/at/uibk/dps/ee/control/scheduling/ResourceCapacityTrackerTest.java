@@ -0,0 +1,44 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import net.sf.opendse.model.Resource;
+
+class ResourceCapacityTrackerTest {
+
+  @Test
+  void testParse() {
+    assertTrue(ResourceCapacityTracker.parseCapacities("").isEmpty());
+    assertEquals(Map.of("res1", 2, "res2", 5),
+        ResourceCapacityTracker.parseCapacities("res1=2, res2 = 5"));
+    assertThrows(IllegalArgumentException.class, () -> {
+      ResourceCapacityTracker.parseCapacities("res1:2");
+    });
+    assertFalse(new ResourceCapacityTracker("").isEnabled());
+  }
+
+  @Test
+  void testAcquireRelease() {
+    ResourceCapacityTracker tested = new ResourceCapacityTracker("res1=1,res2=2");
+    assertTrue(tested.isEnabled());
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+    Resource untracked = new Resource("res3");
+
+    assertTrue(tested.tryAcquireAll(List.of(res2, res1, untracked)));
+    assertEquals(1, tested.getUsage(res1));
+    // res1 is full, so res2 must not stay acquired
+    assertFalse(tested.tryAcquireAll(List.of(res2, res1)));
+    assertEquals(1, tested.getUsage(res2));
+    assertEquals(0, tested.getUsage(untracked));
+
+    tested.release(res1);
+    assertEquals(0, tested.getUsage(res1));
+    assertThrows(IllegalStateException.class, () -> {
+      tested.release(res1);
+    });
+    tested.release(untracked);
+  }
+}
@@ -0,0 +1,60 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class ScheduleMemoizationTest {
+
+  SpecificationProvider specProv;
+  Task original;
+  Task offspring;
+  Resource res1;
+  Resource res2;
+  Mapping<Task, Resource> origMapping;
+  Mapping<Task, Resource> offspringMapping1;
+  Mapping<Task, Resource> offspringMapping2;
+
+  @Test
+  void testReuse() {
+    ScheduleMemoization tested = new ScheduleMemoization(specProv, true);
+    assertTrue(tested.lookUp(offspring).isEmpty());
+    tested.memorize(original, Set.of(origMapping));
+    assertEquals(Set.of(offspringMapping1), tested.lookUp(offspring).get());
+    Task unrelated = new Task("unrelated");
+    assertTrue(tested.lookUp(unrelated).isEmpty());
+  }
+
+  @Test
+  void testDisabled() {
+    ScheduleMemoization tested = new ScheduleMemoization(specProv, false);
+    tested.memorize(original, Set.of(origMapping));
+    assertTrue(tested.lookUp(offspring).isEmpty());
+  }
+
+  @BeforeEach
+  void setup() {
+    original = new Task("task");
+    offspring = new Task("task_1");
+    offspring.setParent(original);
+    res1 = new Resource("res1");
+    res2 = new Resource("res2");
+    origMapping = new Mapping<>("m1", original, res1);
+    offspringMapping1 = new Mapping<>("m2", offspring, res1);
+    offspringMapping2 = new Mapping<>("m3", offspring, res2);
+    MappingsConcurrent mappings = new MappingsConcurrent();
+    mappings.addMapping(origMapping);
+    mappings.addMapping(offspringMapping1);
+    mappings.addMapping(offspringMapping2);
+    specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(mappings);
+  }
+}
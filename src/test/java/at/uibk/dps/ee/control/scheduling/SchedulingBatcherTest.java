@@ -0,0 +1,135 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
+import at.uibk.dps.ee.model.graph.MappingsConcurrent;
+import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.sc.core.capacity.CapacityLimitException;
+import at.uibk.dps.sc.core.scheduler.Scheduler;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import net.sf.opendse.model.Mapping;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class SchedulingBatcherTest {
+
+  SpecificationProvider specProv;
+
+  @BeforeEach
+  void setup() {
+    specProv = mock(SpecificationProvider.class);
+    when(specProv.getMappings()).thenReturn(new MappingsConcurrent());
+  }
+
+  @Test
+  void testNoWindow() {
+    Scheduler scheduler = mock(Scheduler.class);
+    Vertx vertx = mock(Vertx.class);
+    Task task = new Task("task");
+    Future<Set<Mapping<Task, Resource>>> result = Future.succeededFuture(new HashSet<>());
+    when(scheduler.scheduleTask(task)).thenReturn(result);
+    SchedulingBatcher tested =
+        new SchedulingBatcher(scheduler, specProv, new VertxProvider(vertx), 0);
+    assertEquals(result, tested.scheduleTask(task));
+    verify(vertx, never()).setTimer(anyLong(), any());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void testNoBatchScheduler() {
+    Scheduler scheduler = mock(Scheduler.class);
+    Vertx vertx = mock(Vertx.class);
+    Task task = new Task("task");
+    Set<Mapping<Task, Resource>> mappings = new HashSet<>();
+    when(scheduler.scheduleTask(task)).thenReturn(Future.succeededFuture(mappings));
+    SchedulingBatcher tested =
+        new SchedulingBatcher(scheduler, specProv, new VertxProvider(vertx), 5);
+    assertTrue(tested.batchScheduler instanceof BatchSchedulerGrouping);
+    Future<Set<Mapping<Task, Resource>>> res = tested.scheduleTask(task);
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx).setTimer(eq(5L), captor.capture());
+    captor.getValue().handle(1L);
+    assertEquals(mappings, res.result());
+  }
+
+  @Test
+  void testResetCancelsPending() {
+    BatchScheduler scheduler = mock(BatchScheduler.class);
+    Vertx vertx = mock(Vertx.class);
+    SchedulingBatcher tested =
+        new SchedulingBatcher(scheduler, specProv, new VertxProvider(vertx), 5);
+    Future<Set<Mapping<Task, Resource>>> res = tested.scheduleTask(new Task("task"));
+    tested.reset();
+    assertTrue(res.failed());
+    assertTrue(res.cause() instanceof CancellationException);
+    assertTrue(tested.pending.isEmpty());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void testBatch() {
+    BatchScheduler scheduler = mock(BatchScheduler.class);
+    Vertx vertx = mock(Vertx.class);
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Set<Mapping<Task, Resource>> mappings = new HashSet<>();
+    mappings.add(new Mapping<>("m", t1, new Resource("res")));
+    CapacityLimitException exc = new CapacityLimitException(t2);
+    when(scheduler.scheduleTasks(List.of(t1, t2)))
+        .thenReturn(List.of(Future.succeededFuture(mappings), Future.failedFuture(exc)));
+    SchedulingBatcher tested =
+        new SchedulingBatcher(scheduler, specProv, new VertxProvider(vertx), 5);
+
+    Future<Set<Mapping<Task, Resource>>> res1 = tested.scheduleTask(t1);
+    Future<Set<Mapping<Task, Resource>>> res2 = tested.scheduleTask(t2);
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx, times(1)).setTimer(eq(5L), captor.capture());
+    assertFalse(res1.isComplete());
+
+    captor.getValue().handle(1L);
+    verify(scheduler, never()).scheduleTask(any());
+    assertEquals(mappings, res1.result());
+    assertEquals(exc, res2.cause());
+    assertTrue(tested.pending.isEmpty());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Test
+  void testRepeatedTaskInBatch() {
+    BatchScheduler scheduler = mock(BatchScheduler.class);
+    Vertx vertx = mock(Vertx.class);
+    Task t1 = new Task("t1");
+    Set<Mapping<Task, Resource>> mappings = new HashSet<>();
+    mappings.add(new Mapping<>("m", t1, new Resource("res")));
+    when(scheduler.scheduleTasks(List.of(t1)))
+        .thenReturn(List.of(Future.succeededFuture(mappings)));
+    SchedulingBatcher tested =
+        new SchedulingBatcher(scheduler, specProv, new VertxProvider(vertx), 5);
+
+    Future<Set<Mapping<Task, Resource>>> res1 = tested.scheduleTask(t1);
+    Future<Set<Mapping<Task, Resource>>> res2 = tested.scheduleTask(new Task("t1"));
+    ArgumentCaptor<Handler<Long>> captor = ArgumentCaptor.forClass(Handler.class);
+    verify(vertx).setTimer(eq(5L), captor.capture());
+    captor.getValue().handle(1L);
+    // both requests are completed
+    assertEquals(mappings, res1.result());
+    assertEquals(mappings, res2.result());
+  }
+}
@@ -0,0 +1,46 @@
+package at.uibk.dps.ee.control.scheduling;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import net.sf.opendse.model.Resource;
+import net.sf.opendse.model.Task;
+
+class WaitingTaskIndexTest {
+
+  @Test
+  void testRemoveCandidates() {
+    WaitingTaskIndex tested = new WaitingTaskIndex();
+    Task t1 = new Task("t1");
+    Task t2 = new Task("t2");
+    Task t3 = new Task("t3");
+    Resource res1 = new Resource("res1");
+    Resource res2 = new Resource("res2");
+    assertTrue(tested.isEmpty());
+    tested.add(t1, Set.of(res1, res2));
+    tested.add(t2, Set.of(res2));
+    tested.add(t3, Set.of(res1));
+    assertEquals(3, tested.size());
+
+    assertEquals(List.of(t1, t3), tested.removeCandidates(res1));
+    assertFalse(tested.contains(t1));
+    assertFalse(tested.contains(t3));
+    assertTrue(tested.contains(t2));
+    // t1 is not a candidate for res2 anymore
+    assertEquals(List.of(t2), tested.removeCandidates(res2));
+    assertTrue(tested.isEmpty());
+    assertTrue(tested.removeCandidates(res1).isEmpty());
+  }
+
+  @Test
+  void testClear() {
+    WaitingTaskIndex tested = new WaitingTaskIndex();
+    Task t1 = new Task("t1");
+    Resource res1 = new Resource("res1");
+    tested.add(t1, Set.of(res1));
+    tested.clear();
+    assertTrue(tested.isEmpty());
+    assertTrue(tested.removeCandidates(res1).isEmpty());
+  }
+}
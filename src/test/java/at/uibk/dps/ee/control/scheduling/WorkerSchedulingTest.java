@@ -3,8 +3,12 @@ package at.uibk.dps.ee.control.scheduling;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.locks.EnactmentLockProvider;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
 import at.uibk.dps.ee.control.verticles.WorkerException;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
+import at.uibk.dps.ee.guice.starter.VertxProvider;
 import at.uibk.dps.ee.model.graph.MappingsConcurrent;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.sc.core.ScheduleModel;
@@ -14,18 +18,22 @@ import at.uibk.dps.sc.core.scheduler.Scheduler;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
+import io.vertx.core.shareddata.Lock;
 import net.sf.opendse.model.Resource;
 import net.sf.opendse.model.Mapping;
 import net.sf.opendse.model.Task;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
 
 class WorkerSchedulingTest {
 
@@ -33,7 +41,17 @@ class WorkerSchedulingTest {
 
     public MockWorker(SpecificationProvider specProvider, ScheduleModel schedule,
         Scheduler scheduler, ResourceArbiter arbiter) {
-      super(specProvider, schedule, scheduler, arbiter);
+      this(specProvider, schedule, scheduler, arbiter, new EnactmentLockProviderLocal(),
+          new ResourceCapacityTracker(""));
+    }
+
+    public MockWorker(SpecificationProvider specProvider, ScheduleModel schedule,
+        Scheduler scheduler, ResourceArbiter arbiter, EnactmentLockProvider lockProvider,
+        ResourceCapacityTracker capacityTracker) {
+      super(specProvider, schedule,
+          new SchedulingBatcher(scheduler, specProvider, new VertxProvider(mock(Vertx.class)), 0),
+          arbiter, lockProvider, new TaskMessenger(false), new WaitingTaskIndex(),
+          new ScheduleMemoization(specProvider, false), capacityTracker);
     }
 
     public void setVertX(Vertx vertx) {
@@ -41,6 +59,7 @@ class WorkerSchedulingTest {
     }
   }
 
+  SpecificationProvider specProv;
   Vertx vMock;
   EventBus eBus;
   MockWorker tested;
@@ -52,6 +71,7 @@ class WorkerSchedulingTest {
   Set<Mapping<Task, Resource>> schedule;
 
   ResourceArbiter arbiter;
+  MappingsConcurrent mappings;
 
   /**
    * Failure since task already scheduled.
@@ -67,6 +87,8 @@ class WorkerSchedulingTest {
   @Test
   void testCapacityLimitationReaction() {
     Task notScheduled = new Task("notScheduled");
+    Resource res = new Resource("res");
+    mappings.addMapping(new Mapping<Task, Resource>("m", notScheduled, res));
     CapacityLimitException limiExc = new CapacityLimitException(notScheduled);
 
     assertTrue(tested.waitingTasks.isEmpty());
@@ -76,6 +98,7 @@ class WorkerSchedulingTest {
     try {
       tested.work(notScheduled);
       assertTrue(tested.waitingTasks.contains(notScheduled));
+      assertEquals(List.of(notScheduled), tested.waitingTasks.removeCandidates(res));
     } catch (WorkerException e) {
       fail();
     }
@@ -119,9 +142,9 @@ class WorkerSchedulingTest {
 
     MockWorker waitTest = new MockWorker(specProv, scheduleModel, schedMock, arbiter);
     MockWorker waitSpy = spy(waitTest);
-    waitSpy.waitingTasks.add(t1);
-    waitSpy.waitingTasks.add(t2);
-    waitSpy.waitingTasks.add(t3);
+    waitSpy.waitingTasks.add(t1, Set.of(res1, res2));
+    waitSpy.waitingTasks.add(t2, Set.of(res1, res2));
+    waitSpy.waitingTasks.add(t3, Set.of(res2));
 
     doNothing().when(waitSpy).work(t1);
     doNothing().when(waitSpy).work(t2);
@@ -130,6 +153,7 @@ class WorkerSchedulingTest {
 
     assertFalse(waitSpy.waitingTasks.contains(t1));
     assertFalse(waitSpy.waitingTasks.contains(t2));
+    assertTrue(waitSpy.waitingTasks.contains(t3));
     verify(waitSpy).work(t1);
     verify(waitSpy).work(t2);
   }
@@ -149,9 +173,63 @@ class WorkerSchedulingTest {
     }
   }
 
+  /**
+   * A release of the capacity (followed by the consideration of the waiting
+   * tasks) between the failed acquisition and the enqueueing must not leave the
+   * task waiting.
+   */
+  @Test
+  void testReleaseBeforeEnqueueing() {
+    EnactmentLockProviderLocal lockProvider = new EnactmentLockProviderLocal();
+    AtomicBoolean capacityFree = new AtomicBoolean(false);
+    MockWorker worker = new MockWorker(specProv, scheduleModel, scheduler, arbiter, lockProvider,
+        new ResourceCapacityTracker("") {
+          @Override
+          public boolean tryAcquireAll(Collection<Resource> resources) {
+            return capacityFree.get();
+          }
+        });
+    worker.setVertX(vMock);
+    Resource res = new Resource("res");
+    mappings.addMapping(new Mapping<Task, Resource>("m", input, res));
+    // the waiting list is currently processed by another scheduling verticle
+    Lock waitingListLock = lockProvider.getLock(ConstantsVertX.waitingListLock).result();
+    worker.processChosenMappings(input, schedule);
+    // the capacity is released and the waiting tasks are considered
+    capacityFree.set(true);
+    worker.considerWaiting(res);
+    waitingListLock.release();
+    assertFalse(worker.waitingTasks.contains(input));
+    verify(scheduleModel).setTaskSchedule(input, schedule);
+    verify(eBus).send(ConstantsVertX.addressTaskLaunchable, input.getId());
+  }
+
+  /**
+   * Tasks are enqueued if there is still no capacity when holding the lock of
+   * the waiting list.
+   */
+  @Test
+  void testEnqueueingWithoutCapacity() {
+    MockWorker worker = new MockWorker(specProv, scheduleModel, scheduler, arbiter,
+        new EnactmentLockProviderLocal(), new ResourceCapacityTracker("") {
+          @Override
+          public boolean tryAcquireAll(Collection<Resource> resources) {
+            return false;
+          }
+        });
+    worker.setVertX(vMock);
+    Resource res = new Resource("res");
+    mappings.addMapping(new Mapping<Task, Resource>("m", input, res));
+    worker.processChosenMappings(input, schedule);
+    assertEquals(List.of(input), worker.waitingTasks.removeCandidates(res));
+    verify(scheduleModel, never()).setTaskSchedule(input, schedule);
+  }
+
   @BeforeEach
   void setUp() {
-    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    specProv = mock(SpecificationProvider.class);
+    mappings = new MappingsConcurrent();
+    when(specProv.getMappings()).thenReturn(mappings);
     input = new Task("task");
     schedule = new HashSet<>();
     scheduler = mock(Scheduler.class);
@@ -81,7 +81,8 @@ public class DistAggrNestedTest {
     String jsonKeyOutside = "outside";
     PropertyServiceDependency.addDataDependency(outsideInput, function, jsonKeyOutside, testInput);
 
-    GraphTransformDistribution tested = new GraphTransformDistribution();
+    ScopeRegistry scopeRegistry = new ScopeRegistry();
+    GraphTransformDistribution tested = new GraphTransformDistribution(scopeRegistry);
     assertEquals(12, testInput.getVertexCount());
     // run the first distribution
     tested.modifyEnactmentGraph(testInput, distributionNode);
@@ -99,11 +100,16 @@ public class DistAggrNestedTest {
     Map<String, List<Task>> aggrByScope = reproducedAggr.stream().collect(
         Collectors.groupingBy(task -> PropertyServiceFunctionDataFlowCollections.getScope(task)));
     assertEquals(3, aggrByScope.size());
+    // the nested scopes are registered with the reproduction
+    groupedByScope.forEach((scope, distTasks) -> assertSame(distTasks.get(0),
+        scopeRegistry.getScope(scope).getDistributionNode()));
+    aggrByScope.forEach((scope, aggrTasks) -> assertEquals(Set.copyOf(aggrTasks),
+        scopeRegistry.getScope(scope).getAggregators()));
     // run the second distribution
     reproduced.forEach(distTask -> tested.modifyEnactmentGraph(testInput, distTask));
     assertEquals(44, testInput.getVertexCount());
     // inner aggregation
-    GraphTransformAggregation aggregationOperation = new GraphTransformAggregation();
+    GraphTransformAggregation aggregationOperation = new GraphTransformAggregation(scopeRegistry);
     reproducedAggr.forEach(repAgg -> PropertyServiceFunction.setInput(repAgg, new JsonObject()));
     reproducedAggr.forEach(aggr -> aggregationOperation.modifyEnactmentGraph(testInput, aggr));
     assertEquals(26, testInput.getVertexCount());
@@ -111,5 +117,6 @@ public class DistAggrNestedTest {
     PropertyServiceFunction.setInput(aggregation, new JsonObject());
     aggregationOperation.modifyEnactmentGraph(testInput, aggregation);
     assertEquals(12, testInput.getVertexCount());
+    assertTrue(scopeRegistry.scopes.isEmpty());
   }
 }
@@ -23,7 +23,7 @@ public class GraphTransformDistributionAggregationTest {
   public void testWhileAnnotation() {
     AfclReader reader = new AfclReader(ConstantsControlTest.filePathYamlWhileFor);
     EnactmentGraph input = reader.getEnactmentGraph();
-    GraphTransformDistribution tested = new GraphTransformDistribution();
+    GraphTransformDistribution tested = new GraphTransformDistribution(new ScopeRegistry());
     Task distNode = input.getVertex("forEachBlock--Distribution");
     distNode.setAttribute("IterationNumber", 3);
     Dependency annotatedDepInit = input.getEdge("forEachBlock/input--increment");
@@ -79,11 +79,12 @@ public class GraphTransformDistributionAggregationTest {
     Communication outsideInput = new Communication("outsideIn");
     String jsonKeyOutside = "outside";
     PropertyServiceDependency.addDataDependency(outsideInput, function, jsonKeyOutside, testInput);
-    GraphTransformDistribution tested = new GraphTransformDistribution();
+    ScopeRegistry scopeRegistry = new ScopeRegistry();
+    GraphTransformDistribution tested = new GraphTransformDistribution(scopeRegistry);
 
     // run the operation
     tested.modifyEnactmentGraph(testInput, distributionNode);
-    GraphTransformAggregation testedAggregation = new GraphTransformAggregation();
+    GraphTransformAggregation testedAggregation = new GraphTransformAggregation(scopeRegistry);
     assertEquals(OperationType.Distribution.name(), tested.getTransformName());
     assertEquals(OperationType.Aggregation.name(), testedAggregation.getTransformName());
 
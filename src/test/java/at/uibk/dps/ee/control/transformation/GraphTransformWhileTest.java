@@ -80,7 +80,7 @@ class GraphTransformWhileTest {
   void setup() {
     AfclReader reader = new AfclReader(ConstantsControlTest.filePathYamlSimpleWhile);
     input = reader.getEnactmentGraph();
-    tested = new GraphTransformWhile();
+    tested = new GraphTransformWhile(new ScopeRegistry());
     testedCollapse = new GraphTransformWhileCollapse();
     whileEndTask = input.getVertex("while--whileEnd");
   }
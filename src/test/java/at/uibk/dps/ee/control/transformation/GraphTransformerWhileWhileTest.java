@@ -46,7 +46,7 @@ class GraphTransformerWhileWhileTest {
   void setup() {
     AfclReader reader = new AfclReader(ConstantsControlTest.filePathYamlNestedWhile);
     input = reader.getEnactmentGraph();
-    tested = new GraphTransformWhile();
+    tested = new GraphTransformWhile(new ScopeRegistry());
     testedCollapse = new GraphTransformWhileCollapse();
     whileEndOuter = input.getVertex("outerWhile--whileEnd");
     whileEndInner = input.getVertex("innerWhile--whileEnd");
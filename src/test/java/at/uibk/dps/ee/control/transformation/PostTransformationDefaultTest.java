@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.model.constants.ConstantsEEModel;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
@@ -63,7 +64,7 @@ class PostTransformationDefaultTest {
 
   @BeforeEach
   void setup() {
-    tested = new PostTransformationDefault();
+    tested = new PostTransformationDefault(new TaskMessenger(false));
     eBus = mock(EventBus.class);
   }
 
@@ -0,0 +1,133 @@
+package at.uibk.dps.ee.control.transformation;
+
+import static org.junit.jupiter.api.Assertions.*;
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import at.uibk.dps.ee.control.transformation.ScopeRegistry.ReproductionScope;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunctionDataFlowCollections.OperationType;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Task;
+
+class ScopeRegistryTest {
+
+  String scope = "scope";
+  EnactmentGraph graph;
+  Task distributionNode;
+  Task aggregation;
+  ScopeRegistry tested;
+
+  /**
+   * Tests that the distribution registers the scope and that the aggregation
+   * reverts the reproduction and removes the scope.
+   */
+  @Test
+  void testRegistrationByTransforms() {
+    new GraphTransformDistribution(tested).modifyEnactmentGraph(graph, distributionNode);
+    ReproductionScope registered = tested.getRegistered(scope).get();
+    assertSame(distributionNode, registered.getDistributionNode());
+    assertEquals(Set.of(aggregation), registered.getAggregators());
+    // 3 x (data in, function, data out)
+    assertEquals(9, registered.getOffspring().size());
+    assertTrue(registered.getOffspring().stream().allMatch(graph::containsVertex));
+
+    GraphTransformAggregation aggregationTransform = new GraphTransformAggregation(tested);
+    aggregationTransform.modifyEnactmentGraph(graph, aggregation);
+    // not all aggregators ready
+    assertTrue(tested.getRegistered(scope).isPresent());
+    assertEquals(13, graph.getVertexCount());
+    PropertyServiceFunction.setInput(aggregation, new JsonObject());
+    aggregationTransform.modifyEnactmentGraph(graph, aggregation);
+    assertFalse(tested.getRegistered(scope).isPresent());
+    assertEquals(7, graph.getVertexCount());
+    // repeated trigger does not modify the reverted graph
+    aggregationTransform.modifyEnactmentGraph(graph, aggregation);
+    assertEquals(7, graph.getVertexCount());
+  }
+
+  /**
+   * Tests that the look-up of a scope which was not registered fails.
+   */
+  @Test
+  void testUnregisteredScope() {
+    assertThrows(IllegalStateException.class, () -> tested.getScope(scope));
+  }
+
+  /**
+   * Tests the registration of the scopes of created distribution nodes (e.g.,
+   * within a while replica).
+   */
+  @Test
+  void testRegisterCreated() {
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    tested.registerCreated(Set.of(distributionNode, aggregation, function));
+    ReproductionScope registered = tested.getScope(scope);
+    assertSame(distributionNode, registered.getDistributionNode());
+    assertEquals(Set.of(aggregation), registered.getAggregators());
+    assertTrue(registered.getOffspring().isEmpty());
+  }
+
+  /**
+   * Tests that the replicas of a while within a reproduced section are added to
+   * the offspring of the scope, so that the scopes nested into the replicas are
+   * removed with the scope.
+   */
+  @Test
+  void testAddReplicas() {
+    Task whileEnd = new Task("whileEnd");
+    Task replicaDistribution = new Task("replicaDistribution");
+    tested.register(scope, new ReproductionScope(distributionNode, Set.of(aggregation),
+        new HashSet<>(Set.of(whileEnd))));
+    tested.register("replicaScope",
+        new ReproductionScope(replicaDistribution, Set.of(), new HashSet<>()));
+    tested.addReplicas(whileEnd, Set.of(replicaDistribution));
+    assertTrue(tested.getScope(scope).getOffspring().contains(replicaDistribution));
+    tested.unregister(scope);
+    assertFalse(tested.getRegistered("replicaScope").isPresent());
+  }
+
+  /**
+   * Tests that removing a scope also removes the scopes nested into it.
+   */
+  @Test
+  void testUnregisterNested() {
+    Task nestedDistribution = new Task("nested");
+    tested.register(scope, new ReproductionScope(distributionNode, Set.of(aggregation),
+        Set.of(nestedDistribution)));
+    tested.register("nestedScope",
+        new ReproductionScope(nestedDistribution, Set.of(), Set.of()));
+    tested.unregister(scope);
+    assertFalse(tested.getRegistered("nestedScope").isPresent());
+  }
+
+  @BeforeEach
+  void setUp() {
+    tested = new ScopeRegistry();
+    graph = new EnactmentGraph();
+    Communication wfInput = new Communication("input");
+    Communication wfOutput = new Communication("output");
+    distributionNode = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("distribution", OperationType.Distribution, scope);
+    PropertyServiceFunctionDataFlowCollections.setIterationNumber(distributionNode, 3);
+    Task function = new Task("function");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
+    aggregation = PropertyServiceFunctionDataFlowCollections
+        .createCollectionDataFlowTask("aggregation", OperationType.Aggregation, scope);
+    Communication distributedData = new Communication("distributedData");
+    Communication functionResult = new Communication("functionResult");
+    PropertyServiceDependency.addDataDependency(wfInput, distributionNode, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributionNode, distributedData, "coll", graph);
+    PropertyServiceDependency.addDataDependency(distributedData, function, "in", graph);
+    PropertyServiceDependency.addDataDependency(function, functionResult, "out", graph);
+    PropertyServiceDependency.addDataDependency(functionResult, aggregation, "aggr", graph);
+    PropertyServiceDependency.addDataDependency(aggregation, wfOutput, "aggr", graph);
+  }
+}
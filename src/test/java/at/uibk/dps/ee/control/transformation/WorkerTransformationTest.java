@@ -1,25 +1,42 @@
 package at.uibk.dps.ee.control.transformation;
 
+import static org.junit.jupiter.api.Assertions.*;
 import java.util.HashSet;
 import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.extraction.LeafNodeTracker;
+import at.uibk.dps.ee.control.locks.EnactmentLockProviderLocal;
+import at.uibk.dps.ee.control.locks.LockStriping;
+import at.uibk.dps.ee.control.testconstants.ConstantsControlTest;
+import at.uibk.dps.ee.control.transmission.PendingInputCounter;
 import at.uibk.dps.ee.core.ModelModificationListener;
+import at.uibk.dps.ee.io.afcl.AfclReader;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import net.sf.opendse.model.Task;
+import net.sf.opendse.model.properties.TaskPropertyService;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 
 class WorkerTransformationTest {
 
   protected class MockWorker extends WorkerTransformation {
     public MockWorker(SpecificationProvider specProv, GraphTransformer transformer,
-        Set<ModelModificationListener> listeners, PostTransformation postTransformation) {
-      super(specProv, transformer, listeners, postTransformation);
+        Set<ModelModificationListener> listeners, PostTransformation postTransformation,
+        PendingInputCounter pendingInputs, LockStriping lockStriping,
+        boolean offloadTransformations) {
+      super(specProv, transformer, listeners, postTransformation, pendingInputs,
+          new LeafNodeTracker(specProv), lockStriping, offloadTransformations);
     }
 
     public void setVertX(Vertx vertx) {
@@ -31,9 +48,13 @@ class WorkerTransformationTest {
   GraphTransform operation;
   PostTransformation postTransformation;
   ModelModificationListener listener;
+  PendingInputCounter pendingInputs;
   EventBus eBus;
+  Vertx vertx;
   Task input;
   EnactmentGraph graph;
+  SpecificationProvider specProv;
+  Set<ModelModificationListener> listeners;
 
   MockWorker tested;
 
@@ -42,10 +63,77 @@ class WorkerTransformationTest {
    */
   @Test
   void test() {
-    tested.performTransformation(input);
+    Set<Task> region = new HashSet<>();
+    region.add(input);
+    tested.performTransformation(input, operation, region);
     verify(operation).modifyEnactmentGraph(graph, input);
     verify(listener).reactToModelModification();
     verify(postTransformation).postTransformationTreatment(input, eBus);
+    verify(pendingInputs).invalidate(input);
+  }
+
+  /**
+   * Tests that the pending-input counters match the transmission annotations
+   * after a while replication has reset the transmissions of replica edges.
+   */
+  @Test
+  void testCountersAfterWhileReplication() {
+    EnactmentGraph whileGraph =
+        new AfclReader(ConstantsControlTest.filePathYamlSimpleWhile).getEnactmentGraph();
+    SpecificationProvider whileSpec = mock(SpecificationProvider.class);
+    when(whileSpec.getEnactmentGraph()).thenReturn(whileGraph);
+    PendingInputCounter counters = new PendingInputCounter();
+    MockWorker worker = new MockWorker(whileSpec, transformer, listeners, postTransformation,
+        counters, new LockStriping(1, new EnactmentLockProviderLocal()), false);
+    worker.setVertX(vertx);
+    // the transmissions of the first iteration create the counters
+    whileGraph.getEdges().forEach(PropertyServiceDependency::annotateFinishedTransmission);
+    whileGraph.getEdges().forEach(edge -> counters.annotateTransmission(edge, whileGraph));
+    Task whileEnd = whileGraph.getVertex("while--whileEnd");
+    GraphTransform whileTransform = new GraphTransformWhile(new ScopeRegistry());
+    worker.performTransformation(whileEnd, whileTransform,
+        whileTransform.getAffectedRegion(whileGraph, whileEnd));
+
+    whileGraph.getVertices().stream().filter(TaskPropertyService::isProcess)
+        .forEach(function -> {
+          long pending = whileGraph.getInEdges(function).stream()
+              .filter(inEdge -> !PropertyServiceDependency.isTransmissionDone(inEdge)).count();
+          // a repeated transmission returns the current counter value
+          whileGraph.getInEdges(function).stream()
+              .filter(PropertyServiceDependency::isTransmissionDone).findAny()
+              .ifPresent(done -> assertEquals(pending,
+                  counters.annotateTransmission(done, whileGraph), function.getId()));
+        });
+  }
+
+  /**
+   * Tests that offloaded transformations are performed on the worker pool and
+   * that the graph structure can only be read once they are finished.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testOffloadTransformation() {
+    LockStriping lockStriping = new LockStriping(1, new EnactmentLockProviderLocal());
+    MockWorker offloading = new MockWorker(specProv, transformer, listeners,
+        postTransformation, pendingInputs, lockStriping, true);
+    offloading.setVertX(vertx);
+    Promise<Void> blockingCall = Promise.promise();
+    when(vertx.executeBlocking(any(Handler.class), eq(false))).thenAnswer(invocation -> {
+      ((Handler<Promise<Void>>) invocation.getArgument(0)).handle(Promise.promise());
+      return blockingCall.future();
+    });
+    Set<Task> region = new HashSet<>();
+    region.add(input);
+    Future<Void> transformation = offloading.performTransformation(input, operation, region);
+    verify(operation).modifyEnactmentGraph(graph, input);
+    // the graph is modified on a worker thread; readers are queued, not blocked
+    Future<Boolean> read = lockStriping.readGraph(() -> true);
+    assertFalse(read.isComplete());
+    assertFalse(transformation.isComplete());
+    blockingCall.complete();
+    assertTrue(read.succeeded());
+    assertTrue(transformation.succeeded());
+    verify(postTransformation).postTransformationTreatment(input, eBus);
   }
 
   @BeforeEach
@@ -55,16 +143,18 @@ class WorkerTransformationTest {
     operation = mock(GraphTransform.class);
     postTransformation = mock(PostTransformation.class);
     when(transformer.getTransformOperation(input)).thenReturn(operation);
-    Vertx vertx = mock(Vertx.class);
+    vertx = mock(Vertx.class);
     eBus = mock(EventBus.class);
     when(vertx.eventBus()).thenReturn(eBus);
     graph = new EnactmentGraph();
-    SpecificationProvider specProv = mock(SpecificationProvider.class);
+    specProv = mock(SpecificationProvider.class);
     when(specProv.getEnactmentGraph()).thenReturn(graph);
     listener = mock(ModelModificationListener.class);
-    Set<ModelModificationListener> listeners = new HashSet<>();
+    listeners = new HashSet<>();
     listeners.add(listener);
-    tested = new MockWorker(specProv, transformer, listeners, postTransformation);
+    pendingInputs = mock(PendingInputCounter.class);
+    tested = new MockWorker(specProv, transformer, listeners, postTransformation, pendingInputs,
+        new LockStriping(1, new EnactmentLockProviderLocal()), false);
     tested.setVertX(vertx);
   }
 }
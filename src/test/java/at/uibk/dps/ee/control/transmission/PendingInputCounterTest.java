@@ -0,0 +1,66 @@
+package at.uibk.dps.ee.control.transmission;
+
+import static org.junit.jupiter.api.Assertions.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
+import net.sf.opendse.model.Communication;
+import net.sf.opendse.model.Dependency;
+import net.sf.opendse.model.Task;
+
+class PendingInputCounterTest {
+
+  PendingInputCounter tested;
+  EnactmentGraph graph;
+  Task function;
+  Dependency dep1;
+  Dependency dep2;
+  Dependency dep3;
+
+  /**
+   * Tests that each transmission decrements the counter.
+   */
+  @Test
+  void testAnnotateTransmission() {
+    assertEquals(2, tested.annotateTransmission(dep1, graph));
+    assertTrue(PropertyServiceDependency.isTransmissionDone(dep1));
+    assertEquals(1, tested.annotateTransmission(dep2, graph));
+    assertEquals(0, tested.annotateTransmission(dep3, graph));
+  }
+
+  /**
+   * Tests that repeated transmissions do not change the counter.
+   */
+  @Test
+  void testRepeatedTransmission() {
+    assertEquals(2, tested.annotateTransmission(dep1, graph));
+    assertEquals(2, tested.annotateTransmission(dep1, graph));
+  }
+
+  /**
+   * Tests that invalidated counters are recreated from the edge annotations.
+   */
+  @Test
+  void testInvalidate() {
+    assertEquals(2, tested.annotateTransmission(dep1, graph));
+    tested.invalidate(function);
+    PropertyServiceDependency.annotateFinishedTransmission(dep2);
+    assertEquals(0, tested.annotateTransmission(dep3, graph));
+    tested.invalidateAll();
+    assertTrue(tested.pendingInputs.isEmpty());
+  }
+
+  @BeforeEach
+  void setUp() {
+    tested = new PendingInputCounter();
+    graph = new EnactmentGraph();
+    function = new Task("function");
+    dep1 = PropertyServiceDependency.addDataDependency(new Communication("comm1"), function,
+        "key1", graph);
+    dep2 = PropertyServiceDependency.addDataDependency(new Communication("comm2"), function,
+        "key2", graph);
+    dep3 = PropertyServiceDependency.addDataDependency(new Communication("comm3"), function,
+        "key3", graph);
+  }
+}
@@ -4,17 +4,21 @@ import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
+import at.uibk.dps.ee.control.locks.LockStriping;
 import at.uibk.dps.ee.control.verticles.ConstantsVertX;
+import at.uibk.dps.ee.control.verticles.TaskMessenger;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
 import at.uibk.dps.ee.model.properties.PropertyServiceData;
 import at.uibk.dps.ee.model.properties.PropertyServiceDependency;
 import at.uibk.dps.ee.model.properties.PropertyServiceFunction;
+import at.uibk.dps.ee.model.properties.PropertyServiceFunction.UsageType;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import net.sf.opendse.model.Communication;
@@ -25,8 +29,10 @@ class WorkerTransmissionTest {
 
   protected class MockWorker extends WorkerTransmission {
 
-    public MockWorker(SpecificationProvider specProvider, SchedulabilityCheck schedulabilityCheck) {
-      super(specProvider, schedulabilityCheck);
+    public MockWorker(SpecificationProvider specProvider, SchedulabilityCheck schedulabilityCheck,
+        PendingInputCounter pendingInputs, LockStriping lockStriping) {
+      super(specProvider, schedulabilityCheck, pendingInputs, lockStriping,
+          new TaskMessenger(false));
     }
 
     public void setVertx(Vertx vertx) {
@@ -74,6 +80,18 @@ class WorkerTransmissionTest {
     assertTrue(PropertyServiceDependency.isTransmissionDone(dep2));
   }
 
+  /**
+   * Tests that the transmission region contains the data node and its
+   * successors.
+   */
+  @Test
+  void testTransmissionRegion() {
+    Set<Task> region = tested.getTransmissionRegion(comm1);
+    assertEquals(2, region.size());
+    assertTrue(region.contains(comm1));
+    assertTrue(region.contains(function));
+  }
+
   @BeforeEach
   void setUp() {
     Vertx vMock = mock(Vertx.class);
@@ -83,12 +101,14 @@ class WorkerTransmissionTest {
     specProv = mock(SpecificationProvider.class);
     when(specProv.getEnactmentGraph()).thenReturn(graph);
     schedCheck = mock(SchedulabilityCheck.class);
-    tested = new MockWorker(specProv, schedCheck);
+    tested = new MockWorker(specProv, schedCheck, new PendingInputCounter(),
+        mock(LockStriping.class));
     tested.setVertx(vMock);
 
     comm1 = new Communication("comm1");
     comm2 = new Communication("comm2");
     function = new Task("task");
+    PropertyServiceFunction.setUsageType(UsageType.User, function);
     String key1 = "key1";
     String key2 = "key2";
     JsonElement content1 = new JsonPrimitive(true);
@@ -100,7 +100,7 @@ class InputDataHandlerTest {
     eBus = mock(EventBus.class);
     when(vProv.geteBus()).thenReturn(eBus);
 
-    tested = new InputDataHandler(eGraphProvider, vProv);
+    tested = new InputDataHandler(eGraphProvider, vProv, new TaskMessenger(false));
 
   }
 }
@@ -0,0 +1,30 @@
+package at.uibk.dps.ee.control.verticles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import org.junit.jupiter.api.Test;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import io.vertx.core.buffer.Buffer;
+
+class JsonObjectCodecTest {
+
+  @Test
+  void testTransform() {
+    JsonObject result = new JsonObject();
+    result.add("key", new JsonPrimitive(42));
+    JsonObjectCodec tested = new JsonObjectCodec();
+    assertSame(result, tested.transform(result));
+  }
+
+  @Test
+  void testWire() {
+    JsonObject result = new JsonObject();
+    result.add("key", new JsonPrimitive("välue"));
+    JsonObjectCodec tested = new JsonObjectCodec();
+    Buffer buffer = Buffer.buffer();
+    buffer.appendByte((byte) 1);
+    tested.encodeToWire(buffer, result);
+    assertEquals(result, tested.decodeFromWire(1, buffer));
+  }
+}
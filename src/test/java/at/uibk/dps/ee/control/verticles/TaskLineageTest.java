@@ -0,0 +1,19 @@
+package at.uibk.dps.ee.control.verticles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import net.sf.opendse.model.Task;
+
+class TaskLineageTest {
+
+  @Test
+  void testOriginalId() {
+    Task original = new Task("task");
+    Task offspring = new Task("task_1");
+    offspring.setParent(original);
+    Task offspringOfOffspring = new Task("offspring2");
+    offspringOfOffspring.setParent(offspring);
+    assertEquals(original.getId(), TaskLineage.getOriginalId(offspringOfOffspring));
+    assertEquals(original.getId(), TaskLineage.getOriginalId(original));
+  }
+}
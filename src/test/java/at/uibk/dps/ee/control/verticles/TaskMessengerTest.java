@@ -0,0 +1,98 @@
+package at.uibk.dps.ee.control.verticles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import at.uibk.dps.ee.model.graph.EnactmentGraph;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.EventBus;
+import net.sf.opendse.model.Task;
+
+class TaskMessengerTest {
+
+  @Test
+  void testSendId() {
+    Task task = new Task("task");
+    EventBus eBus = mock(EventBus.class);
+    TaskMessenger tested = new TaskMessenger(false);
+    tested.send(eBus, "address", task);
+    verify(eBus).send("address", "task");
+  }
+
+  @Test
+  void testSendHandle() {
+    Task task = new Task("task");
+    EventBus eBus = mock(EventBus.class);
+    TaskMessenger tested = new TaskMessenger(true);
+    tested.send(eBus, "address", task);
+    ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+    verify(eBus).send(org.mockito.ArgumentMatchers.eq("address"), captor.capture());
+    TaskHandle handle = (TaskHandle) captor.getValue();
+    assertSame(task, handle.getTask());
+    // a task replaced by an equal task (same ID) is not resolved to the old one
+    Task replacement = new Task("task");
+    tested.send(eBus, "address", replacement);
+    verify(eBus, times(2)).send(org.mockito.ArgumentMatchers.eq("address"), captor.capture());
+    assertSame(replacement, ((TaskHandle) captor.getValue()).getTask());
+  }
+
+  @Test
+  void testDirectRoute() {
+    Task task = new Task("task");
+    EventBus eBus = mock(EventBus.class);
+    VerticleApollo worker = mock(VerticleApollo.class);
+    VerticleApollo worker2 = mock(VerticleApollo.class);
+    when(worker.getTriggerAddress()).thenReturn("address");
+    when(worker2.getTriggerAddress()).thenReturn("address");
+    TaskMessenger tested = new TaskMessenger(false);
+    tested.routeDirectly(List.of(worker, worker2));
+    tested.send(eBus, "address", task);
+    tested.send(eBus, "address", task);
+    // the instances are used in turns
+    verify(worker).handOver(task);
+    verify(worker2).handOver(task);
+    verify(eBus, never()).send("address", "task");
+    tested.send(eBus, "other", task);
+    verify(eBus).send("other", "task");
+  }
+
+  @Test
+  void testDirectRouteSameEventLoop() {
+    Task task = new Task("task");
+    EventBus eBus = mock(EventBus.class);
+    VerticleApollo worker = mock(VerticleApollo.class);
+    VerticleApollo worker2 = mock(VerticleApollo.class);
+    when(worker.getTriggerAddress()).thenReturn("address");
+    when(worker2.isOnOwnEventLoop()).thenReturn(true);
+    TaskMessenger tested = new TaskMessenger(false);
+    tested.routeDirectly(List.of(worker, worker2));
+    tested.send(eBus, "address", task);
+    tested.send(eBus, "address", task);
+    // the instance on the calling event loop is always preferred
+    verify(worker, never()).handOver(task);
+    verify(worker2, times(2)).handOver(task);
+  }
+
+  @Test
+  void testResolve() {
+    Task task = new Task("task");
+    EnactmentGraph eGraph = new EnactmentGraph();
+    eGraph.addVertex(task);
+    assertSame(task, TaskMessenger.resolveTask("task", eGraph));
+    assertSame(task, TaskMessenger.resolveTask(new TaskHandle(task), eGraph));
+    // handle decoded from the wire
+    TaskHandleCodec codec = new TaskHandleCodec();
+    Buffer buffer = Buffer.buffer();
+    codec.encodeToWire(buffer, new TaskHandle(task));
+    TaskHandle decoded = codec.decodeFromWire(0, buffer);
+    assertEquals("task", decoded.getTaskId());
+    assertSame(task, TaskMessenger.resolveTask(decoded, eGraph));
+  }
+}
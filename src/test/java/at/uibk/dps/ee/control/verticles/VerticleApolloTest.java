@@ -3,13 +3,18 @@ package at.uibk.dps.ee.control.verticles;
 import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import at.uibk.dps.ee.control.metrics.EnactmentMetricsInMemory;
+import at.uibk.dps.ee.control.metrics.MetricNames;
+import at.uibk.dps.ee.control.metrics.MetricsSnapshot;
 import at.uibk.dps.ee.model.graph.EnactmentGraph;
 import at.uibk.dps.ee.model.graph.SpecificationProvider;
+import io.vertx.core.Context;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.Message;
 import net.sf.opendse.model.Task;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -37,6 +42,10 @@ public class VerticleApolloTest {
     protected void setVertx(Vertx vertx) {
       this.vertx = vertx;
     }
+
+    protected void setContext(Context context) {
+      this.context = context;
+    }
   }
 
   String triggerAddress = "trigger";
@@ -103,6 +112,43 @@ public class VerticleApolloTest {
     verify(spy).processTask(task1);
   }
 
+  /**
+   * Test that the messages and handler times are recorded.
+   */
+  @Test
+  public void testMetrics() {
+    EnactmentMetricsInMemory metrics = new EnactmentMetricsInMemory();
+    tested.setMetrics(metrics);
+    tested.processTaskTrigger(task1Message);
+    tested.paused = true;
+    tested.processTaskTrigger(task1Message);
+    MetricsSnapshot snapshot = metrics.getSnapshot();
+    assertEquals(2L, snapshot.getMessageCounts().get(triggerAddress).longValue());
+    assertEquals(1,
+        snapshot.getTimers().get(MetricNames.handlerTimer(triggerAddress)).getCount());
+    assertEquals(1,
+        snapshot.getQueueLengths().get(MetricNames.pauseQueue(triggerAddress)).intValue());
+  }
+
+  /**
+   * Tests that tasks handed over on the own event loop are processed directly,
+   * while tasks handed over from other threads go over the verticle context.
+   */
+  @Test
+  public void testHandOver() {
+    Context context = mock(Context.class);
+    VerticleMock spy = spy(tested);
+    spy.setContext(context);
+    spy.handOver(task1);
+    verify(spy, never()).processTrigger(task1);
+    verify(context).runOnContext(any());
+    spy.eventLoopThread = Thread.currentThread();
+    assertTrue(spy.isOnOwnEventLoop());
+    spy.handOver(task1);
+    verify(spy).processTrigger(task1);
+    verify(context).runOnContext(any());
+  }
+
   /**
    * Test the publishing of the failure message.
    */
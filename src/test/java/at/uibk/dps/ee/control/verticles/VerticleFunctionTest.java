@@ -1,11 +1,14 @@
 package at.uibk.dps.ee.control.verticles;
 
+import static org.junit.jupiter.api.Assertions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonPrimitive;
 import at.uibk.dps.ee.control.failure.FailureHandler;
+import at.uibk.dps.ee.control.init.EnactmentReset;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
+import io.vertx.core.Future;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.EventBus;
@@ -13,7 +16,9 @@ import io.vertx.core.eventbus.Message;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.eq;
 
 class VerticleFunctionTest {
 
@@ -25,6 +30,7 @@ class VerticleFunctionTest {
   EventBus eBus;
   Promise<JsonObject> resultPromise;
   FailureHandler failureHandler;
+  EnactmentReset enactmentReset;
   Message<String> failureMessage;
   String failureString;
 
@@ -38,6 +44,7 @@ class VerticleFunctionTest {
 
     inputHandler = mock(InputDataHandler.class);
     verticleManager = mock(VerticleManager.class);
+    when(verticleManager.deployVerticles()).thenReturn(Future.succeededFuture());
     vertx = mock(Vertx.class);
     eBus = mock(EventBus.class);
 
@@ -47,6 +54,7 @@ class VerticleFunctionTest {
 
     PromiseProvider pProv = mock(PromiseProvider.class);
     resultPromise = mock(Promise.class);
+    when(resultPromise.future()).thenReturn(mock(Future.class));
     when(pProv.getJsonPromise()).thenReturn(resultPromise);
 
     failureHandler = mock(FailureHandler.class);
@@ -54,9 +62,20 @@ class VerticleFunctionTest {
     failureString = "stuff failed";
     when(failureMessage.body()).thenReturn(failureString);
 
-    tested = new VerticleFunction(inputHandler, verticleManager, vProv, pProv, failureHandler);
+    enactmentReset = mock(EnactmentReset.class);
+    when(enactmentReset.reset()).thenReturn(Future.succeededFuture());
+    tested = new VerticleFunction(inputHandler, verticleManager, vProv, pProv, failureHandler,
+        enactmentReset);
   }
   
+  /**
+   * Test that the json codec is registered.
+   */
+  @Test
+  void testCodecRegistration() {
+    verify(eBus).registerDefaultCodec(eq(JsonObject.class), any(JsonObjectCodec.class));
+  }
+
   /**
    * Test that the correct failure handling is performed.
    */
@@ -67,6 +86,40 @@ class VerticleFunctionTest {
     verify(failureHandler).handleFailure(failureString, resultPromise, vertx);
   }
 
+  /**
+   * Test that task failures are forwarded to the failure handler.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  void testTaskFailureHandling() {
+    tested.currentPromise = resultPromise;
+    JsonObject failure = new JsonObject();
+    failure.addProperty(ConstantsVertX.failureKeyTaskId, "task");
+    failure.addProperty(ConstantsVertX.failureKeyMessage, failureString);
+    Message<JsonObject> taskFailureMessage = mock(Message.class);
+    when(taskFailureMessage.body()).thenReturn(failure);
+    tested.handleTaskFailure(taskFailureMessage);
+    verify(failureHandler).handleTaskFailure("task", failureString, resultPromise, vertx);
+  }
+
+  /**
+   * Test that the input is only processed after the deployment of the verticles.
+   */
+  @Test
+  void testProcessInputAfterDeployment() {
+    Promise<Void> deployment = Promise.promise();
+    when(verticleManager.deployVerticles()).thenReturn(deployment.future());
+    VertxProvider vProv = mock(VertxProvider.class);
+    when(vProv.getVertx()).thenReturn(vertx);
+    when(vProv.geteBus()).thenReturn(eBus);
+    VerticleFunction deploying = new VerticleFunction(inputHandler, verticleManager, vProv,
+        new PromiseProvider(), failureHandler, enactmentReset);
+    deploying.processInput(result);
+    verify(inputHandler, never()).processInput(result);
+    deployment.complete();
+    verify(inputHandler).processInput(result);
+  }
+
   /**
    * Test that we use the handler to process input.
    */
@@ -77,16 +130,44 @@ class VerticleFunctionTest {
     verify(resultPromise).future();
   }
 
+  /**
+   * Test that the state is reset between consecutive invocations.
+   */
+  @Test
+  void testConsecutiveInvocations() {
+    PromiseProvider pProv = new PromiseProvider();
+    VertxProvider vProv = mock(VertxProvider.class);
+    when(vProv.getVertx()).thenReturn(vertx);
+    when(vProv.geteBus()).thenReturn(eBus);
+    VerticleFunction function = new VerticleFunction(inputHandler, verticleManager, vProv, pProv,
+        failureHandler, enactmentReset);
+    JsonObject input1 = new JsonObject();
+    input1.addProperty("input", 1);
+    JsonObject input2 = new JsonObject();
+    input2.addProperty("input", 2);
+    Future<JsonObject> first = function.processInput(input1);
+    verify(inputHandler).processInput(input1);
+    verify(enactmentReset, never()).reset();
+
+    function.currentPromise.complete(result);
+    assertEquals(result, first.result());
+    Future<JsonObject> second = function.processInput(input2);
+    // the state of the first enactment is reset before the second one
+    verify(enactmentReset).reset();
+    verify(inputHandler).processInput(input2);
+    assertFalse(second.isComplete());
+  }
+
   /**
    * Test the result handler.
    */
   @Test
   void testResultHandler() {
     @SuppressWarnings("unchecked")
-    Message<String> mockMessage = mock(Message.class);
-    when(mockMessage.body()).thenReturn(result.toString());
+    Message<JsonObject> mockMessage = mock(Message.class);
+    when(mockMessage.body()).thenReturn(result);
     tested.currentPromise = tested.promiseProvider.getJsonPromise();
     tested.handleResult(mockMessage);
-    verify(resultPromise).complete(any(JsonObject.class));
+    verify(resultPromise).complete(result);
   }
 }
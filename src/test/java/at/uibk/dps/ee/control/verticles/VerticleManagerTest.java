@@ -2,24 +2,27 @@ package at.uibk.dps.ee.control.verticles;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.invocation.InvocationOnMock;
-import org.mockito.stubbing.Answer;
+import org.mockito.ArgumentCaptor;
+import at.uibk.dps.ee.control.offload.InvocationExecutor;
 import at.uibk.dps.ee.guice.starter.VertxProvider;
-import io.vertx.core.AsyncResult;
-import io.vertx.core.Handler;
+import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Verticle;
 import io.vertx.core.Vertx;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.doAnswer;
-import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
-
-
+import java.util.function.Supplier;
 
 class VerticleManagerTest {
 
@@ -29,24 +32,46 @@ class VerticleManagerTest {
 
   VerticleApollo verticle1;
   VerticleApollo verticle2;
+  VerticleApollo createdInstance;
 
   int deploymentNumber = 2;
 
   @SuppressWarnings("unchecked")
   @Test
-  void testCallBack() {
-    int count = (int) tested.latch.getCount();
-    AsyncResult<String> res = (AsyncResult<String>) mock(AsyncResult.class);
-    tested.deployCallBack(res);
-    assertEquals(count -1, tested.latch.getCount());
+  void testDeploy() {
+    Future<Void> deployment = tested.deployVerticles();
+    assertTrue(deployment.succeeded());
+    // repeated calls do not deploy again
+    assertSame(deployment, tested.deployVerticles());
+    ArgumentCaptor<Supplier<Verticle>> supplierCaptor = ArgumentCaptor.forClass(Supplier.class);
+    ArgumentCaptor<DeploymentOptions> optionsCaptor =
+        ArgumentCaptor.forClass(DeploymentOptions.class);
+    verify(vertX, times(2)).deployVerticle(supplierCaptor.capture(), optionsCaptor.capture());
+    List<DeploymentOptions> options = optionsCaptor.getAllValues();
+    assertEquals(deploymentNumber, options.get(0).getInstances());
+    assertEquals(false, options.get(0).isWorker());
+    assertEquals(true, options.get(1).isWorker());
+    // the injected instance is supplied first
+    Supplier<Verticle> supplier = supplierCaptor.getAllValues().get(0);
+    assertSame(verticle1, supplier.get());
+    assertSame(createdInstance, supplier.get());
+    assertEquals(List.of(verticle1, createdInstance), tested.getInstances(verticle1));
   }
-  
-  @SuppressWarnings("unchecked")
+
+  /**
+   * Tests that the shared invocation executor is closed once, when the engine is
+   * torn down.
+   */
   @Test
-  void testDeploy() {
+  void testExecutorClosedOnTeardown() throws Exception {
+    InvocationExecutor executor = mock(InvocationExecutor.class);
+    tested.setInvocationExecutor(executor);
     tested.deployVerticles();
-    verify(vertX, times(deploymentNumber)).deployVerticle(eq(verticle1), any(Handler.class));
-    verify(vertX, times(deploymentNumber)).deployVerticle(eq(verticle2), any(Handler.class));
+    ArgumentCaptor<Verticle> closerCaptor = ArgumentCaptor.forClass(Verticle.class);
+    verify(vertX).deployVerticle(closerCaptor.capture());
+    verify(executor, never()).close();
+    closerCaptor.getValue().stop(Promise.promise());
+    verify(executor).close();
   }
 
   @SuppressWarnings("unchecked")
@@ -57,16 +82,15 @@ class VerticleManagerTest {
     when(vProv.getVertx()).thenReturn(vertX);
     verticle1 = mock(VerticleApollo.class);
     verticle2 = mock(VerticleApollo.class);
-    Set<VerticleApollo> verticles = new HashSet<>();
+    when(verticle2.isWorkerVerticle()).thenReturn(true);
+    createdInstance = mock(VerticleApollo.class);
+    Set<VerticleApollo> verticles = new LinkedHashSet<>();
     verticles.add(verticle1);
     verticles.add(verticle2);
-    tested  = new VerticleManager(verticles, deploymentNumber, vProv);
-    doAnswer(new Answer<Object>() {
-      @Override
-      public Object answer(InvocationOnMock invocation) throws Throwable {
-        tested.latch.countDown();
-        return null;
-      }
-    }).when(vertX).deployVerticle(any(VerticleApollo.class), any(Handler.class));
+    tested = new VerticleManager(verticles, deploymentNumber, vProv, type -> createdInstance);
+    when(vertX.deployVerticle(any(Supplier.class), any(DeploymentOptions.class)))
+        .thenReturn(Future.succeededFuture("deploymentId"));
+    when(vertX.deployVerticle(any(Verticle.class)))
+        .thenReturn(Future.succeededFuture("closerId"));
   }
 }